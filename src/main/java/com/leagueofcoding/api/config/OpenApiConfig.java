@@ -45,7 +45,16 @@ public class OpenApiConfig {
                                 .description("Public problem browsing APIs"),
                         new Tag()
                                 .name("Admin - Problems")
-                                .description("Problem management APIs (Admin only)")
+                                .description("Problem management APIs (Admin only)"),
+                        new Tag()
+                                .name("Admin - Ratings")
+                                .description("Rating maintenance APIs (Admin only)"),
+                        new Tag()
+                                .name("Leaderboard")
+                                .description("Player ranking APIs"),
+                        new Tag()
+                                .name("Users")
+                                .description("User profile APIs")
                 ))
                 .components(new Components()
                         .addSecuritySchemes("bearerAuth", new SecurityScheme()
@@ -70,9 +70,22 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/problems/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
 
+                        // Leaderboards - PUBLIC except the caller's own rank
+                        .requestMatchers("/api/leaderboard/me").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/leaderboard/**").permitAll()
+
                         // Online users - PUBLIC (để test WebSocket)
                         .requestMatchers("/api/users/online/**").permitAll()
 
+                        // User profiles - PUBLIC
+                        .requestMatchers(
+                                HttpMethod.GET,
+                                "/api/users/{username}",
+                                "/api/users/{username}/achievements",
+                                "/api/users/{username}/rating-history",
+                                "/api/users/{username}/matches"
+                        ).permitAll()
+
                         // ===== ADMIN ENDPOINTS =====
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -6,18 +6,28 @@ import com.leagueofcoding.api.exception.UserNotFoundException;
 import com.leagueofcoding.api.repository.UserRepository;
 import com.leagueofcoding.api.security.UserPrincipal;
 import com.leagueofcoding.api.service.ProblemService;
+import com.leagueofcoding.api.service.blob.BlobRef;
+import com.leagueofcoding.api.service.blob.BlobStore;
+import com.leagueofcoding.api.service.importer.ProblemImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+
 /**
  * AdminProblemController - Admin endpoints cho problem management.
  *
@@ -33,6 +43,8 @@ public class AdminProblemController {
 
     private final ProblemService problemService;
     private final UserRepository userRepository;
+    private final ProblemImportService problemImportService;
+    private final BlobStore blobStore;
 
     @Operation(
             summary = "Create new problem",
@@ -111,4 +123,74 @@ public class AdminProblemController {
         problemService.deleteTestCase(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Upload test case data",
+            description = "Replace the input or expected output of a test case with the raw request body, streamed " +
+                    "to the blob store. Identical content is stored once. Admin only."
+    )
+    @ApiResponse(responseCode = "204", description = "Test case data replaced")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @ApiResponse(responseCode = "404", description = "Test case not found")
+    @PutMapping(value = "/test-cases/{id}/{part:input|output}", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<Void> uploadTestCaseData(
+            @PathVariable Long id,
+            @PathVariable String part,
+            HttpServletRequest request
+    ) throws IOException {
+        problemService.replaceTestCaseData(id, part.equals("output"), request.getInputStream());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Download test case data",
+            description = "Stream the input or expected output of a test case. Served with sendfile when the " +
+                    "container supports it. Admin only."
+    )
+    @ApiResponse(responseCode = "200", description = "Test case data streamed")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @ApiResponse(responseCode = "404", description = "Test case not found")
+    @GetMapping("/test-cases/{id}/{part:input|output}")
+    public void downloadTestCaseData(
+            @PathVariable Long id,
+            @PathVariable String part,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        BlobRef blob = problemService.getTestCaseData(id, part.equals("output"));
+
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+        response.setContentLengthLong(blob.size());
+        // Content-addressed - the same ETag always means the same bytes
+        response.setHeader(HttpHeaders.ETAG, "\"" + blob.hash() + "\"");
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat writes the file with sendfile(2) after this method returns
+            request.setAttribute("org.apache.tomcat.sendfile.filename", blobStore.pathOf(blob.hash()).toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", blob.size());
+            return;
+        }
+
+        blobStore.transferTo(blob.hash(), Channels.newChannel(response.getOutputStream()));
+    }
+
+    @Operation(
+            summary = "Bulk import problems",
+            description = "Import a zip archive streamed as the request body: one directory per problem with " +
+                    "problem.json, samples/*.in|out and tests/*.in|out. Existing slugs are skipped, so re-uploading " +
+                    "resumes an interrupted import. Progress is sent on /user/queue/imports. Admin only."
+    )
+    @ApiResponse(responseCode = "200", description = "Archive processed, see counts and errors")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @PostMapping(value = "/import", consumes = {"application/zip", "application/octet-stream"})
+    public ResponseEntity<ProblemImportResponse> importProblems(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser
+    ) throws IOException {
+        ProblemImportResponse response = problemImportService.importArchive(
+                request.getInputStream(), request.getContentLengthLong(), currentUser.getId()
+        );
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,54 @@
+package com.leagueofcoding.api.controller;
+
+import com.leagueofcoding.api.dto.rating.RatingRecomputeStatusResponse;
+import com.leagueofcoding.api.service.rating.RatingRecomputeJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * AdminRatingController - Admin endpoints cho rating maintenance.
+ *
+ * @author dao-nguyenminh
+ */
+@RestController
+@RequestMapping("/api/admin/ratings")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Ratings", description = "Rating maintenance APIs (Admin only)")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRatingController {
+
+    private final RatingRecomputeJob recomputeJob;
+
+    @Operation(
+            summary = "Recompute all ratings",
+            description = "Replay the whole match history with the current ELO settings in the background, " +
+                    "then swap the result in atomically. Admin only."
+    )
+    @ApiResponse(responseCode = "202", description = "Recompute started")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @ApiResponse(responseCode = "409", description = "A recompute or a season rollover is already running")
+    @PostMapping("/recompute")
+    public ResponseEntity<RatingRecomputeStatusResponse> startRecompute() {
+        HttpStatus status = recomputeJob.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(recomputeJob.getStatus());
+    }
+
+    @Operation(
+            summary = "Recompute progress",
+            description = "Get phase, progress and throughput of the current or last recompute. Admin only."
+    )
+    @ApiResponse(responseCode = "200", description = "Status retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @GetMapping("/recompute")
+    public ResponseEntity<RatingRecomputeStatusResponse> getRecomputeStatus() {
+        return ResponseEntity.ok(recomputeJob.getStatus());
+    }
+}
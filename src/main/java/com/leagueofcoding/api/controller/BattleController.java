@@ -1,18 +1,17 @@
 package com.leagueofcoding.api.controller;
 
-import com.leagueofcoding.api.entity.Match;
-import com.leagueofcoding.api.entity.MatchSubmission;
-import com.leagueofcoding.api.entity.User;
-import com.leagueofcoding.api.repository.UserRepository;
+import com.leagueofcoding.api.dto.battle.MatchDetailsResponse;
+import com.leagueofcoding.api.dto.battle.MatchResponse;
+import com.leagueofcoding.api.dto.battle.SubmissionResponse;
+import com.leagueofcoding.api.dto.battle.SubmitCodeRequest;
+import com.leagueofcoding.api.security.UserPrincipal;
 import com.leagueofcoding.api.service.BattleService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
 /**
  * Battle system REST API controller.
  *
@@ -24,24 +23,20 @@ import java.util.Map;
 public class BattleController {
 
     private final BattleService battleService;
-    private final UserRepository userRepository;
 
     /**
      * Join match room.
      *
      * @param matchId     match ID
-     * @param userDetails authenticated user
-     * @return match details
+     * @param currentUser authenticated user
+     * @return match state
      */
     @PostMapping("/{matchId}/join")
-    public ResponseEntity<Match> joinMatch(
+    public ResponseEntity<MatchResponse> joinMatch(
             @PathVariable Long matchId,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) {
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Match match = battleService.joinMatch(matchId, user.getId());
+        MatchResponse match = battleService.joinMatch(matchId, currentUser.getId());
         return ResponseEntity.ok(match);
     }
 
@@ -50,22 +45,16 @@ public class BattleController {
      *
      * @param matchId     match ID
      * @param request     submission request
-     * @param userDetails authenticated user
-     * @return submission record
+     * @param currentUser authenticated user
+     * @return judged submission
      */
     @PostMapping("/{matchId}/submit")
-    public ResponseEntity<MatchSubmission> submitCode(
+    public ResponseEntity<SubmissionResponse> submitCode(
             @PathVariable Long matchId,
-            @RequestBody Map<String, String> request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @Valid @RequestBody SubmitCodeRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) {
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        String code = request.get("code");
-        String language = request.get("language");
-
-        MatchSubmission submission = battleService.submitCode(matchId, user.getId(), code, language);
+        SubmissionResponse submission = battleService.submitCode(matchId, currentUser.getId(), request);
         return ResponseEntity.ok(submission);
     }
 
@@ -73,18 +62,15 @@ public class BattleController {
      * Get match details.
      *
      * @param matchId     match ID
-     * @param userDetails authenticated user
+     * @param currentUser authenticated user
      * @return match details with submissions
      */
     @GetMapping("/{matchId}")
-    public ResponseEntity<Map<String, Object>> getMatchDetails(
+    public ResponseEntity<MatchDetailsResponse> getMatchDetails(
             @PathVariable Long matchId,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal UserPrincipal currentUser
     ) {
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Map<String, Object> details = battleService.getMatchDetails(matchId, user.getId());
+        MatchDetailsResponse details = battleService.getMatchDetails(matchId, currentUser.getId());
         return ResponseEntity.ok(details);
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.leagueofcoding.api.controller;
+
+import com.leagueofcoding.api.dto.leaderboard.LeaderboardPageResponse;
+import com.leagueofcoding.api.dto.leaderboard.PlayerRankResponse;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.security.UserPrincipal;
+import com.leagueofcoding.api.service.leaderboard.DimensionLeaderboardService;
+import com.leagueofcoding.api.service.leaderboard.GlobalLeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * LeaderboardController - Public leaderboard endpoints.
+ *
+ * @author dao-nguyenminh
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+@Tag(name = "Leaderboard", description = "Player ranking APIs")
+public class LeaderboardController {
+
+    private final GlobalLeaderboardService globalLeaderboardService;
+    private final DimensionLeaderboardService dimensionLeaderboardService;
+
+    @Operation(
+            summary = "Global leaderboard",
+            description = "Get a page of the global ELO leaderboard, best first."
+    )
+    @ApiResponse(responseCode = "200", description = "Leaderboard page retrieved successfully")
+    @GetMapping
+    public ResponseEntity<LeaderboardPageResponse> getLeaderboard(
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        LeaderboardPageResponse response = globalLeaderboardService.getPage(page, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "My rank",
+            description = "Get the current user's exact rank and the K players above and below."
+    )
+    @ApiResponse(responseCode = "200", description = "Rank retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "User has no rated match yet")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/me")
+    public ResponseEntity<PlayerRankResponse> getMyRank(
+            @Parameter(description = "Players shown above and below (max 50)")
+            @RequestParam(defaultValue = "5") int k,
+
+            @AuthenticationPrincipal UserPrincipal currentUser
+    ) {
+        PlayerRankResponse response = globalLeaderboardService.getPlayerRank(currentUser.getId(), k);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Player rank",
+            description = "Get a player's exact rank and the K players above and below."
+    )
+    @ApiResponse(responseCode = "200", description = "Rank retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Player has no rated match yet")
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<PlayerRankResponse> getPlayerRank(
+            @PathVariable Long userId,
+
+            @Parameter(description = "Players shown above and below (max 50)")
+            @RequestParam(defaultValue = "5") int k
+    ) {
+        PlayerRankResponse response = globalLeaderboardService.getPlayerRank(userId, k);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Category leaderboard",
+            description = "Get a page of the top players in a category (2 points per win, 1 per draw), optionally in one language."
+    )
+    @ApiResponse(responseCode = "200", description = "Leaderboard page retrieved successfully")
+    @GetMapping("/categories/{categoryId}")
+    public ResponseEntity<LeaderboardPageResponse> getCategoryLeaderboard(
+            @PathVariable Long categoryId,
+
+            @Parameter(description = "Filter by language (JAVA, PYTHON, CPP, JAVASCRIPT)")
+            @RequestParam(required = false) ProgrammingLanguage language,
+
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        LeaderboardPageResponse response = dimensionLeaderboardService.getCategoryPage(categoryId, language, page, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Language leaderboard",
+            description = "Get a page of the top players in a language (2 points per win, 1 per draw)."
+    )
+    @ApiResponse(responseCode = "200", description = "Leaderboard page retrieved successfully")
+    @GetMapping("/languages/{language}")
+    public ResponseEntity<LeaderboardPageResponse> getLanguageLeaderboard(
+            @PathVariable ProgrammingLanguage language,
+
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        LeaderboardPageResponse response = dimensionLeaderboardService.getLanguagePage(language, page, size);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,23 +1,36 @@
 package com.leagueofcoding.api.controller;
 
+import com.leagueofcoding.api.dto.common.CursorPageResponse;
 import com.leagueofcoding.api.dto.problem.CategoryResponse;
 import com.leagueofcoding.api.dto.problem.ProblemResponse;
+import com.leagueofcoding.api.dto.problem.ProblemSearchHitResponse;
+import com.leagueofcoding.api.dto.problem.ProblemStatsResponse;
 import com.leagueofcoding.api.dto.problem.ProblemSummaryResponse;
 import com.leagueofcoding.api.enums.Difficulty;
 import com.leagueofcoding.api.service.CategoryService;
+import com.leagueofcoding.api.service.ProblemDetailCache;
 import com.leagueofcoding.api.service.ProblemService;
+import com.leagueofcoding.api.service.search.ProblemSearchIndex;
+import com.leagueofcoding.api.service.stats.ProblemStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.leagueofcoding.api.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * ProblemController - Public endpoints cho problems.
@@ -32,6 +45,8 @@ public class ProblemController {
 
     private final ProblemService problemService;
     private final CategoryService categoryService;
+    private final ProblemSearchIndex problemSearchIndex;
+    private final ProblemStatsService problemStatsService;
 
     @Operation(
             summary = "List all problems",
@@ -55,16 +70,169 @@ public class ProblemController {
         return ResponseEntity.ok(problems);
     }
 
+    @Operation(
+            summary = "Scroll problems",
+            description = "Get a keyset page of active problems, oldest first, with optional filtering by difficulty " +
+                    "and category. Pass the returned cursor to get the next page; pages cost the same at any depth."
+    )
+    @ApiResponse(responseCode = "200", description = "Problems retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponse<ProblemSummaryResponse>> scrollProblems(
+            @Parameter(description = "Filter by difficulty (EASY, MEDIUM, HARD)")
+            @RequestParam(required = false) Difficulty difficulty,
+
+            @Parameter(description = "Filter by category ID")
+            @RequestParam(required = false) Long categoryId,
+
+            @Parameter(description = "Cursor from the previous page, omit for the first page")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "20") int size,
+
+            @Parameter(description = "Also return an estimate of the total count")
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageResponse<ProblemSummaryResponse> problems = problemService.scrollProblems(
+                difficulty, categoryId, cursor, size, includeTotal
+        );
+        return ResponseEntity.ok(problems);
+    }
+
+    @Operation(
+            summary = "Filter problems",
+            description = "Get a page of active problems matching any combination of difficulties, categories and " +
+                    "tags (any value within a filter, all filters together), optionally excluding problems the " +
+                    "current user has solved. Ordered by ID; pass the returned cursor to get the next page."
+    )
+    @ApiResponse(responseCode = "200", description = "Problems retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @GetMapping("/filter")
+    public ResponseEntity<CursorPageResponse<ProblemSummaryResponse>> filterProblems(
+            @Parameter(description = "Accepted difficulties (EASY, MEDIUM, HARD)")
+            @RequestParam(defaultValue = "") List<Difficulty> difficulty,
+
+            @Parameter(description = "Accepted category IDs")
+            @RequestParam(defaultValue = "") List<Long> categoryId,
+
+            @Parameter(description = "Tags")
+            @RequestParam(defaultValue = "") List<String> tag,
+
+            @Parameter(description = "Require all tags instead of any")
+            @RequestParam(defaultValue = "false") boolean allTags,
+
+            @Parameter(description = "Exclude problems solved by the current user (ignored when anonymous)")
+            @RequestParam(defaultValue = "false") boolean unsolved,
+
+            @Parameter(description = "Cursor from the previous page, omit for the first page")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "20") int size,
+
+            @AuthenticationPrincipal UserPrincipal currentUser
+    ) {
+        Long unsolvedBy = unsolved && currentUser != null ? currentUser.getId() : null;
+
+        CursorPageResponse<ProblemSummaryResponse> problems = problemService.filterProblems(
+                difficulty, categoryId, tag, allTags, unsolvedBy, cursor, size
+        );
+        return ResponseEntity.ok(problems);
+    }
+
+    @Operation(
+            summary = "Search problems",
+            description = "Full-text search over active problem titles and descriptions, most relevant first. " +
+                    "The last word also matches as a prefix."
+    )
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    @GetMapping("/search")
+    public ResponseEntity<List<ProblemSearchHitResponse>> searchProblems(
+            @Parameter(description = "Search text")
+            @RequestParam String q,
+
+            @Parameter(description = "Maximum results (max 50)")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<ProblemSearchHitResponse> hits = problemSearchIndex.search(q, limit);
+        return ResponseEntity.ok(hits);
+    }
+
     @Operation(
             summary = "Get problem by slug",
             description = "Get detailed problem information including sample test cases."
     )
     @ApiResponse(responseCode = "200", description = "Problem retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Problem unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Problem not found")
     @GetMapping("/{slug}")
-    public ResponseEntity<ProblemResponse> getProblem(@PathVariable String slug) {
-        ProblemResponse problem = problemService.getProblemBySlug(slug);
-        return ResponseEntity.ok(problem);
+    public ResponseEntity<ProblemResponse> getProblem(
+            @PathVariable String slug,
+
+            @Parameter(description = "ETag of a previously fetched version")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ProblemDetailCache.Entry problem = problemService.getCachedProblemBySlug(slug);
+
+        if (problem.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(problem.etag()).build();
+        }
+
+        return ResponseEntity.ok().eTag(problem.etag()).body(problem.problem());
+    }
+
+    @Operation(
+            summary = "Get rendered problem statement",
+            description = "Get the problem description as sanitized HTML, rendered when the problem was last edited. " +
+                    "Math is left as TeX in math-inline / math-display elements. Served gzip-compressed when " +
+                    "the client accepts it."
+    )
+    @ApiResponse(responseCode = "200", description = "Statement retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Statement unchanged since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "404", description = "Problem not found")
+    @GetMapping(value = "/{slug}/statement", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> getProblemStatement(
+            @PathVariable String slug,
+
+            @Parameter(description = "ETag of a previously fetched statement")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ProblemDetailCache.Statement statement = problemService.getCachedStatement(slug);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? statement.gzipEtag() : statement.etag();
+
+        if (statement.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8));
+
+        // Precompressed copy - the container does not compress a response that already has an encoding
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(statement.gzip());
+        }
+        return response.body(statement.html());
+    }
+
+    @Operation(
+            summary = "Get problem statistics",
+            description = "Submission count, acceptance rate and median accepted runtime, overall and per language."
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Problem not found")
+    @GetMapping("/{slug}/stats")
+    public ResponseEntity<ProblemStatsResponse> getProblemStats(@PathVariable String slug) {
+        Long problemId = problemService.getCachedProblemBySlug(slug).problem().id();
+        return ResponseEntity.ok(problemStatsService.getStats(problemId));
     }
 
     @Operation(
@@ -77,4 +245,20 @@ public class ProblemController {
         List<CategoryResponse> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
-}
\ No newline at end of file
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if ((name.equals("gzip") || name.equals("*")) && !refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.leagueofcoding.api.controller;
+
+import com.leagueofcoding.api.dto.battle.MatchResponse;
+import com.leagueofcoding.api.dto.common.CursorPageResponse;
+import com.leagueofcoding.api.dto.rating.RatingHistoryResponse;
+import com.leagueofcoding.api.dto.user.AchievementResponse;
+import com.leagueofcoding.api.dto.user.UserProfileResponse;
+import com.leagueofcoding.api.service.achievement.AchievementEngine;
+import com.leagueofcoding.api.service.battle.MatchHistoryService;
+import com.leagueofcoding.api.service.rating.RatingHistoryStore;
+import com.leagueofcoding.api.service.user.UserStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * UserController - Public user profile endpoints, all keyed by username.
+ *
+ * @author dao-nguyenminh
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "User profile APIs")
+public class UserController {
+
+    private final RatingHistoryStore ratingHistoryStore;
+    private final UserStatsService userStatsService;
+    private final AchievementEngine achievementEngine;
+    private final MatchHistoryService matchHistoryService;
+
+    @Operation(
+            summary = "User profile",
+            description = "Get rating, win rate, recent form, favorite language and solved count of a user."
+    )
+    @ApiResponse(responseCode = "200", description = "Profile retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    @GetMapping("/{username}")
+    public ResponseEntity<UserProfileResponse> getProfile(@PathVariable String username) {
+        UserProfileResponse response = userStatsService.getProfile(username);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Achievements",
+            description = "Get the achievements a user has unlocked, oldest first."
+    )
+    @ApiResponse(responseCode = "200", description = "Achievements retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    @GetMapping("/{username}/achievements")
+    public ResponseEntity<List<AchievementResponse>> getAchievements(@PathVariable String username) {
+        List<AchievementResponse> response = achievementEngine.getUnlocked(userStatsService.getUserId(username));
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Rating history",
+            description = "Get the rating graph of a user for a time range, downsampled to at most 500 points."
+    )
+    @ApiResponse(responseCode = "200", description = "Rating history retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    @GetMapping("/{username}/rating-history")
+    public ResponseEntity<RatingHistoryResponse> getRatingHistory(
+            @PathVariable String username,
+
+            @Parameter(description = "Range start (ISO date-time), default: first match")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "Range end (ISO date-time), default: now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        RatingHistoryResponse response = ratingHistoryStore.read(userStatsService.getUserId(username), from, to);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Match history",
+            description = "Get a page of a user's matches, newest first. Pass the returned cursor to get the next page."
+    )
+    @ApiResponse(responseCode = "200", description = "Match history retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    @GetMapping("/{username}/matches")
+    public ResponseEntity<CursorPageResponse<MatchResponse>> getMatchHistory(
+            @PathVariable String username,
+
+            @Parameter(description = "Cursor from the previous page, omit for the first page")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "20") int size,
+
+            @Parameter(description = "Also return an estimate of the total count")
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageResponse<MatchResponse> response = matchHistoryService.getHistory(
+                userStatsService.getUserId(username), cursor, size, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+}
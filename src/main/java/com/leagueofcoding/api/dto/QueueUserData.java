@@ -16,4 +16,5 @@ public class QueueUserData {
     private Long userId;
     private Integer rating;
     private Long joinedAt;
+    private Integer tolerance;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.leagueofcoding.api.dto.battle;
+
+/**
+ * MatchDetailsResponse - DTO cho battle room polling.
+ *
+ * @author dao-nguyenminh
+ */
+public record MatchDetailsResponse(
+        MatchResponse match,
+        boolean player1Submitted,
+        boolean player2Submitted,
+        long timeRemaining
+) {
+    public static MatchDetailsResponse from(MatchSnapshot snapshot, long timeRemaining) {
+        return new MatchDetailsResponse(
+                MatchResponse.from(snapshot),
+                snapshot.player1Submitted(),
+                snapshot.player2Submitted(),
+                timeRemaining
+        );
+    }
+}
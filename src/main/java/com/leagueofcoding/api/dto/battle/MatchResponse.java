@@ -0,0 +1,48 @@
+package com.leagueofcoding.api.dto.battle;
+
+import com.leagueofcoding.api.entity.Match;
+import com.leagueofcoding.api.enums.MatchStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * MatchResponse - DTO cho match state (without audit columns).
+ *
+ * @author dao-nguyenminh
+ */
+public record MatchResponse(
+        Long id,
+        Long player1Id,
+        Long player2Id,
+        Long problemId,
+        MatchStatus status,
+        Long winnerId,
+        LocalDateTime startedAt,
+        LocalDateTime endedAt
+) {
+    public static MatchResponse from(MatchSnapshot snapshot) {
+        return new MatchResponse(
+                snapshot.id(),
+                snapshot.player1Id(),
+                snapshot.player2Id(),
+                snapshot.problemId(),
+                snapshot.status(),
+                snapshot.winnerId(),
+                snapshot.startedAt(),
+                snapshot.endedAt()
+        );
+    }
+
+    public static MatchResponse from(Match match) {
+        return new MatchResponse(
+                match.getId(),
+                match.getPlayer1Id(),
+                match.getPlayer2Id(),
+                match.getProblemId(),
+                match.getStatus(),
+                match.getWinnerId(),
+                match.getStartedAt(),
+                match.getEndedAt()
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package com.leagueofcoding.api.dto.battle;
+
+import com.leagueofcoding.api.enums.MatchStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * MatchSnapshot - Immutable view of a match and its submission flags.
+ * Published by battle rooms on every change and loaded for finished matches
+ * by a single projection query.
+ *
+ * @author dao-nguyenminh
+ */
+public record MatchSnapshot(
+        Long id,
+        Long player1Id,
+        Long player2Id,
+        Long problemId,
+        MatchStatus status,
+        Long winnerId,
+        LocalDateTime startedAt,
+        LocalDateTime endedAt,
+        LocalDateTime createdAt,
+        Boolean player1Submitted,
+        Boolean player2Submitted
+) {
+    /**
+     * True while the match is WAITING or IN_PROGRESS.
+     */
+    public boolean isLive() {
+        return status == MatchStatus.WAITING || status == MatchStatus.IN_PROGRESS;
+    }
+
+    public boolean isParticipant(Long userId) {
+        return player1Id.equals(userId) || player2Id.equals(userId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.leagueofcoding.api.dto.battle;
+
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+
+/**
+ * SubmissionLanguage - projection: language a player used in a match (no source code).
+ *
+ * @author dao-nguyenminh
+ */
+public record SubmissionLanguage(
+        Long matchId,
+        Long userId,
+        ProgrammingLanguage language
+) {
+}
@@ -0,0 +1,49 @@
+package com.leagueofcoding.api.dto.battle;
+
+import com.leagueofcoding.api.entity.MatchSubmission;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * SubmissionResponse - DTO cho judged submission.
+ * Source code is not echoed back - the client already has it.
+ * beatsPercent ranks an accepted runtime against the problem's accepted
+ * submissions in the same language; null otherwise.
+ *
+ * @author dao-nguyenminh
+ */
+public record SubmissionResponse(
+        Long id,
+        Long matchId,
+        ProgrammingLanguage language,
+        SubmissionStatus status,
+        Integer testCasesPassed,
+        Integer testCasesTotal,
+        Integer executionTimeMs,
+        Integer memoryUsedKb,
+        LocalDateTime submittedAt,
+        LocalDateTime judgedAt,
+        Double beatsPercent
+) {
+    public static SubmissionResponse from(MatchSubmission submission) {
+        return from(submission, null);
+    }
+
+    public static SubmissionResponse from(MatchSubmission submission, Double beatsPercent) {
+        return new SubmissionResponse(
+                submission.getId(),
+                submission.getMatchId(),
+                submission.getLanguage(),
+                submission.getStatus(),
+                submission.getTestCasesPassed(),
+                submission.getTestCasesTotal(),
+                submission.getExecutionTimeMs(),
+                submission.getMemoryUsedKb(),
+                submission.getSubmittedAt(),
+                submission.getJudgedAt(),
+                beatsPercent
+        );
+    }
+}
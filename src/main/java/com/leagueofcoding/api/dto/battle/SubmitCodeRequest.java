@@ -0,0 +1,20 @@
+package com.leagueofcoding.api.dto.battle;
+
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * SubmitCodeRequest - DTO cho code submission trong battle.
+ *
+ * @author dao-nguyenminh
+ */
+public record SubmitCodeRequest(
+
+        @NotBlank(message = "Code is required")
+        String code,
+
+        @NotNull(message = "Language is required")
+        ProgrammingLanguage language
+) {
+}
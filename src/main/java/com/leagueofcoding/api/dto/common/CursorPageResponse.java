@@ -0,0 +1,48 @@
+package com.leagueofcoding.api.dto.common;
+
+import com.leagueofcoding.api.util.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPageResponse - DTO cho một trang keyset pagination.
+ *
+ * @param items         page items
+ * @param nextCursor    cursor of the next page, null on the last page
+ * @param totalEstimate cached total count (may lag by a minute), null unless requested
+ * @author dao-nguyenminh
+ */
+public record CursorPageResponse<T>(
+        List<T> items,
+        String nextCursor,
+        Long totalEstimate
+) {
+
+    /**
+     * Build a page from rows fetched with a limit of {@code size + 1}:
+     * the extra row only signals that a next page exists.
+     *
+     * @param rows          fetched rows, in listing order
+     * @param size          page size
+     * @param position      keyset position of a row
+     * @param mapper        row to item
+     * @param totalEstimate total count, or null
+     */
+    public static <R, T> CursorPageResponse<T> from(
+            List<R> rows,
+            int size,
+            Function<R, KeysetCursor> position,
+            Function<R, T> mapper,
+            Long totalEstimate
+    ) {
+        boolean hasNext = rows.size() > size;
+        List<R> page = hasNext ? rows.subList(0, size) : rows;
+
+        return new CursorPageResponse<>(
+                page.stream().map(mapper).toList(),
+                hasNext ? position.apply(page.getLast()).encode() : null,
+                totalEstimate
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.leagueofcoding.api.dto.leaderboard;
+
+/**
+ * LeaderboardEntryResponse - DTO cho một dòng leaderboard.
+ *
+ * @author dao-nguyenminh
+ */
+public record LeaderboardEntryResponse(
+        long rank,
+        Long userId,
+        String username,
+        long score
+) {
+}
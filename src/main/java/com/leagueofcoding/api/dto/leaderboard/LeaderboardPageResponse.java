@@ -0,0 +1,16 @@
+package com.leagueofcoding.api.dto.leaderboard;
+
+import java.util.List;
+
+/**
+ * LeaderboardPageResponse - DTO cho một trang leaderboard.
+ *
+ * @author dao-nguyenminh
+ */
+public record LeaderboardPageResponse(
+        List<LeaderboardEntryResponse> entries,
+        int page,
+        int size,
+        long totalPlayers
+) {
+}
@@ -0,0 +1,15 @@
+package com.leagueofcoding.api.dto.leaderboard;
+
+import java.util.List;
+
+/**
+ * PlayerRankResponse - DTO cho rank của một player và các players xung quanh.
+ *
+ * @author dao-nguyenminh
+ */
+public record PlayerRankResponse(
+        LeaderboardEntryResponse player,
+        List<LeaderboardEntryResponse> above,
+        List<LeaderboardEntryResponse> below
+) {
+}
@@ -31,6 +31,9 @@ public record CreateProblemRequest(
         @NotNull(message = "Category ID is required")
         Long categoryId,
 
+        @Size(max = 10, message = "At most 10 tags")
+        List<@NotBlank @Size(max = 50, message = "Tag must not exceed 50 characters") String> tags,
+
         List<TestCaseRequest> testCases
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.leagueofcoding.api.dto.problem;
+
+/**
+ * ProblemCategoryRef - projection: category of a problem without loading either entity.
+ *
+ * @author dao-nguyenminh
+ */
+public record ProblemCategoryRef(
+        Long problemId,
+        Long categoryId
+) {
+}
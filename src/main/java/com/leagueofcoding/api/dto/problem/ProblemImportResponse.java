@@ -0,0 +1,30 @@
+package com.leagueofcoding.api.dto.problem;
+
+import java.util.List;
+
+/**
+ * ProblemImportResponse - DTO cho bulk import progress and result.
+ *
+ * @param processed  problem directories read so far
+ * @param imported   problems inserted
+ * @param skipped    problems whose slug already existed (imported by an earlier run)
+ * @param failed     problems rejected or lost with a failed chunk
+ * @param testCases  test cases inserted
+ * @param bytesRead  archive bytes consumed
+ * @param totalBytes archive size, -1 if the upload is chunked
+ * @param elapsedMs  time since the import started
+ * @param errors     first errors, per problem directory
+ * @author dao-nguyenminh
+ */
+public record ProblemImportResponse(
+        int processed,
+        int imported,
+        int skipped,
+        int failed,
+        long testCases,
+        long bytesRead,
+        long totalBytes,
+        long elapsedMs,
+        List<String> errors
+) {
+}
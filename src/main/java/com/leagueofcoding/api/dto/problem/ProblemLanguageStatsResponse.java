@@ -0,0 +1,31 @@
+package com.leagueofcoding.api.dto.problem;
+
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+
+/**
+ * ProblemLanguageStatsResponse - DTO cho problem statistics in one language.
+ *
+ * @author dao-nguyenminh
+ */
+public record ProblemLanguageStatsResponse(
+        ProgrammingLanguage language,
+        long submissions,
+        long accepted,
+        double acceptanceRate,
+        Integer medianRuntimeMs
+) {
+    public static ProblemLanguageStatsResponse of(
+            ProgrammingLanguage language,
+            long submissions,
+            long accepted,
+            Integer medianRuntimeMs
+    ) {
+        return new ProblemLanguageStatsResponse(
+                language,
+                submissions,
+                accepted,
+                submissions > 0 ? 100.0 * accepted / submissions : 0,
+                medianRuntimeMs
+        );
+    }
+}
@@ -16,10 +16,12 @@ public record ProblemResponse(
         String title,
         String slug,
         String description,
+        String descriptionHash,
         Difficulty difficulty,
         Integer timeLimitMs,
         Integer memoryLimitMb,
         CategoryResponse category,
+        List<String> tags,
         List<TestCaseResponse> sampleTestCases,
         Boolean isActive,
         LocalDateTime createdAt,
@@ -31,10 +33,12 @@ public record ProblemResponse(
                 problem.getTitle(),
                 problem.getSlug(),
                 problem.getDescription(),
+                problem.getDescriptionHash(),
                 problem.getDifficulty(),
                 problem.getTimeLimitMs(),
                 problem.getMemoryLimitMb(),
                 CategoryResponse.from(problem.getCategory()),
+                problem.getTags().stream().sorted().toList(),
                 sampleTestCases,
                 problem.getIsActive(),
                 problem.getCreatedAt(),
@@ -0,0 +1,28 @@
+package com.leagueofcoding.api.dto.problem;
+
+import com.leagueofcoding.api.enums.Difficulty;
+
+/**
+ * ProblemSearchHitResponse - DTO cho problem search result (summary with relevance score).
+ *
+ * @author dao-nguyenminh
+ */
+public record ProblemSearchHitResponse(
+        Long id,
+        String title,
+        String slug,
+        Difficulty difficulty,
+        CategoryResponse category,
+        double score
+) {
+    public static ProblemSearchHitResponse from(ProblemSummaryResponse problem, double score) {
+        return new ProblemSearchHitResponse(
+                problem.id(),
+                problem.title(),
+                problem.slug(),
+                problem.difficulty(),
+                problem.category(),
+                score
+        );
+    }
+}
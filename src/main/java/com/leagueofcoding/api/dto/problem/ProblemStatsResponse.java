@@ -0,0 +1,34 @@
+package com.leagueofcoding.api.dto.problem;
+
+import java.util.List;
+
+/**
+ * ProblemStatsResponse - DTO cho problem statistics (all languages, then per language).
+ *
+ * @author dao-nguyenminh
+ */
+public record ProblemStatsResponse(
+        Long problemId,
+        long submissions,
+        long accepted,
+        double acceptanceRate,
+        Integer medianRuntimeMs,
+        List<ProblemLanguageStatsResponse> languages
+) {
+    public static ProblemStatsResponse of(
+            Long problemId,
+            long submissions,
+            long accepted,
+            Integer medianRuntimeMs,
+            List<ProblemLanguageStatsResponse> languages
+    ) {
+        return new ProblemStatsResponse(
+                problemId,
+                submissions,
+                accepted,
+                submissions > 0 ? 100.0 * accepted / submissions : 0,
+                medianRuntimeMs,
+                List.copyOf(languages)
+        );
+    }
+}
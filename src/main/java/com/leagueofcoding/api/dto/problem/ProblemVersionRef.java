@@ -0,0 +1,12 @@
+package com.leagueofcoding.api.dto.problem;
+
+/**
+ * ProblemVersionRef - projection: current version of a problem without loading the entity.
+ *
+ * @author dao-nguyenminh
+ */
+public record ProblemVersionRef(
+        Long problemId,
+        Long versionId
+) {
+}
@@ -14,11 +14,11 @@ public record TestCaseResponse(
         Boolean isSample,
         Integer orderIndex
 ) {
-    public static TestCaseResponse from(TestCase testCase) {
+    public static TestCaseResponse from(TestCase testCase, String input, String expectedOutput) {
         return new TestCaseResponse(
                 testCase.getId(),
-                testCase.getInput(),
-                testCase.getExpectedOutput(),
+                input,
+                expectedOutput,
                 testCase.getIsSample(),
                 testCase.getOrderIndex()
         );
@@ -1,9 +1,12 @@
 package com.leagueofcoding.api.dto.problem;
 
 import com.leagueofcoding.api.enums.Difficulty;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
+import java.util.List;
+
 /**
  * UpdateProblemRequest - DTO cho updating problems.
  *
@@ -26,6 +29,9 @@ public record UpdateProblemRequest(
 
         Long categoryId,
 
+        @Size(max = 10, message = "At most 10 tags")
+        List<@NotBlank @Size(max = 50, message = "Tag must not exceed 50 characters") String> tags,
+
         Boolean isActive
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.leagueofcoding.api.dto.rating;
+
+import java.util.List;
+
+/**
+ * RatingHistoryResponse - DTO cho rating graph của user (downsampled).
+ *
+ * @author dao-nguyenminh
+ */
+public record RatingHistoryResponse(
+        Long userId,
+        int totalPoints,
+        List<RatingPointResponse> points
+) {
+}
@@ -0,0 +1,15 @@
+package com.leagueofcoding.api.dto.rating;
+
+import java.time.LocalDateTime;
+
+/**
+ * RatingPointResponse - DTO cho một điểm trên rating graph.
+ *
+ * @author dao-nguyenminh
+ */
+public record RatingPointResponse(
+        LocalDateTime at,
+        int rating,
+        long matchId
+) {
+}
@@ -0,0 +1,22 @@
+package com.leagueofcoding.api.dto.rating;
+
+import com.leagueofcoding.api.enums.RatingRecomputePhase;
+
+import java.time.LocalDateTime;
+
+/**
+ * RatingRecomputeStatusResponse - DTO cho progress của full rating recompute.
+ *
+ * @author dao-nguyenminh
+ */
+public record RatingRecomputeStatusResponse(
+        RatingRecomputePhase phase,
+        long processedMatches,
+        long totalMatches,
+        double progressPercent,
+        long matchesPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {
+}
@@ -0,0 +1,14 @@
+package com.leagueofcoding.api.dto.user;
+
+import java.time.LocalDateTime;
+
+/**
+ * AchievementResponse - DTO cho unlocked achievement.
+ *
+ * @author dao-nguyenminh
+ */
+public record AchievementResponse(
+        String code,            // e.g. WIN_STREAK_10, SOLVED_50_CATEGORY_3
+        LocalDateTime unlockedAt
+) {
+}
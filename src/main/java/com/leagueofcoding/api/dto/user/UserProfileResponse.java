@@ -0,0 +1,56 @@
+package com.leagueofcoding.api.dto.user;
+
+import com.leagueofcoding.api.entity.UserStats;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * UserProfileResponse - DTO cho public user profile.
+ *
+ * @author dao-nguyenminh
+ */
+public record UserProfileResponse(
+        Long userId,
+        String username,
+        Integer rating,
+        Integer matchesPlayed,
+        Integer wins,
+        Integer losses,
+        Integer draws,
+        double winRate,         // percentage 0-100
+        String recentForm,      // newest first, e.g. "WWLDW"
+        ProgrammingLanguage favoriteLanguage,
+        Integer solvedCount,
+        LocalDateTime lastPlayedAt
+) {
+    public static UserProfileResponse from(UserStats stats) {
+        double winRate = stats.getMatchesPlayed() == 0
+                ? 0.0
+                : stats.getWins() * 100.0 / stats.getMatchesPlayed();
+
+        return new UserProfileResponse(
+                stats.getUserId(),
+                stats.getUsername(),
+                stats.getEloRating(),
+                stats.getMatchesPlayed(),
+                stats.getWins(),
+                stats.getLosses(),
+                stats.getDraws(),
+                winRate,
+                stats.getRecentForm(),
+                favoriteLanguage(stats.getLanguageCounts()),
+                stats.getSolvedCount(),
+                stats.getLastPlayedAt()
+        );
+    }
+
+    private static ProgrammingLanguage favoriteLanguage(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+                .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(entry -> ProgrammingLanguage.valueOf(entry.getKey()))
+                .orElse(null);
+    }
+}
@@ -21,7 +21,9 @@ public record NotificationMessage(
         ERROR,
         MATCH_FOUND,
         BATTLE_STARTED,
-        BATTLE_ENDED
+        BATTLE_ENDED,
+        ACHIEVEMENT_UNLOCKED,
+        IMPORT_PROGRESS
     }
 
     public static NotificationMessage info(String title, String message) {
@@ -43,4 +45,24 @@ public record NotificationMessage(
                 LocalDateTime.now()
         );
     }
-}
\ No newline at end of file
+
+    public static NotificationMessage achievementUnlocked(String code) {
+        return new NotificationMessage(
+                NotificationType.ACHIEVEMENT_UNLOCKED,
+                "Achievement Unlocked!",
+                code,
+                code,
+                LocalDateTime.now()
+        );
+    }
+
+    public static NotificationMessage importProgress(String message, Object progress) {
+        return new NotificationMessage(
+                NotificationType.IMPORT_PROGRESS,
+                "Problem Import",
+                message,
+                progress,
+                LocalDateTime.now()
+        );
+    }
+}
@@ -42,6 +42,12 @@ public class Match {
     @Column(name = "problem_id", nullable = false)
     private Long problemId;
 
+    /**
+     * Problem version judged in this match. Null once a superseded version is collected.
+     */
+    @Column(name = "problem_version_id")
+    private Long problemVersionId;
+
     /**
      * Current match status. Defaults to WAITING.
      */
@@ -68,6 +74,34 @@ public class Match {
     @Column(name = "ended_at")
     private LocalDateTime endedAt;
 
+    /**
+     * True once the result has been applied to player ratings.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean rated = false;
+
+    /**
+     * True once the result has been applied to profile stats.
+     */
+    @Column(name = "stats_applied", nullable = false)
+    @Builder.Default
+    private Boolean statsApplied = false;
+
+    /**
+     * True once the result has been added to the dimension leaderboards.
+     */
+    @Column(name = "leaderboard_applied", nullable = false)
+    @Builder.Default
+    private Boolean leaderboardApplied = false;
+
+    /**
+     * Optimistic version. Bumped by every state transition.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -6,7 +6,9 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Problem entity - Coding problems for battles.
@@ -35,6 +37,18 @@ public class Problem {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
 
+    /**
+     * Description rendered to sanitized HTML, set with every description change.
+     */
+    @Column(name = "description_html", nullable = false, columnDefinition = "TEXT")
+    private String descriptionHtml;
+
+    /**
+     * SHA-256 of descriptionHtml (hex).
+     */
+    @Column(name = "description_hash", nullable = false, length = 64)
+    private String descriptionHash;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private Difficulty difficulty;
@@ -55,6 +69,18 @@ public class Problem {
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
+    /**
+     * Latest published version. Written only by ProblemVersionService.
+     */
+    @Column(name = "current_version_id", insertable = false, updatable = false)
+    private Long currentVersionId;
+
+    @ElementCollection
+    @CollectionTable(name = "problem_tags", joinColumns = @JoinColumn(name = "problem_id"))
+    @Column(name = "tag", length = 50)
+    @Builder.Default
+    private Set<String> tags = new HashSet<>();
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -27,11 +27,23 @@ public class TestCase {
     @JoinColumn(name = "problem_id", nullable = false)
     private Problem problem;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String input;
-
-    @Column(name = "expected_output", nullable = false, columnDefinition = "TEXT")
-    private String expectedOutput;
+    /**
+     * SHA-256 of the input in the blob store.
+     */
+    @Column(name = "input_hash", nullable = false, length = 64)
+    private String inputHash;
+
+    @Column(name = "input_size", nullable = false)
+    private Long inputSize;
+
+    /**
+     * SHA-256 of the expected output in the blob store.
+     */
+    @Column(name = "output_hash", nullable = false, length = 64)
+    private String outputHash;
+
+    @Column(name = "output_size", nullable = false)
+    private Long outputSize;
 
     @Column(name = "is_sample", nullable = false)
     @Builder.Default
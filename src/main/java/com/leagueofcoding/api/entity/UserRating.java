@@ -37,7 +37,7 @@ public class UserRating {
     private Integer eloRating = 1200;
 
     /**
-     * Total number of matches played (wins + losses).
+     * Total number of matches played (wins + losses + draws).
      */
     @Column(name = "matches_played", nullable = false)
     @Builder.Default
@@ -57,6 +57,47 @@ public class UserRating {
     @Builder.Default
     private Integer losses = 0;
 
+    /**
+     * Total number of draws (battle timed out with equal scores).
+     */
+    @Column(name = "draws", nullable = false)
+    @Builder.Default
+    private Integer draws = 0;
+
+    /**
+     * Glicko-2 rating. Updated once per rating period.
+     */
+    @Column(name = "glicko_rating", nullable = false)
+    @Builder.Default
+    private Double glickoRating = 1500.0;
+
+    /**
+     * Glicko-2 rating deviation (RD). High for new or inactive players.
+     */
+    @Column(name = "glicko_deviation", nullable = false)
+    @Builder.Default
+    private Double glickoDeviation = 350.0;
+
+    /**
+     * Glicko-2 volatility.
+     */
+    @Column(name = "glicko_volatility", nullable = false)
+    @Builder.Default
+    private Double glickoVolatility = 0.06;
+
+    /**
+     * End time of the last rated match. Drives inactivity decay at season rollover.
+     */
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    /**
+     * Optimistic version. Bumped by every rating update.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
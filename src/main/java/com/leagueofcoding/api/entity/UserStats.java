@@ -0,0 +1,131 @@
+package com.leagueofcoding.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed profile stats of a user.
+ * Created at registration and updated incrementally as matches complete,
+ * so a profile view never aggregates match history.
+ *
+ * @author dao-nguyenminh
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStats {
+
+    /**
+     * Longest recent form kept, e.g. "WWLDW..."
+     */
+    public static final int FORM_LENGTH = 10;
+
+    /**
+     * Same as users.id - one row per user.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Copy of users.username - profiles are looked up by username.
+     */
+    @Column(nullable = false, unique = true, length = 50)
+    private String username;
+
+    /**
+     * Current ELO rating.
+     */
+    @Column(name = "elo_rating", nullable = false)
+    @Builder.Default
+    private Integer eloRating = 1200;
+
+    @Column(name = "matches_played", nullable = false)
+    @Builder.Default
+    private Integer matchesPlayed = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer wins = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer losses = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer draws = 0;
+
+    /**
+     * Results of the last {@link #FORM_LENGTH} matches, newest first (W, L, D).
+     */
+    @Column(name = "recent_form", nullable = false, length = FORM_LENGTH)
+    @Builder.Default
+    private String recentForm = "";
+
+    /**
+     * Matches submitted per language name.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "language_counts", nullable = false)
+    @Builder.Default
+    private Map<String, Integer> languageCounts = new HashMap<>();
+
+    /**
+     * Distinct problems passed at least once.
+     */
+    @Column(name = "solved_count", nullable = false)
+    @Builder.Default
+    private Integer solvedCount = 0;
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Record one match result.
+     *
+     * @param result   'W', 'L' or 'D'
+     * @param endedAt  match end time
+     * @param language language submitted, null if the player never submitted
+     */
+    public void addResult(char result, LocalDateTime endedAt, String language) {
+        matchesPlayed++;
+        switch (result) {
+            case 'W' -> wins++;
+            case 'L' -> losses++;
+            default -> draws++;
+        }
+
+        String form = result + recentForm;
+        recentForm = form.length() > FORM_LENGTH ? form.substring(0, FORM_LENGTH) : form;
+
+        if (lastPlayedAt == null || endedAt.isAfter(lastPlayedAt)) {
+            lastPlayedAt = endedAt;
+        }
+
+        if (language != null) {
+            // New map so Hibernate sees the JSON value as changed
+            Map<String, Integer> counts = new HashMap<>(languageCounts);
+            counts.merge(language, 1, Integer::sum);
+            languageCounts = counts;
+        }
+    }
+}
@@ -17,7 +17,7 @@ public enum MatchStatus {
     IN_PROGRESS,
 
     /**
-     * Battle finished, winner determined
+     * Battle finished, winner determined (no winner = draw)
      */
     COMPLETED,
 
@@ -0,0 +1,18 @@
+package com.leagueofcoding.api.enums;
+
+/**
+ * Glicko-2 rating period status.
+ *
+ * @author dao-nguyenminh
+ */
+public enum RatingPeriodStatus {
+    /**
+     * Period rated, results being written to user ratings
+     */
+    APPLYING,
+
+    /**
+     * All results written
+     */
+    COMPLETED
+}
@@ -0,0 +1,38 @@
+package com.leagueofcoding.api.enums;
+
+/**
+ * Phase of a full rating recompute.
+ *
+ * @author dao-nguyenminh
+ */
+public enum RatingRecomputePhase {
+    /**
+     * No recompute has run since startup
+     */
+    IDLE,
+
+    /**
+     * Streaming match history into the shadow tables
+     */
+    REPLAYING,
+
+    /**
+     * Live rating updates paused, replaying matches rated during the main pass
+     */
+    CATCHING_UP,
+
+    /**
+     * Swapping shadow tables in
+     */
+    SWAPPING,
+
+    /**
+     * Recompute finished, new ratings are live
+     */
+    COMPLETED,
+
+    /**
+     * Recompute failed, live ratings untouched
+     */
+    FAILED
+}
@@ -0,0 +1,23 @@
+package com.leagueofcoding.api.enums;
+
+/**
+ * Ranked season status.
+ *
+ * @author dao-nguyenminh
+ */
+public enum SeasonStatus {
+    /**
+     * Season being played
+     */
+    ACTIVE,
+
+    /**
+     * Season over, standings being archived and ratings soft reset
+     */
+    RESETTING,
+
+    /**
+     * Standings archived, reset done
+     */
+    COMPLETED
+}
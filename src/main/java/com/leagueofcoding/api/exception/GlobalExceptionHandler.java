@@ -209,4 +209,21 @@ public class GlobalExceptionHandler {
 
         return problemDetail;
     }
+
+    /**
+     * Handle invalid pagination cursor.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursor(InvalidCursorException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage()
+        );
+
+        problemDetail.setTitle("Invalid Cursor");
+        problemDetail.setType(URI.create("https://api.leagueofcoding.com/errors/invalid-cursor"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
 }
\ No newline at end of file
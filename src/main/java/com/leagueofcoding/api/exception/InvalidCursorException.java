@@ -0,0 +1,12 @@
+package com.leagueofcoding.api.exception;
+
+/**
+ * Exception thrown khi pagination cursor không hợp lệ.
+ *
+ * @author dao-nguyenminh
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
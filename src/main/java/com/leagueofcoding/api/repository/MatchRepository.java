@@ -1,10 +1,17 @@
 package com.leagueofcoding.api.repository;
 
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
 import com.leagueofcoding.api.entity.Match;
 import com.leagueofcoding.api.enums.MatchStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Match entity.
@@ -14,14 +21,36 @@ import java.util.List;
 public interface MatchRepository extends JpaRepository<Match, Long> {
 
     /**
-     * Find all matches for a specific player (either player1 or player2).
-     * Results ordered by creation date descending.
+     * Keyset page of a player's match history before a (createdAt, id) position, newest first.
+     * Each side of the union is an index range scan of at most {@code limit} rows.
      *
-     * @param player1Id first player ID
-     * @param player2Id second player ID
-     * @return list of matches
+     * @param userId    player ID
+     * @param createdAt creation time of the last match already returned
+     * @param id        ID of the last match already returned
+     * @param limit     page size
+     * @return matches, newest first
      */
-    List<Match> findByPlayer1IdOrPlayer2IdOrderByCreatedAtDesc(Long player1Id, Long player2Id);
+    @Query(value = "(SELECT * FROM matches WHERE player1_id = :userId AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM matches WHERE player2_id = :userId AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Match> findHistoryBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Count all matches of a player.
+     *
+     * @param player1Id player ID
+     * @param player2Id same player ID
+     * @return match count
+     */
+    long countByPlayer1IdOrPlayer2Id(Long player1Id, Long player2Id);
 
     /**
      * Find matches by status.
@@ -30,4 +59,149 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
      * @return list of matches
      */
     List<Match> findByStatus(MatchStatus status);
+
+    /**
+     * Find matches in any of the given statuses.
+     *
+     * @param statuses match statuses
+     * @return list of matches
+     */
+    List<Match> findByStatusIn(Collection<MatchStatus> statuses);
+
+    /**
+     * Load match state plus both submission flags in one statement.
+     *
+     * @param matchId match ID
+     * @return Optional MatchSnapshot
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.battle.MatchSnapshot(" +
+            "m.id, m.player1Id, m.player2Id, m.problemId, m.status, m.winnerId, " +
+            "m.startedAt, m.endedAt, m.createdAt, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM MatchSubmission s1 " +
+            "WHERE s1.matchId = m.id AND s1.userId = m.player1Id) THEN true ELSE false END, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM MatchSubmission s2 " +
+            "WHERE s2.matchId = m.id AND s2.userId = m.player2Id) THEN true ELSE false END) " +
+            "FROM Match m WHERE m.id = :matchId")
+    Optional<MatchSnapshot> findSnapshotById(@Param("matchId") Long matchId);
+
+    /**
+     * Completed matches whose result has not been applied to ratings yet, oldest first.
+     *
+     * @return unrated match snapshots
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.battle.MatchSnapshot(" +
+            "m.id, m.player1Id, m.player2Id, m.problemId, m.status, m.winnerId, " +
+            "m.startedAt, m.endedAt, m.createdAt, true, true) " +
+            "FROM Match m WHERE m.status = com.leagueofcoding.api.enums.MatchStatus.COMPLETED " +
+            "AND m.rated = false ORDER BY m.endedAt")
+    List<MatchSnapshot> findUnratedSnapshots();
+
+    /**
+     * Mark completed matches as rated. Only matches not rated yet are claimed,
+     * so each result is applied to ratings exactly once.
+     *
+     * @param matchIds candidate match IDs
+     * @return IDs of the matches claimed by this call
+     */
+    @Transactional
+    @Query(value = "UPDATE matches SET rated = TRUE " +
+            "WHERE id IN (:matchIds) AND status = 'COMPLETED' AND rated = FALSE " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> claimForRating(@Param("matchIds") Collection<Long> matchIds);
+
+    /**
+     * Completed matches whose result has not been applied to profile stats yet, oldest first.
+     *
+     * @return match snapshots pending for stats
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.battle.MatchSnapshot(" +
+            "m.id, m.player1Id, m.player2Id, m.problemId, m.status, m.winnerId, " +
+            "m.startedAt, m.endedAt, m.createdAt, true, true) " +
+            "FROM Match m WHERE m.status = com.leagueofcoding.api.enums.MatchStatus.COMPLETED " +
+            "AND m.statsApplied = false ORDER BY m.endedAt")
+    List<MatchSnapshot> findStatsPendingSnapshots();
+
+    /**
+     * Mark completed matches as counted in profile stats. Only matches not counted yet
+     * are claimed, so each result is applied to stats exactly once.
+     *
+     * @param matchIds candidate match IDs
+     * @return IDs of the matches claimed by this call
+     */
+    @Transactional
+    @Query(value = "UPDATE matches SET stats_applied = TRUE " +
+            "WHERE id IN (:matchIds) AND status = 'COMPLETED' AND stats_applied = FALSE " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> claimForStats(@Param("matchIds") Collection<Long> matchIds);
+
+    /**
+     * Completed matches not added to the dimension leaderboards yet, oldest first.
+     *
+     * @return match snapshots pending for the leaderboards
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.battle.MatchSnapshot(" +
+            "m.id, m.player1Id, m.player2Id, m.problemId, m.status, m.winnerId, " +
+            "m.startedAt, m.endedAt, m.createdAt, true, true) " +
+            "FROM Match m WHERE m.status = com.leagueofcoding.api.enums.MatchStatus.COMPLETED " +
+            "AND m.leaderboardApplied = false ORDER BY m.endedAt")
+    List<MatchSnapshot> findLeaderboardPendingSnapshots();
+
+    /**
+     * Mark completed matches as added to the dimension leaderboards.
+     *
+     * @param matchIds match IDs
+     * @return IDs of the matches marked by this call
+     */
+    @Transactional
+    @Query(value = "UPDATE matches SET leaderboard_applied = TRUE " +
+            "WHERE id IN (:matchIds) AND status = 'COMPLETED' AND leaderboard_applied = FALSE " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> markLeaderboardApplied(@Param("matchIds") Collection<Long> matchIds);
+
+    /**
+     * Transition WAITING -> IN_PROGRESS in a single conditional update.
+     *
+     * @param matchId   match ID
+     * @param startedAt start timestamp
+     * @return new version, or empty if the match was not WAITING
+     */
+    @Transactional
+    @Query(value = "UPDATE matches SET status = 'IN_PROGRESS', started_at = :startedAt, " +
+            "updated_at = CURRENT_TIMESTAMP, version = version + 1 " +
+            "WHERE id = :matchId AND status = 'WAITING' " +
+            "RETURNING version", nativeQuery = true)
+    Optional<Long> startMatch(@Param("matchId") Long matchId, @Param("startedAt") LocalDateTime startedAt);
+
+    /**
+     * Transition IN_PROGRESS -> COMPLETED in a single conditional update.
+     *
+     * @param matchId  match ID
+     * @param winnerId winner user ID
+     * @param endedAt  end timestamp
+     * @return new version, or empty if the match was not IN_PROGRESS
+     */
+    @Transactional
+    @Query(value = "UPDATE matches SET status = 'COMPLETED', winner_id = :winnerId, ended_at = :endedAt, " +
+            "updated_at = CURRENT_TIMESTAMP, version = version + 1 " +
+            "WHERE id = :matchId AND status = 'IN_PROGRESS' " +
+            "RETURNING version", nativeQuery = true)
+    Optional<Long> completeMatch(
+            @Param("matchId") Long matchId,
+            @Param("winnerId") Long winnerId,
+            @Param("endedAt") LocalDateTime endedAt
+    );
+
+    /**
+     * Transition WAITING / IN_PROGRESS -> CANCELLED in a single conditional update.
+     *
+     * @param matchId match ID
+     * @param endedAt end timestamp
+     * @return new version, or empty if the match was already over
+     */
+    @Transactional
+    @Query(value = "UPDATE matches SET status = 'CANCELLED', ended_at = :endedAt, " +
+            "updated_at = CURRENT_TIMESTAMP, version = version + 1 " +
+            "WHERE id = :matchId AND status IN ('WAITING', 'IN_PROGRESS') " +
+            "RETURNING version", nativeQuery = true)
+    Optional<Long> cancelMatch(@Param("matchId") Long matchId, @Param("endedAt") LocalDateTime endedAt);
 }
\ No newline at end of file
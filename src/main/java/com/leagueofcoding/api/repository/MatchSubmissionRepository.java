@@ -1,8 +1,13 @@
 package com.leagueofcoding.api.repository;
 
+import com.leagueofcoding.api.dto.battle.SubmissionLanguage;
 import com.leagueofcoding.api.entity.MatchSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +25,22 @@ public interface MatchSubmissionRepository extends JpaRepository<MatchSubmission
      * @return Optional MatchSubmission
      */
     Optional<MatchSubmission> findByMatchIdAndUserId(Long matchId, Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Find all submissions of the given matches.
+     *
+     * @param matchIds match IDs
+     * @return list of submissions
+     */
+    List<MatchSubmission> findByMatchIdIn(Collection<Long> matchIds);
+
+    /**
+     * Find the language each player used in the given matches, without loading source code.
+     *
+     * @param matchIds match IDs
+     * @return one row per submission
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.battle.SubmissionLanguage(s.matchId, s.userId, s.language) " +
+            "FROM MatchSubmission s WHERE s.matchId IN :matchIds")
+    List<SubmissionLanguage> findLanguagesByMatchIdIn(@Param("matchIds") Collection<Long> matchIds);
+}
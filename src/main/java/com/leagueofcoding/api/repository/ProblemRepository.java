@@ -1,14 +1,21 @@
 package com.leagueofcoding.api.repository;
 
+import com.leagueofcoding.api.dto.problem.ProblemCategoryRef;
+import com.leagueofcoding.api.dto.problem.ProblemVersionRef;
 import com.leagueofcoding.api.entity.Problem;
 import com.leagueofcoding.api.enums.Difficulty;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,25 +38,29 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
     Optional<Problem> findBySlug(String slug);
 
     /**
-     * Find all active problems with pagination.
+     * Find all active problems with pagination, category fetched in the same query.
      */
+    @EntityGraph(attributePaths = "category")
     Page<Problem> findByIsActiveTrue(Pageable pageable);
 
     /**
-     * Find problems by difficulty.
+     * Find problems by difficulty, category fetched in the same query.
      */
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Problem p WHERE p.difficulty = :difficulty AND p.isActive = true")
     Page<Problem> findByDifficultyAndActive(@Param("difficulty") Difficulty difficulty, Pageable pageable);
 
     /**
-     * Find problems by category.
+     * Find problems by category, category fetched in the same query.
      */
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Problem p WHERE p.category.id = :categoryId AND p.isActive = true")
     Page<Problem> findByCategoryAndActive(@Param("categoryId") Long categoryId, Pageable pageable);
 
     /**
-     * Find problems by category and difficulty.
+     * Find problems by category and difficulty, category fetched in the same query.
      */
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Problem p WHERE p.category.id = :categoryId " +
             "AND p.difficulty = :difficulty AND p.isActive = true")
     Page<Problem> findByCategoryAndDifficultyAndActive(
@@ -58,6 +69,99 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
             Pageable pageable
     );
 
+    /**
+     * Keyset page of active problems after a (createdAt, id) position, oldest first.
+     */
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Problem p WHERE p.isActive = true " +
+            "AND (p.createdAt, p.id) > (:createdAt, :id) ORDER BY p.createdAt, p.id")
+    List<Problem> findActiveAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    /**
+     * Keyset page of active problems by difficulty.
+     */
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Problem p WHERE p.difficulty = :difficulty AND p.isActive = true " +
+            "AND (p.createdAt, p.id) > (:createdAt, :id) ORDER BY p.createdAt, p.id")
+    List<Problem> findActiveByDifficultyAfter(
+            @Param("difficulty") Difficulty difficulty,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    /**
+     * Keyset page of active problems by category.
+     */
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Problem p WHERE p.category.id = :categoryId AND p.isActive = true " +
+            "AND (p.createdAt, p.id) > (:createdAt, :id) ORDER BY p.createdAt, p.id")
+    List<Problem> findActiveByCategoryAfter(
+            @Param("categoryId") Long categoryId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    /**
+     * Keyset page of active problems by category and difficulty.
+     */
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Problem p WHERE p.category.id = :categoryId " +
+            "AND p.difficulty = :difficulty AND p.isActive = true " +
+            "AND (p.createdAt, p.id) > (:createdAt, :id) ORDER BY p.createdAt, p.id")
+    List<Problem> findActiveByCategoryAndDifficultyAfter(
+            @Param("categoryId") Long categoryId,
+            @Param("difficulty") Difficulty difficulty,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    /**
+     * Find problems by ID, category fetched in the same query. Order is unspecified.
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Problem> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Count active problems.
+     */
+    long countByIsActiveTrue();
+
+    /**
+     * Count active problems by difficulty.
+     */
+    long countByDifficultyAndIsActiveTrue(Difficulty difficulty);
+
+    /**
+     * Count active problems by category.
+     */
+    long countByCategoryIdAndIsActiveTrue(Long categoryId);
+
+    /**
+     * Count active problems by category and difficulty.
+     */
+    long countByCategoryIdAndDifficultyAndIsActiveTrue(Long categoryId, Difficulty difficulty);
+
+    /**
+     * Find category IDs of the given problems (reads the foreign key only).
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.problem.ProblemCategoryRef(p.id, p.category.id) " +
+            "FROM Problem p WHERE p.id IN :problemIds")
+    List<ProblemCategoryRef> findCategoryRefsByIdIn(@Param("problemIds") Collection<Long> problemIds);
+
+    /**
+     * Find current versions of all active problems (reads the foreign key only).
+     */
+    @Query("SELECT new com.leagueofcoding.api.dto.problem.ProblemVersionRef(p.id, p.currentVersionId) " +
+            "FROM Problem p WHERE p.isActive = true AND p.currentVersionId IS NOT NULL")
+    List<ProblemVersionRef> findActiveVersionRefs();
+
     /**
      * Check if slug exists.
      */
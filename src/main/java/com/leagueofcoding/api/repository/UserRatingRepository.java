@@ -3,6 +3,8 @@ package com.leagueofcoding.api.repository;
 import com.leagueofcoding.api.entity.UserRating;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,4 +21,12 @@ public interface UserRatingRepository extends JpaRepository<UserRating, Long> {
      * @return Optional UserRating
      */
     Optional<UserRating> findByUserId(Long userId);
+
+    /**
+     * Find ratings of several users in one query.
+     *
+     * @param userIds user IDs
+     * @return ratings of the users that have one
+     */
+    List<UserRating> findByUserIdIn(Collection<Long> userIds);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.leagueofcoding.api.repository;
+
+import com.leagueofcoding.api.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository for UserStats entity.
+ *
+ * @author dao-nguyenminh
+ */
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    /**
+     * Find stats by username (unique index).
+     *
+     * @param username username
+     * @return Optional UserStats
+     */
+    Optional<UserStats> findByUsername(String username);
+}
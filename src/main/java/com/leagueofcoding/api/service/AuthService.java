@@ -13,6 +13,7 @@ import com.leagueofcoding.api.repository.UserRepository;
 import com.leagueofcoding.api.security.RateLimitService;
 import com.leagueofcoding.api.security.UserPrincipal;
 import com.leagueofcoding.api.security.jwt.JWTokenProvider;
+import com.leagueofcoding.api.service.user.UserStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -38,6 +39,7 @@ public class AuthService {
     private final JWTokenProvider jwtTokenProvider;
     private final RefreshTokenService refreshTokenService;
     private final RateLimitService rateLimitService;
+    private final UserStatsService userStatsService;
 
     /**
      * Register user mới với rate limiting.
@@ -80,6 +82,7 @@ public class AuthService {
                 .build();
 
         user = userRepository.save(user);
+        userStatsService.createFor(user);
         log.info("User registered successfully: {}", user.getId());
 
         // Generate tokens
@@ -1,23 +1,39 @@
 package com.leagueofcoding.api.service;
 
-import com.leagueofcoding.api.entity.Match;
+import com.leagueofcoding.api.dto.battle.MatchDetailsResponse;
+import com.leagueofcoding.api.dto.battle.MatchResponse;
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.dto.battle.SubmissionResponse;
+import com.leagueofcoding.api.dto.battle.SubmitCodeRequest;
 import com.leagueofcoding.api.entity.MatchSubmission;
 import com.leagueofcoding.api.enums.MatchStatus;
 import com.leagueofcoding.api.enums.SubmissionStatus;
 import com.leagueofcoding.api.repository.MatchRepository;
 import com.leagueofcoding.api.repository.MatchSubmissionRepository;
+import com.leagueofcoding.api.service.battle.BattleDeadlineScheduler;
+import com.leagueofcoding.api.service.battle.BattleNotifier;
+import com.leagueofcoding.api.service.battle.BattleRoom;
+import com.leagueofcoding.api.service.battle.BattleRoomRegistry;
+import com.leagueofcoding.api.service.battle.MatchSnapshotCache;
+import com.leagueofcoding.api.service.battle.SubmissionJudgedEvent;
+import com.leagueofcoding.api.service.stats.ProblemStatsService;
+import com.leagueofcoding.api.service.user.SolvedProblemStore;
+import com.leagueofcoding.api.service.version.ProblemVersionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Battle system service.
  * Handles match room, code submission, and battle state management.
+ * Live match state is owned by {@link BattleRoomRegistry}; the database is written behind.
  *
  * @author dao-nguyenminh
  */
@@ -28,9 +44,14 @@ public class BattleService {
 
     private final MatchRepository matchRepository;
     private final MatchSubmissionRepository submissionRepository;
-    private final SimpMessagingTemplate messagingTemplate;
-
-    private static final int BATTLE_DURATION_MINUTES = 15;
+    private final BattleRoomRegistry roomRegistry;
+    private final BattleDeadlineScheduler deadlineScheduler;
+    private final BattleNotifier notifier;
+    private final MatchSnapshotCache snapshotCache;
+    private final SolvedProblemStore solvedProblemStore;
+    private final ProblemVersionCache problemVersionCache;
+    private final ProblemStatsService problemStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Join match room.
@@ -38,125 +59,108 @@ public class BattleService {
      *
      * @param matchId match ID
      * @param userId  user ID
-     * @return match details
+     * @return match state
      */
-    @Transactional
-    public Match joinMatch(Long matchId, Long userId) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
+    public MatchResponse joinMatch(Long matchId, Long userId) {
+        Optional<BattleRoom> room = roomRegistry.find(matchId);
 
-        // Verify user is participant
-        if (!match.getPlayer1Id().equals(userId) && !match.getPlayer2Id().equals(userId)) {
-            throw new RuntimeException("User not in this match");
+        // Match already finished - nothing to start
+        if (room.isEmpty()) {
+            MatchSnapshot snapshot = requireSnapshot(matchId, userId);
+            return MatchResponse.from(snapshot);
         }
 
-        // Start match if still waiting
-        if (match.getStatus() == MatchStatus.WAITING) {
-            match.setStatus(MatchStatus.IN_PROGRESS);
-            match.setStartedAt(LocalDateTime.now());
-            match = matchRepository.save(match);
+        BattleRoom.JoinOutcome outcome = await(room.get().join(userId));
 
+        if (outcome.started()) {
             log.info("Match {} started", matchId);
 
             // Broadcast match started
-            broadcastMatchStarted(match);
+            notifier.broadcastMatchStarted(outcome.snapshot(), deadlineScheduler.getBattleDuration());
         }
 
-        return match;
+        return MatchResponse.from(outcome.snapshot());
     }
 
     /**
      * Submit code for match.
      *
-     * @param matchId  match ID
-     * @param userId   user ID
-     * @param code     source code
-     * @param language programming language
-     * @return submission record
+     * @param matchId match ID
+     * @param userId  user ID
+     * @param request source code and language
+     * @return judged submission
      */
     @Transactional
-    public MatchSubmission submitCode(Long matchId, Long userId, String code, String language) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
-
-        // Verify match is in progress
-        if (match.getStatus() != MatchStatus.IN_PROGRESS) {
-            throw new RuntimeException("Match not in progress");
-        }
+    public SubmissionResponse submitCode(Long matchId, Long userId, SubmitCodeRequest request) {
+        BattleRoom room = requireRoom(matchId);
 
-        // Verify user is participant
-        if (!match.getPlayer1Id().equals(userId) && !match.getPlayer2Id().equals(userId)) {
-            throw new RuntimeException("User not in this match");
-        }
-
-        // Check if user already submitted
-        submissionRepository.findByMatchIdAndUserId(matchId, userId)
-                .ifPresent(s -> {
-                    throw new RuntimeException("Already submitted");
-                });
+        // Verify match in progress, participant and first submission - all in memory
+        MatchSnapshot match = await(room.acceptSubmission(userId));
 
         // Create submission
         MatchSubmission submission = MatchSubmission.builder()
                 .matchId(matchId)
                 .userId(userId)
-                .code(code)
-                .language(com.leagueofcoding.api.enums.ProgrammingLanguage.valueOf(language))
+                .code(request.code())
+                .language(request.language())
                 .status(SubmissionStatus.PENDING)
                 .build();
 
-        submission = submissionRepository.save(submission);
+        try {
+            submission = submissionRepository.save(submission);
+        } catch (RuntimeException ex) {
+            room.releaseSubmission(userId);
+            throw ex;
+        }
 
         log.info("User {} submitted code for match {}", userId, matchId);
 
         // Broadcast submission event
-        broadcastSubmission(match, userId);
+        notifier.broadcastSubmission(match, userId);
 
         // Mock judge (for now - will integrate Judge0 later)
-        mockJudge(submission);
+        mockJudge(room, submission);
 
-        return submission;
+        Double beatsPercent = submission.getStatus() == SubmissionStatus.PASSED
+                ? problemStatsService.beatsPercent(match.problemId(), submission.getLanguage(),
+                submission.getExecutionTimeMs())
+                : null;
+
+        return SubmissionResponse.from(submission, beatsPercent);
     }
 
     /**
      * Get match details with submissions.
+     * Served from the match snapshot cache - polling costs no database query.
      *
      * @param matchId match ID
      * @param userId  requesting user ID
      * @return match details
      */
-    public Map<String, Object> getMatchDetails(Long matchId, Long userId) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
+    public MatchDetailsResponse getMatchDetails(Long matchId, Long userId) {
+        MatchSnapshot snapshot = requireSnapshot(matchId, userId);
 
-        // Verify user is participant
-        if (!match.getPlayer1Id().equals(userId) && !match.getPlayer2Id().equals(userId)) {
-            throw new RuntimeException("User not in this match");
-        }
-
-        // Get submissions
-        var player1Submission = submissionRepository.findByMatchIdAndUserId(matchId, match.getPlayer1Id());
-        var player2Submission = submissionRepository.findByMatchIdAndUserId(matchId, match.getPlayer2Id());
-
-        return Map.of(
-                "match", match,
-                "player1Submitted", player1Submission.isPresent(),
-                "player2Submitted", player2Submission.isPresent(),
-                "timeRemaining", calculateTimeRemaining(match)
+        return MatchDetailsResponse.from(
+                snapshot,
+                calculateTimeRemaining(snapshot.status(), snapshot.startedAt())
         );
     }
 
     /**
      * Calculate time remaining in battle.
      *
-     * @param match match entity
+     * Computed from the cached start time, so the clock never needs a query.
+     *
+     * @param status    match status
+     * @param startedAt match start timestamp
      * @return seconds remaining
      */
-    private long calculateTimeRemaining(Match match) {
-        if (match.getStatus() != MatchStatus.IN_PROGRESS || match.getStartedAt() == null) {
+    private long calculateTimeRemaining(MatchStatus status, LocalDateTime startedAt) {
+        if (status != MatchStatus.IN_PROGRESS || startedAt == null) {
             return 0;
         }
 
-        LocalDateTime endTime = match.getStartedAt().plusMinutes(BATTLE_DURATION_MINUTES);
+        LocalDateTime endTime = deadlineScheduler.deadlineOf(startedAt);
         long secondsRemaining = java.time.Duration.between(LocalDateTime.now(), endTime).getSeconds();
 
         return Math.max(0, secondsRemaining);
@@ -166,15 +170,22 @@ public class BattleService {
      * Mock judge - simulate code execution.
      * TODO: Replace with Judge0 integration.
      *
+     * @param room       battle room of the match
      * @param submission submission to judge
      */
-    private void mockJudge(MatchSubmission submission) {
+    private void mockJudge(BattleRoom room, MatchSubmission submission) {
+        // Judge against the version pinned by the match, never the problem's latest edit
+        ProblemVersionCache.TestSet testSet = room.getProblemVersionId() != null
+                ? problemVersionCache.get(room.getProblemVersionId())
+                : null;
+        int total = testSet != null && !testSet.tests().isEmpty() ? testSet.tests().size() : 10;
+
         // Simulate random pass/fail for testing
         boolean passed = Math.random() > 0.3; // 70% pass rate
 
         submission.setStatus(passed ? SubmissionStatus.PASSED : SubmissionStatus.FAILED);
-        submission.setTestCasesPassed(passed ? 10 : (int) (Math.random() * 10));
-        submission.setTestCasesTotal(10);
+        submission.setTestCasesPassed(passed ? total : (int) (Math.random() * total));
+        submission.setTestCasesTotal(total);
         submission.setExecutionTimeMs((int) (Math.random() * 1000));
         submission.setMemoryUsedKb((int) (Math.random() * 50000));
         submission.setJudgedAt(LocalDateTime.now());
@@ -183,112 +194,82 @@ public class BattleService {
 
         log.info("Submission {} judged: {}", submission.getId(), submission.getStatus());
 
+        Long problemId = room.snapshot().problemId();
+        boolean firstSolve = passed && solvedProblemStore.recordSolve(submission.getUserId(), problemId);
+        eventPublisher.publishEvent(new SubmissionJudgedEvent(
+                submission.getId(),
+                submission.getMatchId(),
+                submission.getUserId(),
+                problemId,
+                submission.getLanguage(),
+                submission.getStatus(),
+                submission.getExecutionTimeMs(),
+                firstSolve
+        ));
+
         // Check if this determines winner
-        if (passed) {
-            checkWinner(submission.getMatchId(), submission.getUserId());
-        }
+        checkWinner(room, submission);
     }
 
     /**
      * Check if submission determines match winner.
+     * The room serializes verdicts, so only the first pass can win.
+     * Failed verdicts are kept as partial scores for timeout resolution.
      *
-     * @param matchId match ID
-     * @param userId  user who passed
+     * @param room       battle room of the match
+     * @param submission judged submission
      */
-    private void checkWinner(Long matchId, Long userId) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
-
-        if (match.getStatus() != MatchStatus.IN_PROGRESS) {
-            return;
-        }
+    private void checkWinner(BattleRoom room, MatchSubmission submission) {
+        await(room.recordVerdict(submission)).ifPresent(match -> {
+            log.info("Match {} completed, winner: {}", match.id(), match.winnerId());
 
-        // Set winner
-        match.setWinnerId(userId);
-        match.setStatus(MatchStatus.COMPLETED);
-        match.setEndedAt(LocalDateTime.now());
-        matchRepository.save(match);
-
-        log.info("Match {} completed, winner: {}", matchId, userId);
-
-        // Broadcast match ended
-        broadcastMatchEnded(match, userId);
+            // Broadcast match ended
+            notifier.broadcastMatchEnded(match, "SOLVED");
+        });
     }
 
     /**
-     * Broadcast match started event.
+     * Find room of a live match.
      *
-     * @param match match entity
+     * @param matchId match ID
+     * @return battle room
      */
-    private void broadcastMatchStarted(Match match) {
-        Map<String, Object> event = Map.of(
-                "type", "MATCH_STARTED",
-                "matchId", match.getId(),
-                "startedAt", match.getStartedAt(),
-                "duration", BATTLE_DURATION_MINUTES
-        );
-
-        messagingTemplate.convertAndSendToUser(
-                match.getPlayer1Id().toString(),
-                "/queue/battle",
-                event
-        );
-
-        messagingTemplate.convertAndSendToUser(
-                match.getPlayer2Id().toString(),
-                "/queue/battle",
-                event
-        );
+    private BattleRoom requireRoom(Long matchId) {
+        return roomRegistry.find(matchId).orElseThrow(() -> matchRepository.existsById(matchId)
+                ? new RuntimeException("Match not in progress")
+                : new RuntimeException("Match not found"));
     }
 
     /**
-     * Broadcast submission event.
+     * Find match snapshot and verify user is participant.
      *
-     * @param match  match entity
-     * @param userId user who submitted
+     * @param matchId match ID
+     * @param userId  user ID
+     * @return match snapshot
      */
-    private void broadcastSubmission(Match match, Long userId) {
-        Map<String, Object> event = Map.of(
-                "type", "OPPONENT_SUBMITTED",
-                "matchId", match.getId(),
-                "userId", userId
-        );
+    private MatchSnapshot requireSnapshot(Long matchId, Long userId) {
+        MatchSnapshot snapshot = snapshotCache.get(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
 
-        // Notify opponent
-        Long opponentId = match.getPlayer1Id().equals(userId) ?
-                match.getPlayer2Id() : match.getPlayer1Id();
+        // Verify user is participant
+        if (!snapshot.isParticipant(userId)) {
+            throw new RuntimeException("User not in this match");
+        }
 
-        messagingTemplate.convertAndSendToUser(
-                opponentId.toString(),
-                "/queue/battle",
-                event
-        );
+        return snapshot;
     }
 
     /**
-     * Broadcast match ended event.
-     *
-     * @param match    match entity
-     * @param winnerId winner user ID
+     * Wait for a room command and rethrow its failure unchanged.
      */
-    private void broadcastMatchEnded(Match match, Long winnerId) {
-        Map<String, Object> event = Map.of(
-                "type", "MATCH_ENDED",
-                "matchId", match.getId(),
-                "winnerId", winnerId,
-                "endedAt", match.getEndedAt()
-        );
-
-        messagingTemplate.convertAndSendToUser(
-                match.getPlayer1Id().toString(),
-                "/queue/battle",
-                event
-        );
-
-        messagingTemplate.convertAndSendToUser(
-                match.getPlayer2Id().toString(),
-                "/queue/battle",
-                event
-        );
+    private static <T> T await(CompletableFuture<T> command) {
+        try {
+            return command.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
     }
 }
\ No newline at end of file
@@ -2,31 +2,42 @@ package com.leagueofcoding.api.service;
 
 import com.leagueofcoding.api.dto.QueueUserData;
 import com.leagueofcoding.api.entity.Match;
-import com.leagueofcoding.api.entity.Problem;
+import com.leagueofcoding.api.dto.problem.ProblemVersionRef;
 import com.leagueofcoding.api.entity.UserRating;
 import com.leagueofcoding.api.enums.MatchStatus;
 import com.leagueofcoding.api.repository.MatchRepository;
 import com.leagueofcoding.api.repository.ProblemRepository;
 import com.leagueofcoding.api.repository.UserRatingRepository;
-import lombok.RequiredArgsConstructor;
+import com.leagueofcoding.api.service.battle.BattleRoomRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Matchmaking queue service using Redis.
  * Handles player queue, ELO-based matching, and match creation.
+ * <p>
+ * A player is matched when joining, and queued players are swept again
+ * periodically, so pairs that were skipped at join time (e.g. recent
+ * opponents) are matched once the rematch wait has passed. A pair is
+ * claimed by removing both players from the queue set, so concurrent
+ * matching on any instance never puts a player into two matches.
  *
  * @author dao-nguyenminh
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MatchmakingQueueService {
 
     private final RedisTemplate<String, Object> redisTemplate;
@@ -34,12 +45,53 @@ public class MatchmakingQueueService {
     private final MatchRepository matchRepository;
     private final ProblemRepository problemRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final BattleRoomRegistry battleRoomRegistry;
+    private final RecentOpponentTracker recentOpponents;
+    private final long rematchAfterMs;
+    private final long sweepIntervalMs;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("matchmaking-sweep").daemon().factory()
+    );
 
     private static final String QUEUE_KEY = "matchmaking:queue";
     private static final String USER_QUEUE_KEY = "matchmaking:user:%d";
-    private static final int RATING_TOLERANCE = 200; // ELO difference tolerance
+    private static final int RATING_TOLERANCE = 200; // ELO difference tolerance for settled players
+    private static final int MAX_RATING_TOLERANCE = 700; // Upper bound for brand new players
     private static final int QUEUE_TIMEOUT_SECONDS = 300; // 5 minutes
 
+    public MatchmakingQueueService(
+            RedisTemplate<String, Object> redisTemplate,
+            UserRatingRepository userRatingRepository,
+            MatchRepository matchRepository,
+            ProblemRepository problemRepository,
+            SimpMessagingTemplate messagingTemplate,
+            BattleRoomRegistry battleRoomRegistry,
+            RecentOpponentTracker recentOpponents,
+            @Value("${matchmaking.recent-opponents.rematch-after-seconds:60}") long rematchAfterSeconds,
+            @Value("${matchmaking.sweep-interval-ms:5000}") long sweepIntervalMs
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.userRatingRepository = userRatingRepository;
+        this.matchRepository = matchRepository;
+        this.problemRepository = problemRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.battleRoomRegistry = battleRoomRegistry;
+        this.recentOpponents = recentOpponents;
+        this.rematchAfterMs = TimeUnit.SECONDS.toMillis(rematchAfterSeconds);
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
     /**
      * Add user to matchmaking queue.
      * Stores user ID with timestamp and rating.
@@ -60,10 +112,12 @@ public class MatchmakingQueueService {
 
         // Store in Redis sorted set (score = ELO rating for efficient matching)
         String userKey = String.format(USER_QUEUE_KEY, userId);
+        int tolerance = ratingTolerance(rating);
         QueueUserData queueData = new QueueUserData(
                 userId,
                 rating.getEloRating(),
-                System.currentTimeMillis()
+                System.currentTimeMillis(),
+                tolerance
         );
 
         redisTemplate.opsForZSet().add(QUEUE_KEY, userId, rating.getEloRating());
@@ -72,7 +126,7 @@ public class MatchmakingQueueService {
         log.info("User {} joined queue (rating: {})", userId, rating.getEloRating());
 
         // Try to find match
-        tryMatchmaking(userId, rating.getEloRating());
+        tryMatchmaking(userId, rating.getEloRating(), tolerance);
 
         return true;
     }
@@ -112,19 +166,55 @@ public class MatchmakingQueueService {
         return size != null ? size : 0;
     }
 
+    /**
+     * Retry matching for everyone still queued, lowest rating first.
+     * Drops queue entries whose player data expired.
+     */
+    void sweep() {
+        try {
+            Set<Object> queued = redisTemplate.opsForZSet().range(QUEUE_KEY, 0, -1);
+            if (queued == null || queued.size() < 2) {
+                return;
+            }
+
+            for (Object member : queued) {
+                Long userId = Long.valueOf(member.toString());
+                QueueUserData data = (QueueUserData) redisTemplate.opsForValue()
+                        .get(String.format(USER_QUEUE_KEY, userId));
+
+                if (data == null) {
+                    redisTemplate.opsForZSet().remove(QUEUE_KEY, member);
+                    continue;
+                }
+
+                // Already matched earlier in this sweep, or by another instance
+                if (redisTemplate.opsForZSet().score(QUEUE_KEY, member) == null) {
+                    continue;
+                }
+
+                int tolerance = data.getTolerance() != null ? data.getTolerance() : RATING_TOLERANCE;
+                tryMatchmaking(userId, data.getRating(), tolerance);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Matchmaking sweep failed", ex);
+        }
+    }
+
     /**
      * Try to find a match for user.
-     * Uses ELO-based matching algorithm.
+     * Uses ELO-based matching algorithm. Recent opponents are skipped
+     * unless they have already waited long enough to accept a rematch.
      *
      * @param userId     user ID
      * @param userRating user's ELO rating
+     * @param tolerance  accepted rating difference
      */
-    private void tryMatchmaking(Long userId, Integer userRating) {
+    private void tryMatchmaking(Long userId, Integer userRating, int tolerance) {
         // Find players with similar rating (within tolerance)
         Set<Object> candidates = redisTemplate.opsForZSet().rangeByScore(
                 QUEUE_KEY,
-                userRating - RATING_TOLERANCE,
-                userRating + RATING_TOLERANCE
+                userRating - tolerance,
+                userRating + tolerance
         );
 
         if (candidates == null || candidates.size() < 2) {
@@ -135,6 +225,7 @@ public class MatchmakingQueueService {
         // Find best match (closest rating, excluding self)
         Long opponentId = null;
         int minDiff = Integer.MAX_VALUE;
+        long now = System.currentTimeMillis();
 
         for (Object candidate : candidates) {
             Long candidateId = Long.valueOf(candidate.toString());
@@ -144,6 +235,11 @@ public class MatchmakingQueueService {
             QueueUserData candidateData = (QueueUserData) redisTemplate.opsForValue().get(candidateKey);
 
             if (candidateData != null) {
+                if (recentOpponents.playedRecently(userId, candidateId)
+                        && now - candidateData.getJoinedAt() < rematchAfterMs) {
+                    continue;
+                }
+
                 Integer candidateRating = candidateData.getRating();
                 int diff = Math.abs(userRating - candidateRating);
 
@@ -155,34 +251,63 @@ public class MatchmakingQueueService {
         }
 
         if (opponentId != null) {
-            createMatch(userId, opponentId);
+            createMatch(userId, userRating, opponentId);
         }
     }
 
+    /**
+     * Search window sized by the Glicko-2 rating deviation: two deviations
+     * either side, so players whose rating is still uncertain search wider.
+     *
+     * @param rating user rating
+     * @return accepted rating difference
+     */
+    private int ratingTolerance(UserRating rating) {
+        long window = Math.round(2 * rating.getGlickoDeviation());
+        return Math.clamp(window, RATING_TOLERANCE, MAX_RATING_TOLERANCE);
+    }
+
     /**
      * Create match between two players.
      * Removes both from queue and notifies via WebSocket.
+     * Nothing happens if either player was already matched elsewhere.
      *
-     * @param player1Id first player ID
-     * @param player2Id second player ID
+     * @param player1Id     first player ID
+     * @param player1Rating first player's queued rating
+     * @param player2Id     second player ID
      */
-    private void createMatch(Long player1Id, Long player2Id) {
-        // Remove both from queue
-        leaveQueue(player1Id);
-        leaveQueue(player2Id);
+    private void createMatch(Long player1Id, Integer player1Rating, Long player2Id) {
+        // Claim both - whoever removes a player from the queue set owns the pairing
+        if (!removeFromQueue(player1Id)) {
+            return;
+        }
+        if (!removeFromQueue(player2Id)) {
+            redisTemplate.opsForZSet().add(QUEUE_KEY, player1Id, player1Rating);
+            return;
+        }
+        redisTemplate.delete(List.of(
+                String.format(USER_QUEUE_KEY, player1Id),
+                String.format(USER_QUEUE_KEY, player2Id)
+        ));
 
         // Select random problem
-        Long problemId = selectRandomProblem();
+        ProblemVersionRef problem = selectRandomProblem();
+        Long problemId = problem.problemId();
 
-        // Create match entity
+        // Create match entity, pinned to the problem's current version
         Match match = Match.builder()
                 .player1Id(player1Id)
                 .player2Id(player2Id)
                 .problemId(problemId)
+                .problemVersionId(problem.versionId())
                 .status(MatchStatus.WAITING)
                 .build();
 
         match = matchRepository.save(match);
+        recentOpponents.recordPairing(player1Id, player2Id);
+
+        // Open in-memory battle room so battle calls never reload the match
+        battleRoomRegistry.open(match);
 
         log.info("Match created: {} vs {} (Match ID: {}, Problem ID: {})",
                 player1Id, player2Id, match.getId(), problemId);
@@ -191,6 +316,11 @@ public class MatchmakingQueueService {
         notifyMatchFound(player1Id, player2Id, match.getId());
     }
 
+    private boolean removeFromQueue(Long userId) {
+        Long removed = redisTemplate.opsForZSet().remove(QUEUE_KEY, userId);
+        return removed != null && removed > 0;
+    }
+
     /**
      * Notify players that match was found.
      *
@@ -223,20 +353,18 @@ public class MatchmakingQueueService {
     }
 
     /**
-     * Select random problem for match.
+     * Select random active problem for match.
      *
-     * @return random problem ID
+     * @return random problem with its current version
      */
-    private Long selectRandomProblem() {
-        List<Long> problemIds = problemRepository.findAll().stream()
-                .map(Problem::getId)
-                .toList();
+    private ProblemVersionRef selectRandomProblem() {
+        List<ProblemVersionRef> problems = problemRepository.findActiveVersionRefs();
 
-        if (problemIds.isEmpty()) {
+        if (problems.isEmpty()) {
             throw new RuntimeException("No problems available for matching");
         }
 
-        return problemIds.get(new Random().nextInt(problemIds.size()));
+        return problems.get(new Random().nextInt(problems.size()));
     }
 
     /**
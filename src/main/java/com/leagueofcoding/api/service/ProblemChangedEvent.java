@@ -0,0 +1,11 @@
+package com.leagueofcoding.api.service;
+
+/**
+ * Published when a problem is created, updated or deactivated.
+ * Listeners should only act after the problem transaction commits.
+ *
+ * @param problemId problem ID
+ * @author dao-nguyenminh
+ */
+public record ProblemChangedEvent(Long problemId) {
+}
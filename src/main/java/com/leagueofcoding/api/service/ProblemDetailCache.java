@@ -0,0 +1,176 @@
+package com.leagueofcoding.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.problem.ProblemResponse;
+import com.leagueofcoding.api.service.render.ProblemStatementRenderer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully built problem details by slug, each with a strong ETag, and their
+ * rendered statements.
+ * <p>
+ * The ETag is a SHA-256 of the serialized JSON, computed once when the entry
+ * is cached, so a conditional GET is answered from memory without building
+ * or serializing the response. A statement is cached as UTF-8 bytes plus a
+ * gzip copy compressed once, so views never render or compress.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class ProblemDetailCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, Entry> details = Caffeine.newBuilder()
+            .maximumSize(5_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final Cache<String, Statement> statements = Caffeine.newBuilder()
+            .maximumSize(5_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    /**
+     * Cached detail, loaded on a miss.
+     *
+     * @param slug   problem slug
+     * @param loader builds the response, throws if the problem does not exist
+     * @return detail with ETag
+     */
+    public Entry get(String slug, Function<String, ProblemResponse> loader) {
+        return details.get(slug, key -> {
+            ProblemResponse problem = loader.apply(key);
+            return new Entry(problem, etagOf(problem));
+        });
+    }
+
+    /**
+     * Cached rendered statement, loaded on a miss.
+     *
+     * @param slug   problem slug
+     * @param loader stored statement HTML and hash, throws if the problem does not exist
+     * @return statement bytes, plain and gzip, with ETag
+     */
+    public Statement getStatement(String slug, Function<String, ProblemStatementRenderer.Rendered> loader) {
+        return statements.get(slug, key -> Statement.of(loader.apply(key)));
+    }
+
+    /**
+     * Drop a slug once the current transaction commits, so a concurrent
+     * read cannot cache the pre-commit state again. Immediate outside a transaction.
+     *
+     * @param slug problem slug
+     */
+    public void evictAfterCommit(String slug) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            details.invalidate(slug);
+            statements.invalidate(slug);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                details.invalidate(slug);
+                statements.invalidate(slug);
+            }
+        });
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String etagOf(ProblemResponse problem) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(problem));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot compute ETag of problem " + problem.slug(), ex);
+        }
+    }
+
+    /**
+     * Problem detail and its strong ETag (quoted).
+     */
+    public record Entry(ProblemResponse problem, String etag) {
+
+        /**
+         * True if an If-None-Match header value matches this entry.
+         */
+        public boolean matches(String ifNoneMatch) {
+            return etagMatches(ifNoneMatch, etag);
+        }
+    }
+
+    /**
+     * Rendered statement as UTF-8 and gzip bytes, with a strong ETag (quoted).
+     * The gzip body is a different representation, so it carries its own tag.
+     */
+    public record Statement(byte[] html, byte[] gzip, String etag) {
+
+        private static final String GZIP_SUFFIX = "-gz";
+
+        static Statement of(ProblemStatementRenderer.Rendered rendered) {
+            byte[] bytes = rendered.html().getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 3 + 64);
+
+            // Compressed once per edit, so the slowest level is worth it
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(bytes);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            return new Statement(bytes, compressed.toByteArray(), "\"" + rendered.hash() + "\"");
+        }
+
+        /**
+         * Strong ETag (quoted) of the gzip body.
+         */
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+        }
+
+        /**
+         * True if an If-None-Match header value matches either encoding of this statement.
+         */
+        public boolean matches(String ifNoneMatch) {
+            return etagMatches(ifNoneMatch, etag) || etagMatches(ifNoneMatch, gzipEtag());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.leagueofcoding.api.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.common.CursorPageResponse;
 import com.leagueofcoding.api.dto.problem.*;
 import com.leagueofcoding.api.entity.Category;
 import com.leagueofcoding.api.entity.Problem;
@@ -12,15 +15,31 @@ import com.leagueofcoding.api.exception.SlugAlreadyExistsException;
 import com.leagueofcoding.api.repository.CategoryRepository;
 import com.leagueofcoding.api.repository.ProblemRepository;
 import com.leagueofcoding.api.repository.TestCaseRepository;
+import com.leagueofcoding.api.service.blob.BlobRef;
+import com.leagueofcoding.api.service.blob.BlobStore;
+import com.leagueofcoding.api.service.render.ProblemStatementRenderer;
+import com.leagueofcoding.api.service.search.ProblemFacet;
+import com.leagueofcoding.api.service.search.ProblemFacetIndex;
+import com.leagueofcoding.api.service.version.ProblemVersionService;
+import com.leagueofcoding.api.util.IdCursor;
+import com.leagueofcoding.api.util.KeysetCursor;
 import com.leagueofcoding.api.util.SlugUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -33,9 +52,25 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProblemService {
 
+    public static final int MAX_SCROLL_SIZE = 100;
+
     private final ProblemRepository problemRepository;
     private final CategoryRepository categoryRepository;
     private final TestCaseRepository testCaseRepository;
+    private final TestCaseBatchWriter testCaseBatchWriter;
+    private final BlobStore blobStore;
+    private final ProblemVersionService problemVersionService;
+    private final ProblemStatementRenderer statementRenderer;
+    private final ProblemDetailCache problemDetailCache;
+    private final ProblemFacetIndex problemFacetIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Totals for scrolling clients, per filter - an estimate, refreshed at most once a minute
+    private final Cache<String, Long> listingCounts = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
 
     /**
      * Create new problem (Admin only).
@@ -54,33 +89,40 @@ public class ProblemService {
         String baseSlug = SlugUtils.generateSlug(request.title());
         String slug = generateUniqueSlug(baseSlug);
 
+        // Render the statement once, here rather than on every view
+        ProblemStatementRenderer.Rendered statement = statementRenderer.render(request.description());
+
         // Create problem
         Problem problem = Problem.builder()
                 .title(request.title())
                 .slug(slug)
                 .description(request.description())
+                .descriptionHtml(statement.html())
+                .descriptionHash(statement.hash())
                 .difficulty(request.difficulty())
                 .timeLimitMs(request.timeLimitMs() != null ? request.timeLimitMs() : 2000)
                 .memoryLimitMb(request.memoryLimitMb() != null ? request.memoryLimitMb() : 256)
                 .category(category)
+                .tags(SlugUtils.generateTagSlugs(request.tags()))
                 .createdBy(creator)
                 .isActive(true)
                 .build();
 
         problem = problemRepository.save(problem);
+        eventPublisher.publishEvent(new ProblemChangedEvent(problem.getId()));
         log.info("Problem created with id: {}", problem.getId());
 
         // Create test cases if provided
         if (request.testCases() != null && !request.testCases().isEmpty()) {
-            List<TestCase> testCases = createTestCasesForProblem(problem, request.testCases());
-            problem.setTestCases(testCases);
+            testCaseBatchWriter.insert(Map.of(problem.getId(), request.testCases()));
         }
+        problemVersionService.publish(List.of(problem.getId()));
 
         // Get sample test cases for response
         List<TestCaseResponse> sampleTestCases = testCaseRepository
                 .findSampleTestCasesByProblemId(problem.getId())
                 .stream()
-                .map(TestCaseResponse::from)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
 
         return ProblemResponse.from(problem, sampleTestCases);
@@ -103,8 +145,11 @@ public class ProblemService {
             problem.setTitle(request.title());
         }
 
-        if (request.description() != null) {
+        if (request.description() != null && !request.description().equals(problem.getDescription())) {
+            ProblemStatementRenderer.Rendered statement = statementRenderer.render(request.description());
             problem.setDescription(request.description());
+            problem.setDescriptionHtml(statement.html());
+            problem.setDescriptionHash(statement.hash());
         }
 
         if (request.difficulty() != null) {
@@ -127,23 +172,53 @@ public class ProblemService {
             problem.setCategory(category);
         }
 
+        if (request.tags() != null) {
+            problem.getTags().clear();
+            problem.getTags().addAll(SlugUtils.generateTagSlugs(request.tags()));
+        }
+
         if (request.isActive() != null) {
             problem.setIsActive(request.isActive());
         }
 
         problem = problemRepository.save(problem);
+        // Difficulty, category and visibility are not part of a version
+        if (request.title() != null || request.description() != null
+                || request.timeLimitMs() != null || request.memoryLimitMb() != null) {
+            problemVersionService.publish(List.of(problem.getId()));
+        }
+        problemDetailCache.evictAfterCommit(problem.getSlug());
+        eventPublisher.publishEvent(new ProblemChangedEvent(problem.getId()));
         log.info("Problem updated: {}", problem.getId());
 
         // Get sample test cases for response
         List<TestCaseResponse> sampleTestCases = testCaseRepository
                 .findSampleTestCasesByProblemId(problem.getId())
                 .stream()
-                .map(TestCaseResponse::from)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
 
         return ProblemResponse.from(problem, sampleTestCases);
     }
 
+    /**
+     * Get problem by slug with its ETag, from the detail cache (public access).
+     * A hit touches no database connection; a miss loads in its own transaction.
+     */
+    public ProblemDetailCache.Entry getCachedProblemBySlug(String slug) {
+        return problemDetailCache.get(slug, key -> transactionTemplate.execute(status -> getProblemBySlug(key)));
+    }
+
+    /**
+     * Rendered statement of an active problem, from the cache. Every view of
+     * an unchanged statement shares the same HTML and gzip bytes.
+     */
+    public ProblemDetailCache.Statement getCachedStatement(String slug) {
+        return problemDetailCache.getStatement(slug, key -> problemRepository.findBySlugAndActive(key)
+                .map(p -> new ProblemStatementRenderer.Rendered(p.getDescriptionHtml(), p.getDescriptionHash()))
+                .orElseThrow(() -> new ProblemNotFoundException("Problem not found with slug: " + key)));
+    }
+
     /**
      * Get problem by slug (public access).
      */
@@ -160,7 +235,7 @@ public class ProblemService {
         List<TestCaseResponse> sampleTestCases = testCaseRepository
                 .findSampleTestCasesByProblemId(problem.getId())
                 .stream()
-                .map(TestCaseResponse::from)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
 
         return ProblemResponse.from(problem, sampleTestCases);
@@ -194,6 +269,107 @@ public class ProblemService {
         return problems.map(ProblemSummaryResponse::from);
     }
 
+    /**
+     * Keyset page of active problems, oldest first, with optional filtering.
+     * Each page is one index range scan however deep it is; no count is run
+     * unless the (cached) total is requested.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProblemSummaryResponse> scrollProblems(
+            Difficulty difficulty,
+            Long categoryId,
+            String cursor,
+            int size,
+            boolean includeTotal
+    ) {
+        KeysetCursor after = KeysetCursor.decode(cursor, KeysetCursor.BEFORE_ALL);
+        int pageSize = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Problem> problems;
+
+        if (difficulty != null && categoryId != null) {
+            problems = problemRepository.findActiveByCategoryAndDifficultyAfter(
+                    categoryId, difficulty, after.createdAt(), after.id(), limit
+            );
+        } else if (difficulty != null) {
+            problems = problemRepository.findActiveByDifficultyAfter(difficulty, after.createdAt(), after.id(), limit);
+        } else if (categoryId != null) {
+            problems = problemRepository.findActiveByCategoryAfter(categoryId, after.createdAt(), after.id(), limit);
+        } else {
+            problems = problemRepository.findActiveAfter(after.createdAt(), after.id(), limit);
+        }
+
+        return CursorPageResponse.from(
+                problems,
+                pageSize,
+                p -> new KeysetCursor(p.getCreatedAt(), p.getId()),
+                ProblemSummaryResponse::from,
+                includeTotal ? countActive(difficulty, categoryId) : null
+        );
+    }
+
+    /**
+     * Page of active problems matching any combination of facets, by ascending ID.
+     * The filter is evaluated on the facet bitmaps; the database only loads the page.
+     *
+     * @param difficulties accepted difficulties, empty for any
+     * @param categoryIds  accepted categories, empty for any
+     * @param tags         tags to match, empty for any
+     * @param allTags      require every tag instead of any
+     * @param unsolvedBy   user whose solved problems are excluded, or null
+     * @param cursor       cursor from the previous page, null for the first page
+     * @param size         page size
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProblemSummaryResponse> filterProblems(
+            Collection<Difficulty> difficulties,
+            Collection<Long> categoryIds,
+            Collection<String> tags,
+            boolean allTags,
+            Long unsolvedBy,
+            String cursor,
+            int size
+    ) {
+        long afterId = IdCursor.decode(cursor, IdCursor.BEFORE_ALL).id();
+
+        List<ProblemFacetIndex.Criterion> criteria = new ArrayList<>(3);
+        if (!difficulties.isEmpty()) {
+            criteria.add(new ProblemFacetIndex.Criterion(ProblemFacet.DIFFICULTY,
+                    difficulties.stream().map(Difficulty::name).collect(Collectors.toSet()), false));
+        }
+        if (!categoryIds.isEmpty()) {
+            criteria.add(new ProblemFacetIndex.Criterion(ProblemFacet.CATEGORY,
+                    categoryIds.stream().map(String::valueOf).collect(Collectors.toSet()), false));
+        }
+        if (!tags.isEmpty()) {
+            criteria.add(new ProblemFacetIndex.Criterion(ProblemFacet.TAG,
+                    SlugUtils.generateTagSlugs(tags), allTags));
+        }
+
+        int pageSize = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+        ProblemFacetIndex.Match match = problemFacetIndex.filter(criteria, unsolvedBy, afterId, pageSize + 1);
+
+        boolean hasNext = match.problemIds().size() > pageSize;
+        List<Long> pageIds = hasNext ? match.problemIds().subList(0, pageSize) : match.problemIds();
+
+        Map<Long, Problem> problems = problemRepository.findByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Problem::getId, p -> p));
+
+        // Index order; a problem deactivated since the bitmap was read is skipped
+        List<ProblemSummaryResponse> items = pageIds.stream()
+                .map(problems::get)
+                .filter(p -> p != null && p.getIsActive())
+                .map(ProblemSummaryResponse::from)
+                .toList();
+
+        return new CursorPageResponse<>(
+                items,
+                hasNext ? new IdCursor(pageIds.getLast()).encode() : null,
+                (long) match.total()
+        );
+    }
+
     /**
      * Delete problem (Admin only - soft delete).
      */
@@ -208,6 +384,8 @@ public class ProblemService {
 
         problem.setIsActive(false);
         problemRepository.save(problem);
+        problemDetailCache.evictAfterCommit(problem.getSlug());
+        eventPublisher.publishEvent(new ProblemChangedEvent(problemId));
 
         log.info("Problem deactivated: {}", problemId);
     }
@@ -224,18 +402,76 @@ public class ProblemService {
                         "Problem not found with id: " + problemId
                 ));
 
+        BlobRef input = blobStore.put(request.input());
+        BlobRef output = blobStore.put(request.expectedOutput());
+
         TestCase testCase = TestCase.builder()
                 .problem(problem)
-                .input(request.input())
-                .expectedOutput(request.expectedOutput())
+                .inputHash(input.hash())
+                .inputSize(input.size())
+                .outputHash(output.hash())
+                .outputSize(output.size())
                 .isSample(request.isSample())
                 .orderIndex(request.orderIndex() != null ? request.orderIndex() : 0)
                 .build();
 
         testCase = testCaseRepository.save(testCase);
+        problemVersionService.publish(List.of(problemId));
+        problemDetailCache.evictAfterCommit(problem.getSlug());
         log.info("Test case created with id: {}", testCase.getId());
 
-        return TestCaseResponse.from(testCase);
+        return TestCaseResponse.from(testCase, request.input(), request.expectedOutput());
+    }
+
+    /**
+     * Replace the input or expected output of a test case from a stream.
+     * Unchanged content hashes to the same blob, so nothing is rewritten.
+     *
+     * @param testCaseId test case ID
+     * @param output     true for the expected output, false for the input
+     * @param content    new content
+     */
+    @Transactional
+    public void replaceTestCaseData(Long testCaseId, boolean output, InputStream content) {
+        TestCase testCase = testCaseRepository.findById(testCaseId)
+                .orElseThrow(() -> new ProblemNotFoundException("Test case not found with id: " + testCaseId));
+
+        BlobRef blob = blobStore.put(content);
+        String current = output ? testCase.getOutputHash() : testCase.getInputHash();
+        if (blob.hash().equals(current)) {
+            return;
+        }
+
+        if (output) {
+            testCase.setOutputHash(blob.hash());
+            testCase.setOutputSize(blob.size());
+        } else {
+            testCase.setInputHash(blob.hash());
+            testCase.setInputSize(blob.size());
+        }
+        problemVersionService.publish(List.of(testCase.getProblem().getId()));
+
+        if (testCase.getIsSample()) {
+            problemDetailCache.evictAfterCommit(testCase.getProblem().getSlug());
+        }
+        log.info("Test case {} {} replaced ({} bytes)", testCaseId, output ? "output" : "input", blob.size());
+    }
+
+    /**
+     * Blob holding the input or expected output of a test case.
+     *
+     * @param testCaseId test case ID
+     * @param output     true for the expected output, false for the input
+     * @return blob hash and size
+     */
+    @Transactional(readOnly = true)
+    public BlobRef getTestCaseData(Long testCaseId, boolean output) {
+        TestCase testCase = testCaseRepository.findById(testCaseId)
+                .orElseThrow(() -> new ProblemNotFoundException("Test case not found with id: " + testCaseId));
+
+        return output
+                ? new BlobRef(testCase.getOutputHash(), testCase.getOutputSize())
+                : new BlobRef(testCase.getInputHash(), testCase.getInputSize());
     }
 
     /**
@@ -245,14 +481,42 @@ public class ProblemService {
     public void deleteTestCase(Long testCaseId) {
         log.info("Deleting test case: {}", testCaseId);
 
-        if (!testCaseRepository.existsById(testCaseId)) {
-            throw new ProblemNotFoundException("Test case not found with id: " + testCaseId);
-        }
+        TestCase testCase = testCaseRepository.findById(testCaseId)
+                .orElseThrow(() -> new ProblemNotFoundException("Test case not found with id: " + testCaseId));
 
-        testCaseRepository.deleteById(testCaseId);
+        testCaseRepository.delete(testCase);
+        problemVersionService.publish(List.of(testCase.getProblem().getId()));
+        problemDetailCache.evictAfterCommit(testCase.getProblem().getSlug());
         log.info("Test case deleted: {}", testCaseId);
     }
 
+    /**
+     * Cached count of active problems matching a filter.
+     */
+    private long countActive(Difficulty difficulty, Long categoryId) {
+        return listingCounts.get(difficulty + ":" + categoryId, key -> {
+            if (difficulty != null && categoryId != null) {
+                return problemRepository.countByCategoryIdAndDifficultyAndIsActiveTrue(categoryId, difficulty);
+            } else if (difficulty != null) {
+                return problemRepository.countByDifficultyAndIsActiveTrue(difficulty);
+            } else if (categoryId != null) {
+                return problemRepository.countByCategoryIdAndIsActiveTrue(categoryId);
+            }
+            return problemRepository.countByIsActiveTrue();
+        });
+    }
+
+    /**
+     * Test case response with its data read from the blob store (samples are small).
+     */
+    private TestCaseResponse toResponse(TestCase testCase) {
+        return TestCaseResponse.from(
+                testCase,
+                blobStore.readString(testCase.getInputHash()),
+                blobStore.readString(testCase.getOutputHash())
+        );
+    }
+
     /**
      * Generate unique slug.
      */
@@ -273,20 +537,4 @@ public class ProblemService {
 
         return slug;
     }
-
-    /**
-     * Create test cases for problem.
-     */
-    private List<TestCase> createTestCasesForProblem(Problem problem, List<TestCaseRequest> requests) {
-        return requests.stream()
-                .map(req -> TestCase.builder()
-                        .problem(problem)
-                        .input(req.input())
-                        .expectedOutput(req.expectedOutput())
-                        .isSample(req.isSample())
-                        .orderIndex(req.orderIndex() != null ? req.orderIndex() : 0)
-                        .build())
-                .map(testCaseRepository::save)
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.leagueofcoding.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Last N opponents of each player, for rematch avoidance in matchmaking.
+ * <p>
+ * One fixed ring buffer of user IDs per player (8 bytes per slot), kept in
+ * memory and evicted after a day without matches. A lookup is a scan of N
+ * longs - no Redis or database round trip per candidate.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class RecentOpponentTracker {
+
+    private final int size;
+
+    private final Cache<Long, Ring> recent = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .expireAfterAccess(Duration.ofDays(1))
+            .build();
+
+    public RecentOpponentTracker(@Value("${matchmaking.recent-opponents.size:3}") int size) {
+        this.size = size;
+    }
+
+    /**
+     * Remember that two players were paired.
+     *
+     * @param player1Id first player ID
+     * @param player2Id second player ID
+     */
+    public void recordPairing(Long player1Id, Long player2Id) {
+        if (size <= 0) {
+            return;
+        }
+
+        recent.get(player1Id, k -> new Ring(size)).add(player2Id);
+        recent.get(player2Id, k -> new Ring(size)).add(player1Id);
+    }
+
+    /**
+     * True if the two players met in either player's last N pairings.
+     */
+    public boolean playedRecently(Long userId, Long opponentId) {
+        Ring ring = recent.getIfPresent(userId);
+        return ring != null && ring.contains(opponentId);
+    }
+
+    /**
+     * Fixed-size ring of opponent IDs, 0 = empty slot.
+     */
+    private static final class Ring {
+
+        private final long[] opponents;
+        private int next;
+
+        Ring(int size) {
+            this.opponents = new long[size];
+        }
+
+        synchronized void add(long opponentId) {
+            opponents[next] = opponentId;
+            next = (next + 1) % opponents.length;
+        }
+
+        synchronized boolean contains(long opponentId) {
+            for (long opponent : opponents) {
+                if (opponent == opponentId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
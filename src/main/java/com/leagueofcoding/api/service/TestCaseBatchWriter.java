@@ -0,0 +1,62 @@
+package com.leagueofcoding.api.service;
+
+import com.leagueofcoding.api.dto.problem.TestCaseRequest;
+import com.leagueofcoding.api.service.blob.BlobRef;
+import com.leagueofcoding.api.service.blob.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts test cases with JDBC batches, their data going to the blob store.
+ * <p>
+ * {@code test_cases} IDs are IDENTITY-generated, which disables Hibernate
+ * insert batching, so saving entities costs one round trip per row.
+ * Joins the caller's transaction. Blobs are stored before the rows, so a
+ * rolled-back insert only leaves unreferenced blobs behind.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class TestCaseBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+
+    /**
+     * Insert test cases of one or more problems.
+     *
+     * @param testCasesByProblem test cases per problem ID; a missing order index becomes 0
+     * @return number of rows inserted
+     */
+    public int insert(Map<Long, List<TestCaseRequest>> testCasesByProblem) {
+        List<Object[]> rows = new ArrayList<>();
+        testCasesByProblem.forEach((problemId, testCases) -> testCases.forEach(testCase -> {
+            BlobRef input = blobStore.put(testCase.input());
+            BlobRef output = blobStore.put(testCase.expectedOutput());
+            rows.add(new Object[]{
+                    problemId,
+                    input.hash(), input.size(), output.hash(), output.size(),
+                    testCase.isSample(),
+                    testCase.orderIndex() != null ? testCase.orderIndex() : 0
+            });
+        }));
+
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO test_cases (problem_id, input_hash, input_size, output_hash, output_size, " +
+                            "is_sample, order_index) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()))
+            );
+        }
+
+        return rows.size();
+    }
+}
@@ -0,0 +1,289 @@
+package com.leagueofcoding.api.service.achievement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.dto.problem.ProblemCategoryRef;
+import com.leagueofcoding.api.dto.user.AchievementResponse;
+import com.leagueofcoding.api.dto.websocket.NotificationMessage;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+import com.leagueofcoding.api.repository.ProblemRepository;
+import com.leagueofcoding.api.service.battle.MatchCompletedEvent;
+import com.leagueofcoding.api.service.battle.SubmissionJudgedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Unlocks achievements from match-completed and submission-judged events.
+ * <p>
+ * Events become per-user {@link AchievementEvent}s and are evaluated in periodic
+ * flushes, only against the rules indexed under their trigger. Rule state lives
+ * in per-user counters ({@code achievement_counters}) cached in memory; a flush
+ * loads missing users in two queries, writes only changed counters and new
+ * badges in one transaction, then notifies the players over WebSocket.
+ * A batch that fails is evaluated again on the next flush, ahead of newer
+ * events, so streaks still see match results in order.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+public class AchievementEngine {
+
+    private static final String ACHIEVEMENT_QUEUE = "/queue/achievements";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProblemRepository problemRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long flushIntervalMs;
+
+    private final Map<AchievementTrigger, List<AchievementRule>> rulesByTrigger = new EnumMap<>(AchievementTrigger.class);
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+
+    // Events of the last failed flush - only touched by the flusher thread
+    private List<Pending> failed = List.of();
+
+    // Only touched by the flusher thread
+    private final Cache<Long, UserProgress> progress = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    private final Cache<Long, Long> problemCategories = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("achievement-flusher").daemon().factory()
+    );
+
+    public AchievementEngine(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ProblemRepository problemRepository,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${achievements.flush-interval-ms:1000}") long flushIntervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.problemRepository = problemRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.flushIntervalMs = flushIntervalMs;
+
+        for (AchievementRule rule : AchievementRules.catalog()) {
+            rule.triggers().forEach(trigger ->
+                    rulesByTrigger.computeIfAbsent(trigger, k -> new ArrayList<>()).add(rule));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Achievements of a user, oldest first.
+     *
+     * @param userId user ID
+     * @return unlocked achievements
+     */
+    public List<AchievementResponse> getUnlocked(Long userId) {
+        return jdbcTemplate.query(
+                "SELECT code, unlocked_at FROM user_achievements WHERE user_id = ? ORDER BY unlocked_at, code",
+                (rs, i) -> new AchievementResponse(rs.getString(1), rs.getTimestamp(2).toLocalDateTime()),
+                userId
+        );
+    }
+
+    /**
+     * Queue the result of a completed match for both players.
+     */
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent event) {
+        MatchSnapshot match = event.match();
+
+        if (match.winnerId() == null) {
+            pending.add(new Pending(AchievementTrigger.MATCH_DRAWN, match.player1Id(), null, null));
+            pending.add(new Pending(AchievementTrigger.MATCH_DRAWN, match.player2Id(), null, null));
+            return;
+        }
+
+        Long loserId = match.winnerId().equals(match.player1Id()) ? match.player2Id() : match.player1Id();
+        pending.add(new Pending(AchievementTrigger.MATCH_WON, match.winnerId(), null, null));
+        pending.add(new Pending(AchievementTrigger.MATCH_LOST, loserId, null, null));
+    }
+
+    /**
+     * Queue a committed passed verdict.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.status() != SubmissionStatus.PASSED) {
+            return;
+        }
+
+        pending.add(new Pending(AchievementTrigger.SUBMISSION_PASSED, event.userId(), event.problemId(), event.executionTimeMs()));
+        if (event.firstSolve()) {
+            pending.add(new Pending(AchievementTrigger.PROBLEM_SOLVED, event.userId(), event.problemId(), null));
+        }
+    }
+
+    void flush() {
+        List<Pending> batch = new ArrayList<>(failed);
+        failed = List.of();
+        Pending item;
+        while ((item = pending.poll()) != null) {
+            batch.add(item);
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = batch.stream().map(Pending::userId).collect(Collectors.toSet());
+
+        try {
+            Map<Long, List<String>> unlocked = transactionTemplate.execute(status -> apply(batch, userIds));
+            unlocked.forEach((userId, codes) -> codes.forEach(code -> messagingTemplate.convertAndSendToUser(
+                    userId.toString(), ACHIEVEMENT_QUEUE, NotificationMessage.achievementUnlocked(code))));
+        } catch (RuntimeException ex) {
+            // In-memory progress may be ahead of the database - reload before the retry
+            progress.invalidateAll(userIds);
+            log.error("Failed to evaluate achievements for {} events, retrying next flush", batch.size(), ex);
+            failed = batch;
+        }
+    }
+
+    /**
+     * Evaluate a batch and persist changes inside one transaction.
+     *
+     * @return newly unlocked codes per user
+     */
+    private Map<Long, List<String>> apply(List<Pending> batch, Set<Long> userIds) {
+        Map<Long, UserProgress> users = progress.getAll(userIds, this::loadProgress);
+        Map<Long, Long> categories = categoriesOf(batch);
+
+        for (Pending item : batch) {
+            AchievementEvent event = new AchievementEvent(
+                    item.trigger(),
+                    item.userId(),
+                    item.problemId() != null ? categories.get(item.problemId()) : null,
+                    item.executionTimeMs()
+            );
+
+            UserProgress user = users.get(item.userId());
+            for (AchievementRule rule : rulesByTrigger.getOrDefault(event.trigger(), List.of())) {
+                rule.evaluate(event, user);
+            }
+        }
+
+        List<Object[]> counters = new ArrayList<>();
+        List<Object[]> achievements = new ArrayList<>();
+        Map<Long, List<String>> unlocked = new LinkedHashMap<>();
+
+        users.forEach((userId, user) -> {
+            user.drainDirtyCounters().forEach((name, value) -> counters.add(new Object[]{userId, name, value}));
+
+            List<String> codes = user.drainNewlyUnlocked();
+            codes.forEach(code -> achievements.add(new Object[]{userId, code}));
+            if (!codes.isEmpty()) {
+                unlocked.put(userId, codes);
+            }
+        });
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO achievement_counters (user_id, name, value) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (user_id, name) DO UPDATE SET value = EXCLUDED.value",
+                counters
+        );
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_achievements (user_id, code) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                achievements
+        );
+
+        return unlocked;
+    }
+
+    private Map<Long, UserProgress> loadProgress(Set<? extends Long> userIds) {
+        Long[] ids = userIds.toArray(Long[]::new);
+        Map<Long, Map<String, Long>> counters = new HashMap<>();
+        Map<Long, Set<String>> codes = new HashMap<>();
+
+        jdbcTemplate.query(
+                "SELECT user_id, name, value FROM achievement_counters WHERE user_id = ANY(?)",
+                rs -> {
+                    counters.computeIfAbsent(rs.getLong(1), k -> new HashMap<>()).put(rs.getString(2), rs.getLong(3));
+                },
+                (Object) ids
+        );
+        jdbcTemplate.query(
+                "SELECT user_id, code FROM user_achievements WHERE user_id = ANY(?)",
+                rs -> {
+                    codes.computeIfAbsent(rs.getLong(1), k -> new HashSet<>()).add(rs.getString(2));
+                },
+                (Object) ids
+        );
+
+        Map<Long, UserProgress> loaded = new HashMap<>();
+        for (Long userId : userIds) {
+            loaded.put(userId, new UserProgress(
+                    userId,
+                    counters.getOrDefault(userId, Map.of()),
+                    codes.getOrDefault(userId, Set.of())
+            ));
+        }
+        return loaded;
+    }
+
+    private Map<Long, Long> categoriesOf(List<Pending> batch) {
+        Set<Long> problemIds = batch.stream()
+                .filter(item -> item.trigger() == AchievementTrigger.PROBLEM_SOLVED)
+                .map(Pending::problemId)
+                .collect(Collectors.toSet());
+
+        if (problemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return problemCategories.getAll(problemIds, missing -> problemRepository
+                .findCategoryRefsByIdIn(List.copyOf(missing))
+                .stream()
+                .collect(Collectors.toMap(ProblemCategoryRef::problemId, ProblemCategoryRef::categoryId)));
+    }
+
+    /**
+     * Queued event before its problem category is resolved.
+     */
+    private record Pending(AchievementTrigger trigger, Long userId, Long problemId, Integer executionTimeMs) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.leagueofcoding.api.service.achievement;
+
+/**
+ * One fact about one user, as seen by achievement rules.
+ *
+ * @param trigger         what happened
+ * @param userId          user ID
+ * @param categoryId      problem category, null for match results
+ * @param executionTimeMs execution time of a passed submission, null otherwise
+ * @author dao-nguyenminh
+ */
+public record AchievementEvent(
+        AchievementTrigger trigger,
+        Long userId,
+        Long categoryId,
+        Integer executionTimeMs
+) {
+}
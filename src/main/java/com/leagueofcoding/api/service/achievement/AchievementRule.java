@@ -0,0 +1,25 @@
+package com.leagueofcoding.api.service.achievement;
+
+import java.util.Set;
+
+/**
+ * Achievement rule. Evaluated only for events of its triggers, against the
+ * user's incremental progress - never against match history.
+ *
+ * @author dao-nguyenminh
+ */
+public interface AchievementRule {
+
+    /**
+     * Triggers this rule reacts to.
+     */
+    Set<AchievementTrigger> triggers();
+
+    /**
+     * Update the user's counters for the event and unlock what was earned.
+     *
+     * @param event    event of one of {@link #triggers()}
+     * @param progress progress of the event's user
+     */
+    void evaluate(AchievementEvent event, UserProgress progress);
+}
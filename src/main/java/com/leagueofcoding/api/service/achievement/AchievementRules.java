@@ -0,0 +1,134 @@
+package com.leagueofcoding.api.service.achievement;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.leagueofcoding.api.service.achievement.AchievementTrigger.*;
+
+/**
+ * Achievement catalog and the rule shapes it is built from.
+ * Tiers unlock at exact counter values, so a rule costs one map lookup per event.
+ *
+ * @author dao-nguyenminh
+ */
+public final class AchievementRules {
+
+    private AchievementRules() {
+    }
+
+    /**
+     * All achievements.
+     */
+    public static List<AchievementRule> catalog() {
+        return List.of(
+                counter(EnumSet.of(MATCH_WON), "wins",
+                        Map.of(1L, "FIRST_WIN", 10L, "WINS_10", 100L, "WINS_100")),
+                counter(EnumSet.of(MATCH_WON, MATCH_LOST, MATCH_DRAWN), "matches",
+                        Map.of(100L, "MATCHES_100", 1000L, "MATCHES_1000")),
+                streak(MATCH_WON, EnumSet.of(MATCH_LOST, MATCH_DRAWN), "win_streak",
+                        Map.of(5L, "WIN_STREAK_5", 10L, "WIN_STREAK_10")),
+                counter(EnumSet.of(PROBLEM_SOLVED), "solved",
+                        Map.of(1L, "FIRST_SOLVE", 50L, "SOLVED_50", 200L, "SOLVED_200")),
+                // Distinct problems per category, e.g. SOLVED_50_CATEGORY_3
+                categoryCounter(PROBLEM_SOLVED, "solved:category:",
+                        Map.of(10L, "SOLVED_10_CATEGORY_", 50L, "SOLVED_50_CATEGORY_")),
+                condition(SUBMISSION_PASSED,
+                        e -> e.executionTimeMs() != null && e.executionTimeMs() < 100, "SUB_100MS")
+        );
+    }
+
+    /**
+     * Count events, unlock a tier when the count reaches it.
+     */
+    static AchievementRule counter(Set<AchievementTrigger> triggers, String counter, Map<Long, String> tiers) {
+        return new AchievementRule() {
+            @Override
+            public Set<AchievementTrigger> triggers() {
+                return triggers;
+            }
+
+            @Override
+            public void evaluate(AchievementEvent event, UserProgress progress) {
+                String code = tiers.get(progress.increment(counter));
+                if (code != null) {
+                    progress.unlock(code);
+                }
+            }
+        };
+    }
+
+    /**
+     * Count events per problem category; tier codes are suffixed with the category ID.
+     */
+    static AchievementRule categoryCounter(AchievementTrigger trigger, String counterPrefix, Map<Long, String> tiers) {
+        return new AchievementRule() {
+            @Override
+            public Set<AchievementTrigger> triggers() {
+                return EnumSet.of(trigger);
+            }
+
+            @Override
+            public void evaluate(AchievementEvent event, UserProgress progress) {
+                if (event.categoryId() == null) {
+                    return;
+                }
+
+                String code = tiers.get(progress.increment(counterPrefix + event.categoryId()));
+                if (code != null) {
+                    progress.unlock(code + event.categoryId());
+                }
+            }
+        };
+    }
+
+    /**
+     * Consecutive extend events, reset to zero by any reset event.
+     */
+    static AchievementRule streak(AchievementTrigger extend, Set<AchievementTrigger> reset, String counter,
+                                  Map<Long, String> tiers) {
+        Set<AchievementTrigger> triggers = EnumSet.copyOf(reset);
+        triggers.add(extend);
+
+        return new AchievementRule() {
+            @Override
+            public Set<AchievementTrigger> triggers() {
+                return triggers;
+            }
+
+            @Override
+            public void evaluate(AchievementEvent event, UserProgress progress) {
+                if (event.trigger() != extend) {
+                    progress.set(counter, 0);
+                    return;
+                }
+
+                String code = tiers.get(progress.increment(counter));
+                if (code != null) {
+                    progress.unlock(code);
+                }
+            }
+        };
+    }
+
+    /**
+     * One-off achievement for a single qualifying event - keeps no counter.
+     */
+    static AchievementRule condition(AchievementTrigger trigger, Predicate<AchievementEvent> condition, String code) {
+        return new AchievementRule() {
+            @Override
+            public Set<AchievementTrigger> triggers() {
+                return EnumSet.of(trigger);
+            }
+
+            @Override
+            public void evaluate(AchievementEvent event, UserProgress progress) {
+                if (!progress.isUnlocked(code) && condition.test(event)) {
+                    progress.unlock(code);
+                }
+            }
+        };
+    }
+}
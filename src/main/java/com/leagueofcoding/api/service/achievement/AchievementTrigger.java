@@ -0,0 +1,22 @@
+package com.leagueofcoding.api.service.achievement;
+
+/**
+ * Per-user facts extracted from match and submission events. Rules are indexed by trigger.
+ *
+ * @author dao-nguyenminh
+ */
+public enum AchievementTrigger {
+    MATCH_WON,
+    MATCH_LOST,
+    MATCH_DRAWN,
+
+    /**
+     * Any PASSED verdict
+     */
+    SUBMISSION_PASSED,
+
+    /**
+     * First PASSED verdict of the user on a problem
+     */
+    PROBLEM_SOLVED
+}
@@ -0,0 +1,83 @@
+package com.leagueofcoding.api.service.achievement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Achievement state of one user: named counters and unlocked codes.
+ * Changes since the last flush are tracked so only they are written.
+ * Only touched by the achievement flusher thread.
+ *
+ * @author dao-nguyenminh
+ */
+public final class UserProgress {
+
+    private final Long userId;
+    private final Map<String, Long> counters;
+    private final Set<String> unlocked;
+
+    private final Set<String> dirtyCounters = new HashSet<>();
+    private final List<String> newlyUnlocked = new ArrayList<>();
+
+    UserProgress(Long userId, Map<String, Long> counters, Set<String> unlocked) {
+        this.userId = userId;
+        this.counters = new HashMap<>(counters);
+        this.unlocked = new HashSet<>(unlocked);
+    }
+
+    public Long userId() {
+        return userId;
+    }
+
+    public long get(String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    /**
+     * Add one to a counter.
+     *
+     * @return new value
+     */
+    public long increment(String counter) {
+        long value = get(counter) + 1;
+        set(counter, value);
+        return value;
+    }
+
+    public void set(String counter, long value) {
+        Long previous = counters.put(counter, value);
+        if (previous == null || previous != value) {
+            dirtyCounters.add(counter);
+        }
+    }
+
+    public boolean isUnlocked(String code) {
+        return unlocked.contains(code);
+    }
+
+    /**
+     * Unlock an achievement - no-op if already unlocked.
+     */
+    public void unlock(String code) {
+        if (unlocked.add(code)) {
+            newlyUnlocked.add(code);
+        }
+    }
+
+    Map<String, Long> drainDirtyCounters() {
+        Map<String, Long> dirty = new HashMap<>();
+        dirtyCounters.forEach(name -> dirty.put(name, counters.get(name)));
+        dirtyCounters.clear();
+        return dirty;
+    }
+
+    List<String> drainNewlyUnlocked() {
+        List<String> codes = List.copyOf(newlyUnlocked);
+        newlyUnlocked.clear();
+        return codes;
+    }
+}
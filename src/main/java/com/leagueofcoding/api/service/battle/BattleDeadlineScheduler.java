@@ -0,0 +1,111 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side battle deadlines, and join deadlines of rooms still waiting for players.
+ * <p>
+ * Backed by a hashed timing wheel: scheduling and cancelling a deadline is O(1)
+ * regardless of how many battles are running, and nothing scans the matches table.
+ * Deadlines fire within one tick (100 ms) of the exact end time.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class BattleDeadlineScheduler {
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 1024;
+
+    @Getter
+    private final Duration battleDuration;
+    private final Duration joinTimeout;
+
+    private final BattleNotifier notifier;
+
+    private final HashedWheelTimer wheel = new HashedWheelTimer(
+            Thread.ofPlatform().name("battle-deadline-wheel").daemon().factory(),
+            TICK_MS,
+            TimeUnit.MILLISECONDS,
+            WHEEL_SIZE
+    );
+
+    public BattleDeadlineScheduler(
+            @Value("${battle.duration-minutes:15}") long durationMinutes,
+            @Value("${battle.join-timeout-seconds:120}") long joinTimeoutSeconds,
+            BattleNotifier notifier
+    ) {
+        this.battleDuration = Duration.ofMinutes(durationMinutes);
+        this.joinTimeout = Duration.ofSeconds(joinTimeoutSeconds);
+        this.notifier = notifier;
+    }
+
+    /**
+     * Deadline of a battle that started at the given time.
+     */
+    public LocalDateTime deadlineOf(LocalDateTime startedAt) {
+        return startedAt.plus(battleDuration);
+    }
+
+    /**
+     * Arm the deadline of a running battle.
+     * Deadlines already in the past (e.g. after restart) fire on the next tick.
+     *
+     * @param room      battle room
+     * @param startedAt battle start timestamp
+     * @return handle used to cancel the deadline when the battle ends early
+     */
+    Timeout schedule(BattleRoom room, LocalDateTime startedAt) {
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), deadlineOf(startedAt)).toMillis());
+
+        // Runs on the wheel thread - only enqueue, resolution happens on the room mailbox
+        return wheel.newTimeout(timeout -> ended(room, room.expire(), "TIMEOUT"), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Arm the join deadline of a match nobody has joined yet.
+     * Cancelled by the first join; if it fires first, the match is cancelled.
+     *
+     * @param room      battle room
+     * @param createdAt match creation timestamp
+     * @return handle used to cancel the deadline once the battle starts
+     */
+    Timeout scheduleJoin(BattleRoom room, LocalDateTime createdAt) {
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), createdAt.plus(joinTimeout)).toMillis());
+
+        return wheel.newTimeout(timeout -> ended(room, room.expireJoin(), "JOIN_TIMEOUT"), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void ended(BattleRoom room, CompletableFuture<Optional<MatchSnapshot>> result, String reason) {
+        result.whenComplete((ended, ex) -> {
+            if (ex != null) {
+                log.error("Failed to expire match {}", room.getMatchId(), ex);
+                return;
+            }
+
+            ended.ifPresent(match -> {
+                log.info("Match {} {}: {} (winner: {})", match.id(), reason, match.status(), match.winnerId());
+                notifier.broadcastMatchEnded(match, reason);
+            });
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+    }
+}
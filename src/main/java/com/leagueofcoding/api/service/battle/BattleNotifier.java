@@ -0,0 +1,100 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Battle WebSocket notifications.
+ * All events are sent to {@code /user/{id}/queue/battle}.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class BattleNotifier {
+
+    private static final String BATTLE_QUEUE = "/queue/battle";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Broadcast match started event.
+     *
+     * @param match    match snapshot
+     * @param duration battle duration
+     */
+    public void broadcastMatchStarted(MatchSnapshot match, Duration duration) {
+        Map<String, Object> event = Map.of(
+                "type", "MATCH_STARTED",
+                "matchId", match.id(),
+                "startedAt", match.startedAt(),
+                "duration", duration.toMinutes()
+        );
+
+        sendToPlayers(match, event);
+    }
+
+    /**
+     * Broadcast submission event.
+     *
+     * @param match  match snapshot
+     * @param userId user who submitted
+     */
+    public void broadcastSubmission(MatchSnapshot match, Long userId) {
+        Map<String, Object> event = Map.of(
+                "type", "OPPONENT_SUBMITTED",
+                "matchId", match.id(),
+                "userId", userId
+        );
+
+        // Notify opponent
+        Long opponentId = match.player1Id().equals(userId) ?
+                match.player2Id() : match.player1Id();
+
+        messagingTemplate.convertAndSendToUser(
+                opponentId.toString(),
+                BATTLE_QUEUE,
+                event
+        );
+    }
+
+    /**
+     * Broadcast match ended event.
+     * Winner is null for a draw or a cancelled match.
+     *
+     * @param match  ended match
+     * @param reason SOLVED, TIMEOUT or JOIN_TIMEOUT
+     */
+    public void broadcastMatchEnded(MatchSnapshot match, String reason) {
+        // HashMap - winnerId may be null
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", "MATCH_ENDED");
+        event.put("matchId", match.id());
+        event.put("status", match.status());
+        event.put("winnerId", match.winnerId());
+        event.put("reason", reason);
+        event.put("endedAt", match.endedAt());
+
+        sendToPlayers(match, event);
+    }
+
+    private void sendToPlayers(MatchSnapshot match, Map<String, Object> event) {
+        messagingTemplate.convertAndSendToUser(
+                match.player1Id().toString(),
+                BATTLE_QUEUE,
+                event
+        );
+
+        messagingTemplate.convertAndSendToUser(
+                match.player2Id().toString(),
+                BATTLE_QUEUE,
+                event
+        );
+    }
+}
@@ -0,0 +1,439 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.entity.Match;
+import com.leagueofcoding.api.entity.MatchSubmission;
+import com.leagueofcoding.api.enums.MatchStatus;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+import io.netty.util.Timeout;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory room for a single live match.
+ * <p>
+ * Every command is queued on the room's mailbox and executed one at a time,
+ * so joins, submissions and verdicts for the same match never race.
+ * After every change the room publishes an immutable {@link MatchSnapshot},
+ * which readers take without going through the mailbox.
+ * State changes are handed to {@link MatchStateWriter} from inside the
+ * mailbox and chained one after another, each retried until it is stored,
+ * so the persisted transitions keep the same order even across failed writes.
+ * While waiting, the room holds a join deadline on {@link BattleDeadlineScheduler},
+ * and while in progress, the battle deadline.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+public class BattleRoom {
+
+    private static final long RETRY_DELAY_MS = 500;
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    @Getter
+    private final Long matchId;
+    @Getter
+    private final Long player1Id;
+    @Getter
+    private final Long player2Id;
+    private final Long problemId;
+    @Getter
+    private final Long problemVersionId;
+    private final LocalDateTime createdAt;
+
+    private final Executor executor;
+    private final MatchStateWriter stateWriter;
+    private final BattleDeadlineScheduler deadlineScheduler;
+    private final Consumer<BattleRoom> closeHandler;
+
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // ===== Mutable state - only touched from the mailbox =====
+    private MatchStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+    private Long winnerId;
+    private Timeout deadline;
+    // Completes once every transition handed out so far is stored or rejected
+    private CompletableFuture<Void> persisted = CompletableFuture.completedFuture(null);
+    private final Map<Long, SubmissionResult> submissions = new HashMap<>(2);
+
+    // Latest published state - the only field read outside the mailbox
+    private volatile MatchSnapshot snapshot;
+
+    BattleRoom(
+            Match match,
+            Collection<MatchSubmission> submissions,
+            Executor executor,
+            MatchStateWriter stateWriter,
+            BattleDeadlineScheduler deadlineScheduler,
+            Consumer<BattleRoom> closeHandler
+    ) {
+        this.matchId = match.getId();
+        this.player1Id = match.getPlayer1Id();
+        this.player2Id = match.getPlayer2Id();
+        this.problemId = match.getProblemId();
+        this.problemVersionId = match.getProblemVersionId();
+        this.createdAt = match.getCreatedAt();
+        this.status = match.getStatus();
+        this.startedAt = match.getStartedAt();
+        this.endedAt = match.getEndedAt();
+        this.winnerId = match.getWinnerId();
+        submissions.forEach(submission -> this.submissions.put(
+                submission.getUserId(),
+                SubmissionResult.from(submission)
+        ));
+        this.executor = executor;
+        this.stateWriter = stateWriter;
+        this.deadlineScheduler = deadlineScheduler;
+        this.closeHandler = closeHandler;
+        publish();
+    }
+
+    /**
+     * Arm the deadline of the current state: the join deadline of a new or
+     * waiting match, or the deadline of a battle that is already running,
+     * e.g. when the room is rebuilt after a restart.
+     */
+    CompletableFuture<Void> resumeDeadline() {
+        return ask(() -> {
+            if (deadline != null) {
+                return null;
+            }
+
+            if (status == MatchStatus.WAITING && createdAt != null) {
+                deadline = deadlineScheduler.scheduleJoin(this, createdAt);
+            } else if (status == MatchStatus.IN_PROGRESS && startedAt != null) {
+                deadline = deadlineScheduler.schedule(this, startedAt);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Check if user is one of the two players.
+     * Players never change, so this is safe outside the mailbox.
+     */
+    public boolean isParticipant(Long userId) {
+        return player1Id.equals(userId) || player2Id.equals(userId);
+    }
+
+    /**
+     * Join room. Starts the match when it is still waiting.
+     *
+     * @param userId user ID
+     * @return join outcome with current match view
+     */
+    public CompletableFuture<JoinOutcome> join(Long userId) {
+        return ask(() -> {
+            requireParticipant(userId);
+
+            boolean started = false;
+            if (status == MatchStatus.WAITING) {
+                status = MatchStatus.IN_PROGRESS;
+                startedAt = LocalDateTime.now();
+                started = true;
+                if (deadline != null) {
+                    deadline.cancel();
+                }
+                deadline = deadlineScheduler.schedule(this, startedAt);
+                publish();
+                persistInOrder(snapshot);
+            }
+
+            return new JoinOutcome(snapshot, started);
+        });
+    }
+
+    /**
+     * Reserve the single submission slot of a player.
+     *
+     * @param userId user ID
+     * @return current match snapshot
+     */
+    public CompletableFuture<MatchSnapshot> acceptSubmission(Long userId) {
+        return ask(() -> {
+            if (status != MatchStatus.IN_PROGRESS) {
+                throw new RuntimeException("Match not in progress");
+            }
+
+            requireParticipant(userId);
+
+            if (submissions.putIfAbsent(userId, SubmissionResult.NONE) != null) {
+                throw new RuntimeException("Already submitted");
+            }
+
+            publish();
+            return snapshot;
+        });
+    }
+
+    /**
+     * Release a reserved submission slot (submission could not be stored).
+     *
+     * @param userId user ID
+     */
+    public CompletableFuture<Void> releaseSubmission(Long userId) {
+        return ask(() -> {
+            submissions.remove(userId);
+            publish();
+            return null;
+        });
+    }
+
+    /**
+     * Record a judged submission. First passed verdict wins the match.
+     *
+     * @param submission judged submission
+     * @return ended match snapshot, or empty if the match goes on or was already decided
+     */
+    public CompletableFuture<Optional<MatchSnapshot>> recordVerdict(MatchSubmission submission) {
+        return ask(() -> {
+            submissions.put(submission.getUserId(), SubmissionResult.from(submission));
+
+            if (status != MatchStatus.IN_PROGRESS || submission.getStatus() != SubmissionStatus.PASSED) {
+                return Optional.empty();
+            }
+
+            return Optional.of(end(MatchStatus.COMPLETED, submission.getUserId()));
+        });
+    }
+
+    /**
+     * Battle deadline reached. Decide the result from partial scores:
+     * more test cases passed wins, then faster execution; otherwise a draw.
+     * A battle where nobody submitted is cancelled.
+     *
+     * @return ended match snapshot, or empty if the match was already decided
+     */
+    CompletableFuture<Optional<MatchSnapshot>> expire() {
+        return ask(() -> {
+            if (status != MatchStatus.IN_PROGRESS) {
+                return Optional.empty();
+            }
+
+            if (submissions.isEmpty()) {
+                return Optional.of(end(MatchStatus.CANCELLED, null));
+            }
+
+            SubmissionResult result1 = submissions.getOrDefault(player1Id, SubmissionResult.NONE);
+            SubmissionResult result2 = submissions.getOrDefault(player2Id, SubmissionResult.NONE);
+
+            int comparison = result1.compareTo(result2);
+            Long winner = comparison > 0 ? player1Id : comparison < 0 ? player2Id : null;
+
+            return Optional.of(end(MatchStatus.COMPLETED, winner));
+        });
+    }
+
+    /**
+     * Join deadline reached with nobody joined. The match is cancelled.
+     *
+     * @return cancelled match snapshot, or empty if the match already started or ended
+     */
+    CompletableFuture<Optional<MatchSnapshot>> expireJoin() {
+        return ask(() -> {
+            if (status != MatchStatus.WAITING) {
+                return Optional.empty();
+            }
+
+            return Optional.of(end(MatchStatus.CANCELLED, null));
+        });
+    }
+
+    /**
+     * Latest state of the room. Lock-free, safe from any thread.
+     */
+    public MatchSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Enqueue command on the mailbox.
+     */
+    private <T> CompletableFuture<T> ask(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        mailbox.add(() -> {
+            try {
+                result.complete(command.get());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+
+        scheduleDrain();
+        return result;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Run queued commands until mailbox is empty.
+     * Re-schedules itself if a command slipped in after the last poll.
+     */
+    private void drain() {
+        Runnable command;
+        while ((command = mailbox.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException ex) {
+                log.error("Battle room {} command failed", matchId, ex);
+            }
+        }
+
+        draining.set(false);
+
+        if (!mailbox.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Move to a final state and persist it.
+     * Room is closed once the final state is in the database, or the database rejected it.
+     */
+    private MatchSnapshot end(MatchStatus finalStatus, Long winner) {
+        status = finalStatus;
+        winnerId = winner;
+        endedAt = LocalDateTime.now();
+
+        if (deadline != null) {
+            deadline.cancel();
+        }
+
+        publish();
+        MatchSnapshot ended = snapshot;
+        persistInOrder(ended).thenRun(() -> closeHandler.accept(this));
+
+        return ended;
+    }
+
+    /**
+     * Persist a transition once all earlier ones are stored, so a final state
+     * is never compared against a start that has not reached the database yet.
+     * Must be called from the mailbox.
+     *
+     * @return future completed once the transition is stored or rejected
+     */
+    private CompletableFuture<Void> persistInOrder(MatchSnapshot state) {
+        persisted = persisted.thenCompose(previous -> {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            persist(state, 0, done);
+            return done;
+        });
+        return persisted;
+    }
+
+    /**
+     * Write a transition, retrying failed writes with backoff.
+     * The room stays open meanwhile, so the match is never lost from both memory and database.
+     * A retry of a write that did commit is rejected by the state machine, which also completes it.
+     */
+    private void persist(MatchSnapshot state, int attempt, CompletableFuture<Void> done) {
+        stateWriter.write(state).whenComplete((stored, ex) -> {
+            if (ex == null) {
+                done.complete(null);
+                return;
+            }
+
+            long delayMs = Math.min(MAX_RETRY_DELAY_MS, RETRY_DELAY_MS << Math.min(attempt, 6));
+            log.warn("Match {} {} state not stored, retrying in {} ms", matchId, state.status(), delayMs);
+            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor)
+                    .execute(() -> persist(state, attempt + 1, done));
+        });
+    }
+
+    private void requireParticipant(Long userId) {
+        if (!isParticipant(userId)) {
+            throw new RuntimeException("User not in this match");
+        }
+    }
+
+    /**
+     * Replace the published snapshot. Called after every state change.
+     */
+    private void publish() {
+        snapshot = new MatchSnapshot(
+                matchId,
+                player1Id,
+                player2Id,
+                problemId,
+                status,
+                winnerId,
+                startedAt,
+                endedAt,
+                createdAt,
+                submissions.containsKey(player1Id),
+                submissions.containsKey(player2Id)
+        );
+    }
+
+    /**
+     * Result of {@link #join(Long)}.
+     *
+     * @param snapshot current match snapshot
+     * @param started  true if this join started the match
+     */
+    public record JoinOutcome(MatchSnapshot snapshot, boolean started) {
+    }
+
+    /**
+     * Partial score of a player's submission, used to resolve timeouts.
+     *
+     * @param testCasesPassed test cases passed (-1 if none / not judged)
+     * @param executionTimeMs execution time, lower is better
+     */
+    private record SubmissionResult(int testCasesPassed, int executionTimeMs) implements Comparable<SubmissionResult> {
+
+        static final SubmissionResult NONE = new SubmissionResult(-1, Integer.MAX_VALUE);
+
+        static SubmissionResult from(MatchSubmission submission) {
+            // Not judged yet
+            if (submission.getTestCasesPassed() == null) {
+                return NONE;
+            }
+
+            return new SubmissionResult(
+                    submission.getTestCasesPassed(),
+                    submission.getExecutionTimeMs() != null ? submission.getExecutionTimeMs() : Integer.MAX_VALUE
+            );
+        }
+
+        /**
+         * Greater is better: more passed tests, then faster execution.
+         */
+        @Override
+        public int compareTo(SubmissionResult other) {
+            if (testCasesPassed != other.testCasesPassed) {
+                return Integer.compare(testCasesPassed, other.testCasesPassed);
+            }
+
+            // Nobody passed anything - execution time does not decide
+            if (testCasesPassed <= 0) {
+                return 0;
+            }
+
+            return Integer.compare(other.executionTimeMs, executionTimeMs);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.entity.Match;
+import com.leagueofcoding.api.entity.MatchSubmission;
+import com.leagueofcoding.api.enums.MatchStatus;
+import com.leagueofcoding.api.repository.MatchRepository;
+import com.leagueofcoding.api.repository.MatchSubmissionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of in-memory battle rooms for live (WAITING / IN_PROGRESS) matches.
+ * <p>
+ * Rooms are opened when matchmaking creates a match, rebuilt from the
+ * database on startup (with their battle deadlines re-armed), and closed
+ * once their final state is persisted.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BattleRoomRegistry {
+
+    private static final List<MatchStatus> LIVE_STATUSES = List.of(MatchStatus.WAITING, MatchStatus.IN_PROGRESS);
+
+    private final MatchRepository matchRepository;
+    private final MatchSubmissionRepository submissionRepository;
+    private final MatchStateWriter stateWriter;
+    private final BattleDeadlineScheduler deadlineScheduler;
+
+    private final Map<Long, BattleRoom> rooms = new ConcurrentHashMap<>();
+
+    // Mailboxes are short-lived drains, virtual threads keep thousands of rooms cheap
+    private final ExecutorService mailboxExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Open room for a newly created match.
+     *
+     * @param match persisted match
+     * @return opened room
+     */
+    public BattleRoom open(Match match) {
+        return rooms.computeIfAbsent(match.getId(), id -> createRoom(match, List.of()));
+    }
+
+    /**
+     * Find room already open on this instance. Never touches the database.
+     *
+     * @param matchId match ID
+     * @return open room, if any
+     */
+    public Optional<BattleRoom> peek(Long matchId) {
+        return Optional.ofNullable(rooms.get(matchId));
+    }
+
+    /**
+     * Find room of a live match.
+     * Falls back to the database for matches this instance has not seen yet.
+     *
+     * @param matchId match ID
+     * @return room, or empty if match does not exist or is no longer live
+     */
+    public Optional<BattleRoom> find(Long matchId) {
+        BattleRoom room = rooms.get(matchId);
+        if (room != null) {
+            return Optional.of(room);
+        }
+
+        return matchRepository.findById(matchId)
+                .filter(match -> LIVE_STATUSES.contains(match.getStatus()))
+                .map(match -> {
+                    List<MatchSubmission> submissions = submissionRepository.findByMatchIdIn(List.of(matchId));
+                    return rooms.computeIfAbsent(matchId, id -> createRoom(match, submissions));
+                });
+    }
+
+    /**
+     * Rebuild rooms for all live matches after restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildRooms() {
+        List<Match> liveMatches = matchRepository.findByStatusIn(LIVE_STATUSES);
+        if (liveMatches.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<MatchSubmission>> submissionsByMatch = submissionRepository
+                .findByMatchIdIn(liveMatches.stream().map(Match::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(MatchSubmission::getMatchId));
+
+        liveMatches.forEach(match -> rooms.computeIfAbsent(match.getId(), id -> createRoom(
+                match,
+                submissionsByMatch.getOrDefault(id, List.of())
+        )));
+
+        log.info("Rebuilt {} battle rooms from database", liveMatches.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mailboxExecutor.shutdown();
+    }
+
+    private BattleRoom createRoom(Match match, List<MatchSubmission> submissions) {
+        BattleRoom room = new BattleRoom(
+                match,
+                submissions,
+                mailboxExecutor,
+                stateWriter,
+                deadlineScheduler,
+                this::close
+        );
+
+        room.resumeDeadline();
+        return room;
+    }
+
+    private void close(BattleRoom room) {
+        if (rooms.remove(room.getMatchId(), room)) {
+            log.debug("Battle room {} closed", room.getMatchId());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+
+/**
+ * Published once a COMPLETED transition is stored in the database.
+ * Winner is null for a draw.
+ *
+ * @param match completed match
+ * @author dao-nguyenminh
+ */
+public record MatchCompletedEvent(MatchSnapshot match) {
+}
@@ -0,0 +1,61 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.battle.MatchResponse;
+import com.leagueofcoding.api.dto.common.CursorPageResponse;
+import com.leagueofcoding.api.entity.Match;
+import com.leagueofcoding.api.repository.MatchRepository;
+import com.leagueofcoding.api.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Match history of a player, newest first, in keyset pages.
+ *
+ * @author dao-nguyenminh
+ */
+@Service
+@RequiredArgsConstructor
+public class MatchHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final MatchRepository matchRepository;
+
+    // An estimate for scrolling clients, refreshed at most once a minute per player
+    private final Cache<Long, Long> matchCounts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    /**
+     * One page of a player's matches.
+     *
+     * @param userId       player ID
+     * @param cursor       cursor from the previous page, null for the first page
+     * @param size         page size
+     * @param includeTotal also return the cached total match count
+     * @return page of matches
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<MatchResponse> getHistory(Long userId, String cursor, int size, boolean includeTotal) {
+        KeysetCursor before = KeysetCursor.decode(cursor, KeysetCursor.AFTER_ALL);
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        // One extra row tells whether a next page exists
+        List<Match> matches = matchRepository.findHistoryBefore(userId, before.createdAt(), before.id(), pageSize + 1);
+
+        return CursorPageResponse.from(
+                matches,
+                pageSize,
+                m -> new KeysetCursor(m.getCreatedAt(), m.getId()),
+                MatchResponse::from,
+                includeTotal ? matchCounts.get(userId, id -> matchRepository.countByPlayer1IdOrPlayer2Id(id, id)) : null
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Per-match snapshot lookup for battle reads.
+ * <p>
+ * Live matches are answered from the room's published snapshot, which is replaced
+ * on every submission and state change. Finished matches never change, so their
+ * snapshot is loaded once by a single projection query and kept for a short while.
+ * Clients polling the countdown therefore never hit the database.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchSnapshotCache {
+
+    private final BattleRoomRegistry roomRegistry;
+    private final MatchRepository matchRepository;
+
+    private final Cache<Long, MatchSnapshot> finishedMatches = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .maximumSize(10000)
+            .build();
+
+    /**
+     * Get current snapshot of a match.
+     *
+     * @param matchId match ID
+     * @return snapshot, or empty if match does not exist
+     */
+    public Optional<MatchSnapshot> get(Long matchId) {
+        Optional<BattleRoom> room = roomRegistry.peek(matchId);
+        if (room.isPresent()) {
+            return Optional.of(room.get().snapshot());
+        }
+
+        MatchSnapshot cached = finishedMatches.getIfPresent(matchId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<MatchSnapshot> loaded = matchRepository.findSnapshotById(matchId);
+
+        if (loaded.isPresent() && loaded.get().isLive()) {
+            // Live match not open on this instance yet - hydrate its room
+            return roomRegistry.find(matchId).map(BattleRoom::snapshot);
+        }
+
+        loaded.ifPresent(snapshot -> finishedMatches.put(matchId, snapshot));
+        return loaded;
+    }
+}
@@ -0,0 +1,57 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.enums.MatchStatus;
+import com.leagueofcoding.api.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Match state machine enforced by the database.
+ * <p>
+ * Allowed transitions: WAITING -> IN_PROGRESS / CANCELLED, IN_PROGRESS -> COMPLETED / CANCELLED.
+ * Each transition is one conditional {@code UPDATE ... WHERE status = ? RETURNING version},
+ * so a transition that lost a race simply matches zero rows instead of throwing.
+ * A winning COMPLETED transition publishes {@link MatchCompletedEvent}.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchStateMachine {
+
+    private final MatchRepository matchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Apply the transition leading to the given state.
+     *
+     * @param target match snapshot in its new state
+     * @return true if this transition won, false if the match was already past the expected state
+     */
+    public boolean apply(MatchSnapshot target) {
+        Optional<Long> version = switch (target.status()) {
+            case IN_PROGRESS -> matchRepository.startMatch(target.id(), target.startedAt());
+            case COMPLETED -> matchRepository.completeMatch(target.id(), target.winnerId(), target.endedAt());
+            case CANCELLED -> matchRepository.cancelMatch(target.id(), target.endedAt());
+            case WAITING -> throw new IllegalArgumentException("WAITING is an initial state, not a transition");
+        };
+
+        if (version.isEmpty()) {
+            log.warn("Match {} transition to {} rejected - state already changed", target.id(), target.status());
+            return false;
+        }
+
+        log.debug("Match {} moved to {} (version {})", target.id(), target.status(), version.get());
+
+        if (target.status() == MatchStatus.COMPLETED) {
+            eventPublisher.publishEvent(new MatchCompletedEvent(target));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for battle room state.
+ * <p>
+ * Transitions are written on a single background thread in the order the
+ * rooms produced them, so request threads never wait for the database.
+ * Each write is a single compare-and-set transition through {@link MatchStateMachine}.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchStateWriter {
+
+    private final MatchStateMachine stateMachine;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("match-state-writer").daemon().factory()
+    );
+
+    /**
+     * Queue match state for persistence.
+     *
+     * @param snapshot match state produced by a room
+     * @return future completed with true once the transition is stored,
+     * false if the database rejected it, or completed exceptionally if the write failed
+     */
+    public CompletableFuture<Boolean> write(MatchSnapshot snapshot) {
+        return CompletableFuture.supplyAsync(() -> stateMachine.apply(snapshot), writer)
+                .whenComplete((stored, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to persist match {} ({})", snapshot.id(), snapshot.status(), ex);
+                    }
+                });
+    }
+
+    /**
+     * Flush pending writes on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Match state writer did not drain in time");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+
+/**
+ * Published when a battle submission gets its verdict.
+ * Listeners should only act after the submission transaction commits.
+ *
+ * @param submissionId    submission ID
+ * @param matchId         match ID
+ * @param userId          submitting user ID
+ * @param problemId       problem of the match
+ * @param language        submission language
+ * @param status          verdict
+ * @param executionTimeMs execution time, null if not run
+ * @param firstSolve      true if this is the user's first PASSED verdict on the problem
+ * @author dao-nguyenminh
+ */
+public record SubmissionJudgedEvent(
+        Long submissionId,
+        Long matchId,
+        Long userId,
+        Long problemId,
+        ProgrammingLanguage language,
+        SubmissionStatus status,
+        Integer executionTimeMs,
+        boolean firstSolve
+) {
+}
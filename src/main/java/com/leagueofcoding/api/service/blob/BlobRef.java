@@ -0,0 +1,11 @@
+package com.leagueofcoding.api.service.blob;
+
+/**
+ * Stored blob: content hash and size.
+ *
+ * @param hash SHA-256 of the content, lowercase hex
+ * @param size content size in bytes
+ * @author dao-nguyenminh
+ */
+public record BlobRef(String hash, long size) {
+}
@@ -0,0 +1,224 @@
+package com.leagueofcoding.api.service.blob;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed blob store on local disk.
+ * <p>
+ * A blob lives at {@code <root>/ab/cd/abcd...} named by the SHA-256 of its
+ * content, so identical data is stored once and an existing blob is never
+ * rewritten. New content is written to a temporary file and atomically
+ * renamed into place, so readers never see a partial blob. Storing content
+ * that already exists refreshes the blob's modification time, which keeps it
+ * out of {@link #deleteUnreferenced} until the new reference has committed.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+
+    public BlobStore(@Value("${blob-store.root:./data/blobs}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath();
+        this.incoming = this.root.resolve("incoming");
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * Store content from a stream, hashing it while it is written.
+     *
+     * @param content stream, read to the end but not closed
+     * @return hash and size
+     */
+    public BlobRef put(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "blob-", ".tmp");
+            MessageDigest digest = sha256();
+            long size = Files.copy(new DigestInputStream(content, digest), temp, StandardCopyOption.REPLACE_EXISTING);
+
+            BlobRef blob = new BlobRef(HexFormat.of().formatHex(digest.digest()), size);
+            moveIntoPlace(temp, blob.hash());
+            return blob;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot store blob", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Store text as UTF-8. Nothing is written if the blob already exists.
+     *
+     * @param content text
+     * @return hash and size
+     */
+    public BlobRef put(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        BlobRef blob = new BlobRef(HexFormat.of().formatHex(sha256().digest(bytes)), bytes.length);
+        if (touch(pathOf(blob.hash()))) {
+            return blob;
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "blob-", ".tmp");
+            Files.write(temp, bytes);
+            moveIntoPlace(temp, blob.hash());
+            return blob;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot store blob", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Read a blob as UTF-8 text. Meant for small blobs such as sample test cases.
+     *
+     * @param hash blob hash
+     * @return content
+     */
+    public String readString(String hash) {
+        try {
+            return Files.readString(pathOf(hash), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read blob " + hash, ex);
+        }
+    }
+
+    /**
+     * Copy a blob to a channel with {@link FileChannel#transferTo}, which the
+     * kernel does without user-space copies when the target is a socket or file.
+     *
+     * @param hash   blob hash
+     * @param target destination
+     */
+    public void transferTo(String hash, WritableByteChannel target) throws IOException {
+        try (FileChannel file = FileChannel.open(pathOf(hash), StandardOpenOption.READ)) {
+            long size = file.size();
+            long position = 0;
+            while (position < size) {
+                position += file.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    /**
+     * File of a blob, for streaming it out.
+     *
+     * @param hash blob hash
+     * @return absolute path
+     */
+    public Path pathOf(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Delete blobs that nothing references any more, and temporary files left
+     * behind by failed writes.
+     *
+     * @param referenced hashes still in use
+     * @param minAge     files modified more recently are kept, whatever their hash
+     * @return number of files deleted
+     */
+    public int deleteUnreferenced(Set<String> referenced, Duration minAge) {
+        FileTime cutoff = FileTime.from(Instant.now().minus(minAge));
+        int deleted = 0;
+
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                boolean orphan = file.startsWith(incoming)
+                        || HASH.matcher(name).matches() && !referenced.contains(name);
+                if (!orphan || !Files.isRegularFile(file) || Files.getLastModifiedTime(file).compareTo(cutoff) >= 0) {
+                    continue;
+                }
+
+                if (Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot sweep blob store", ex);
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Refresh the modification time of a blob if it exists.
+     *
+     * @return true if the blob exists
+     */
+    private static boolean touch(Path blob) {
+        try {
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot touch blob " + blob.getFileName(), ex);
+        }
+    }
+
+    private void moveIntoPlace(Path temp, String hash) throws IOException {
+        Path target = pathOf(hash);
+        if (touch(target)) {
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        // Same content under the same name - a concurrent writer winning the rename is harmless
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // Left behind in incoming/ - nothing reads it
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
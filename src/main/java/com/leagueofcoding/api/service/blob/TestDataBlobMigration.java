@@ -0,0 +1,95 @@
+package com.leagueofcoding.api.service.blob;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Flyway V15: copy test case data from the TEXT columns into the blob store,
+ * then drop the columns.
+ * <p>
+ * Rows are streamed with a cursor and updated in JDBC batches. Blob writes are
+ * idempotent, so a failed run (rolled back by Flyway) can simply run again.
+ * Registered with Flyway as a Spring bean, so it can use the {@link BlobStore}.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class TestDataBlobMigration extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final BlobStore blobStore;
+
+    public TestDataBlobMigration(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    protected void init() {
+        // Version and description are declared below, not parsed from the class name
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("15");
+    }
+
+    @Override
+    public String getDescription() {
+        return "move test case data to blob store";
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        int moved = 0;
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE test_cases SET input_hash = ?, input_size = ?, output_hash = ?, output_size = ? " +
+                             "WHERE id = ?")) {
+            // Cursor-based fetch - Flyway runs the migration outside auto-commit
+            select.setFetchSize(BATCH_SIZE);
+
+            try (ResultSet rs = select.executeQuery("SELECT id, input, expected_output FROM test_cases")) {
+                while (rs.next()) {
+                    BlobRef input = blobStore.put(rs.getString(2));
+                    BlobRef output = blobStore.put(rs.getString(3));
+
+                    update.setString(1, input.hash());
+                    update.setLong(2, input.size());
+                    update.setString(3, output.hash());
+                    update.setLong(4, output.size());
+                    update.setLong(5, rs.getLong(1));
+                    update.addBatch();
+
+                    if (++moved % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement alter = connection.createStatement()) {
+            alter.execute("ALTER TABLE test_cases " +
+                    "ALTER COLUMN input_hash SET NOT NULL, " +
+                    "ALTER COLUMN input_size SET NOT NULL, " +
+                    "ALTER COLUMN output_hash SET NOT NULL, " +
+                    "ALTER COLUMN output_size SET NOT NULL, " +
+                    "DROP COLUMN input, " +
+                    "DROP COLUMN expected_output");
+        }
+
+        log.info("Moved data of {} test cases to the blob store", moved);
+    }
+}
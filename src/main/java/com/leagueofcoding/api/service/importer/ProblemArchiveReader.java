@@ -0,0 +1,223 @@
+package com.leagueofcoding.api.service.importer;
+
+import com.leagueofcoding.api.dto.problem.TestCaseRequest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streaming reader of a problem archive.
+ * <p>
+ * Layout - one top-level directory per problem, its entries contiguous:
+ * <pre>
+ * two-sum/problem.json      CreateProblemRequest JSON (inline testCases optional)
+ * two-sum/samples/1.in      sample test case input
+ * two-sum/samples/1.out     sample test case expected output
+ * two-sum/tests/1.in        hidden test case input
+ * two-sum/tests/1.out       hidden test case expected output
+ * </pre>
+ * The zip is read entry by entry from the request stream; only the problem
+ * being read is held in memory, and it is handed over as soon as the next
+ * directory starts. Other files are ignored. A directory is rejected once one
+ * file exceeds the file cap or all its files together exceed the directory cap,
+ * so a single problem can never hold more than one chunk of test data in memory.
+ *
+ * @author dao-nguyenminh
+ */
+class ProblemArchiveReader {
+
+    private static final String MANIFEST = "problem.json";
+    private static final String SAMPLES = "samples/";
+    private static final String TESTS = "tests/";
+
+    // Test files named 1, 2, ..., 10 sort numerically
+    private static final Comparator<String> TEST_NAME_ORDER = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final CountingInputStream input;
+    private final int maxFileBytes;
+    private final long maxDirectoryBytes;
+
+    ProblemArchiveReader(InputStream archive, int maxFileBytes, long maxDirectoryBytes) {
+        this.input = new CountingInputStream(archive);
+        this.maxFileBytes = maxFileBytes;
+        this.maxDirectoryBytes = maxDirectoryBytes;
+    }
+
+    /**
+     * Bytes of the compressed archive consumed so far.
+     */
+    long bytesRead() {
+        return input.count;
+    }
+
+    /**
+     * Read the whole archive, handing over each problem once all its entries are read.
+     *
+     * @param consumer receives problems in archive order
+     * @throws IOException if the stream is not a readable zip
+     */
+    void read(Consumer<ArchivedProblem> consumer) throws IOException {
+        ZipInputStream zip = new ZipInputStream(input, StandardCharsets.UTF_8);
+        Builder current = null;
+
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            int slash = entry.getName().indexOf('/');
+            if (entry.isDirectory() || slash <= 0) {
+                continue;
+            }
+
+            String directory = entry.getName().substring(0, slash);
+            if (current == null || !current.directory.equals(directory)) {
+                if (current != null) {
+                    consumer.accept(current.build());
+                }
+                current = new Builder(directory);
+            }
+
+            current.add(entry.getName().substring(slash + 1), zip);
+        }
+
+        if (current != null) {
+            consumer.accept(current.build());
+        }
+    }
+
+    /**
+     * One problem directory of the archive.
+     *
+     * @param directory top-level directory name
+     * @param manifest  problem.json bytes, null if missing
+     * @param testCases test cases from files, samples first
+     * @param error     why the directory cannot be imported, null if readable
+     */
+    record ArchivedProblem(String directory, byte[] manifest, List<TestCaseRequest> testCases, String error) {
+    }
+
+    private final class Builder {
+
+        final String directory;
+        byte[] manifest;
+        String error;
+        long bytes;
+
+        // name -> {input, expected output}, per kind
+        final Map<String, String[]> samples = new TreeMap<>(TEST_NAME_ORDER);
+        final Map<String, String[]> tests = new TreeMap<>(TEST_NAME_ORDER);
+
+        Builder(String directory) {
+            this.directory = directory;
+        }
+
+        void add(String path, InputStream entry) throws IOException {
+            if (error != null) {
+                return;
+            }
+
+            boolean isManifest = path.equals(MANIFEST);
+            Map<String, String[]> kind = path.startsWith(SAMPLES) ? samples : path.startsWith(TESTS) ? tests : null;
+            int side = path.endsWith(".in") ? 0 : path.endsWith(".out") ? 1 : -1;
+            if (!isManifest && (kind == null || side < 0)) {
+                return;
+            }
+
+            // Never read past either cap
+            int limit = (int) Math.min(maxFileBytes, maxDirectoryBytes - bytes);
+            byte[] data = entry.readNBytes(limit + 1);
+            if (data.length > maxFileBytes) {
+                reject(path + " exceeds " + maxFileBytes + " bytes");
+                return;
+            }
+            bytes += data.length;
+            if (bytes > maxDirectoryBytes) {
+                reject("files exceed " + maxDirectoryBytes + " bytes in total");
+                return;
+            }
+
+            if (isManifest) {
+                manifest = data;
+                return;
+            }
+
+            String name = path.substring(path.indexOf('/') + 1, path.lastIndexOf('.'));
+            kind.computeIfAbsent(name, n -> new String[2])[side] = new String(data, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Mark the directory unreadable and drop what was read of it.
+         */
+        private void reject(String reason) {
+            error = reason;
+            manifest = null;
+            samples.clear();
+            tests.clear();
+        }
+
+        ArchivedProblem build() {
+            if (error == null && manifest == null) {
+                error = "missing " + MANIFEST + " (or its entries are not contiguous in the archive)";
+            }
+
+            List<TestCaseRequest> testCases = new ArrayList<>(samples.size() + tests.size());
+            addAll(testCases, samples, true);
+            addAll(testCases, tests, false);
+
+            return new ArchivedProblem(directory, manifest, testCases, error);
+        }
+
+        private void addAll(List<TestCaseRequest> testCases, Map<String, String[]> files, boolean sample) {
+            files.forEach((name, pair) -> {
+                if (pair[0] == null || pair[1] == null) {
+                    error = error != null ? error : "test " + name + " needs both .in and .out";
+                    return;
+                }
+                testCases.add(new TestCaseRequest(pair[0], pair[1], sample, testCases.size()));
+            });
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.leagueofcoding.api.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueofcoding.api.dto.problem.CreateProblemRequest;
+import com.leagueofcoding.api.dto.problem.ProblemImportResponse;
+import com.leagueofcoding.api.dto.problem.TestCaseRequest;
+import com.leagueofcoding.api.dto.websocket.NotificationMessage;
+import com.leagueofcoding.api.entity.Category;
+import com.leagueofcoding.api.repository.CategoryRepository;
+import com.leagueofcoding.api.service.ProblemChangedEvent;
+import com.leagueofcoding.api.service.TestCaseBatchWriter;
+import com.leagueofcoding.api.service.render.ProblemStatementRenderer;
+import com.leagueofcoding.api.service.version.ProblemVersionService;
+import com.leagueofcoding.api.util.SlugUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk problem import from a streamed zip archive.
+ * <p>
+ * Problems are parsed one directory at a time (see {@link ProblemArchiveReader})
+ * and written in chunks of at most {@code chunk-size} problems or
+ * {@code chunk-max-mb} of test data, each chunk in its own transaction with
+ * JDBC batch inserts. A problem whose slug already exists is skipped, so
+ * uploading the same archive again after a failure resumes where the last
+ * committed chunk ended. Progress is pushed to the admin after every chunk
+ * on {@value #IMPORT_QUEUE}.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+public class ProblemImportService {
+
+    public static final String IMPORT_QUEUE = "/queue/imports";
+
+    private static final int MAX_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TestCaseBatchWriter testCaseBatchWriter;
+    private final ProblemVersionService problemVersionService;
+    private final ProblemStatementRenderer statementRenderer;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final long chunkMaxBytes;
+    private final int maxFileBytes;
+
+    public ProblemImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TestCaseBatchWriter testCaseBatchWriter,
+            ProblemVersionService problemVersionService,
+            ProblemStatementRenderer statementRenderer,
+            CategoryRepository categoryRepository,
+            ObjectMapper objectMapper,
+            Validator validator,
+            SimpMessagingTemplate messagingTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${problem-import.chunk-size:50}") int chunkSize,
+            @Value("${problem-import.chunk-max-mb:32}") int chunkMaxMb,
+            @Value("${problem-import.max-file-mb:64}") int maxFileMb
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.testCaseBatchWriter = testCaseBatchWriter;
+        this.problemVersionService = problemVersionService;
+        this.statementRenderer = statementRenderer;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.chunkMaxBytes = chunkMaxMb * 1024L * 1024L;
+        this.maxFileBytes = maxFileMb * 1024 * 1024;
+    }
+
+    /**
+     * Import every problem of an archive. Blocks until the stream is consumed.
+     *
+     * @param archive    zip stream
+     * @param totalBytes archive size, -1 if unknown
+     * @param adminId    admin recorded as creator, who also receives the progress
+     * @return final counts
+     * @throws IOException if the stream is not a readable zip
+     */
+    public ProblemImportResponse importArchive(InputStream archive, long totalBytes, Long adminId) throws IOException {
+        Import run = new Import(new ProblemArchiveReader(archive, maxFileBytes, chunkMaxBytes), totalBytes, adminId);
+        log.info("Problem import started by admin {}", adminId);
+
+        run.reader.read(archived -> {
+            run.processed++;
+            Prepared problem = prepare(archived, run);
+            if (problem == null) {
+                return;
+            }
+
+            run.chunk.add(problem);
+            run.chunkBytes += problem.bytes();
+            if (run.chunk.size() >= chunkSize || run.chunkBytes >= chunkMaxBytes) {
+                writeChunk(run);
+            }
+        });
+        writeChunk(run);
+
+        ProblemImportResponse result = run.snapshot();
+        notify(run, "Import finished", result);
+        log.info("Problem import finished: {} imported, {} skipped, {} failed, {} test cases in {} ms",
+                result.imported(), result.skipped(), result.failed(), result.testCases(), result.elapsedMs());
+        return result;
+    }
+
+    /**
+     * Parse and validate one directory.
+     *
+     * @return problem ready to insert, or null if rejected or a duplicate in this archive
+     */
+    private Prepared prepare(ProblemArchiveReader.ArchivedProblem archived, Import run) {
+        String directory = archived.directory();
+        if (archived.error() != null) {
+            run.fail(directory, archived.error());
+            return null;
+        }
+
+        CreateProblemRequest request;
+        try {
+            request = objectMapper.readValue(archived.manifest(), CreateProblemRequest.class);
+        } catch (IOException ex) {
+            run.fail(directory, "unreadable problem.json: " + ex.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateProblemRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            run.fail(directory, violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+
+        if (!run.categoryIds.contains(request.categoryId())) {
+            run.fail(directory, "category " + request.categoryId() + " does not exist");
+            return null;
+        }
+
+        String slug = SlugUtils.generateSlug(directory);
+        if (slug.isEmpty() || !run.slugs.add(slug)) {
+            run.fail(directory, "duplicate or empty slug '" + slug + "'");
+            return null;
+        }
+
+        List<TestCaseRequest> testCases = new ArrayList<>(archived.testCases());
+        if (request.testCases() != null) {
+            for (TestCaseRequest inline : request.testCases()) {
+                if (inline == null || !validator.validate(inline).isEmpty()) {
+                    run.fail(directory, "inline test case " + testCases.size() + " is incomplete");
+                    return null;
+                }
+                testCases.add(new TestCaseRequest(
+                        inline.input(), inline.expectedOutput(), inline.isSample(), testCases.size()
+                ));
+            }
+        }
+
+        long bytes = request.description().length();
+        for (TestCaseRequest testCase : testCases) {
+            bytes += testCase.input().length() + testCase.expectedOutput().length();
+        }
+
+        // Rendered here, outside the chunk transaction
+        ProblemStatementRenderer.Rendered statement = statementRenderer.render(request.description());
+
+        return new Prepared(slug, request, statement, testCases, bytes);
+    }
+
+    private void writeChunk(Import run) {
+        if (run.chunk.isEmpty()) {
+            return;
+        }
+
+        List<Prepared> chunk = List.copyOf(run.chunk);
+        run.chunk.clear();
+        run.chunkBytes = 0;
+
+        try {
+            Written written = transactionTemplate.execute(status -> insert(chunk, run.adminId));
+            run.imported += written.problemIds().size();
+            run.skipped += chunk.size() - written.problemIds().size();
+            run.testCases += written.testCases();
+            written.problemIds().forEach(id -> eventPublisher.publishEvent(new ProblemChangedEvent(id)));
+        } catch (DataAccessException ex) {
+            log.error("Problem import chunk starting at {} failed", chunk.getFirst().slug(), ex);
+            chunk.forEach(p -> run.fail(p.slug(), "chunk failed: " + ex.getMostSpecificCause().getMessage()));
+        }
+
+        notify(run, "Imported " + run.imported + " problems", run.snapshot());
+    }
+
+    /**
+     * Insert the chunk's new problems and their test cases in the current transaction.
+     *
+     * @return what was inserted - nothing for problems that already exist
+     */
+    private Written insert(List<Prepared> chunk, Long adminId) {
+        String[] slugs = chunk.stream().map(Prepared::slug).toArray(String[]::new);
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT slug FROM problems WHERE slug = ANY(?)", String.class, (Object) slugs
+        ));
+
+        List<Prepared> fresh = chunk.stream().filter(p -> !existing.contains(p.slug())).toList();
+        if (fresh.isEmpty()) {
+            return new Written(List.of(), 0);
+        }
+
+        // IDs up front, so test cases can reference them in the same batch round
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval('problems_id_seq') FROM generate_series(1, ?)", Long.class, fresh.size()
+        );
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(fresh.size());
+        Map<Long, List<TestCaseRequest>> testCases = new LinkedHashMap<>();
+        List<Object[]> tags = new ArrayList<>();
+
+        for (int i = 0; i < fresh.size(); i++) {
+            Prepared problem = fresh.get(i);
+            CreateProblemRequest request = problem.request();
+            ProblemStatementRenderer.Rendered statement = problem.statement();
+            rows.add(new Object[]{
+                    ids.get(i), request.title(), problem.slug(), request.description(),
+                    statement.html(), statement.hash(), request.difficulty().name(),
+                    request.timeLimitMs() != null ? request.timeLimitMs() : 2000,
+                    request.memoryLimitMb() != null ? request.memoryLimitMb() : 256,
+                    request.categoryId(), adminId, now, now
+            });
+            testCases.put(ids.get(i), problem.testCases());
+            for (String tag : SlugUtils.generateTagSlugs(request.tags())) {
+                tags.add(new Object[]{ids.get(i), tag});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO problems (id, title, slug, description, description_html, description_hash, difficulty, " +
+                        "time_limit_ms, memory_limit_mb, category_id, created_by, is_active, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?)",
+                rows
+        );
+        jdbcTemplate.batchUpdate("INSERT INTO problem_tags (problem_id, tag) VALUES (?, ?)", tags);
+        int testCaseCount = testCaseBatchWriter.insert(testCases);
+        problemVersionService.publish(ids);
+
+        return new Written(ids, testCaseCount);
+    }
+
+    private void notify(Import run, String message, ProblemImportResponse progress) {
+        messagingTemplate.convertAndSendToUser(
+                run.adminId.toString(), IMPORT_QUEUE, NotificationMessage.importProgress(message, progress)
+        );
+    }
+
+    private record Written(List<Long> problemIds, int testCases) {
+    }
+
+    private record Prepared(
+            String slug,
+            CreateProblemRequest request,
+            ProblemStatementRenderer.Rendered statement,
+            List<TestCaseRequest> testCases,
+            long bytes
+    ) {
+    }
+
+    /**
+     * State of one import run, touched only by the uploading request thread.
+     */
+    private final class Import {
+
+        final ProblemArchiveReader reader;
+        final long totalBytes;
+        final Long adminId;
+        final long startNanos = System.nanoTime();
+        final Set<Long> categoryIds;
+        final Set<String> slugs = new HashSet<>();
+        final List<Prepared> chunk = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        long chunkBytes;
+        int processed;
+        int imported;
+        int skipped;
+        int failed;
+        long testCases;
+
+        Import(ProblemArchiveReader reader, long totalBytes, Long adminId) {
+            this.reader = reader;
+            this.totalBytes = totalBytes;
+            this.adminId = adminId;
+            this.categoryIds = categoryRepository.findAll().stream().map(Category::getId).collect(Collectors.toSet());
+        }
+
+        void fail(String directory, String error) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(directory + ": " + error);
+            }
+        }
+
+        ProblemImportResponse snapshot() {
+            return new ProblemImportResponse(
+                    processed, imported, skipped, failed, testCases, reader.bytesRead(), totalBytes,
+                    (System.nanoTime() - startNanos) / 1_000_000, List.copyOf(errors)
+            );
+        }
+    }
+}
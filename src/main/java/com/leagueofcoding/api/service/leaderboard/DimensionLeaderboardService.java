@@ -0,0 +1,296 @@
+package com.leagueofcoding.api.service.leaderboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.dto.battle.SubmissionLanguage;
+import com.leagueofcoding.api.dto.leaderboard.LeaderboardPageResponse;
+import com.leagueofcoding.api.dto.problem.ProblemCategoryRef;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.repository.MatchRepository;
+import com.leagueofcoding.api.repository.MatchSubmissionRepository;
+import com.leagueofcoding.api.repository.ProblemRepository;
+import com.leagueofcoding.api.service.battle.MatchCompletedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-category, per-language and per-(category, language) leaderboards.
+ * <p>
+ * Scores are incremental counters: every completed match adds 2 points to the
+ * winner (1 to both players on a draw) in the category, language and
+ * category + language sorted sets the player earned them in. Counters are applied in periodic
+ * flushes, one Lua script call each, and each touched set is truncated to its top K members,
+ * so memory stays bounded and reads never touch match history.
+ * <p>
+ * The script sets a short-lived marker per match and skips matches already
+ * marked, so a flush retried after a lost reply never adds points twice.
+ * Once the points are in, {@code matches.leaderboard_applied} is set; matches
+ * a crash left unmarked are queued again at startup.
+ * Below the top K scores are approximate: a truncated player restarts from zero.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+public class DimensionLeaderboardService {
+
+    private static final String CATEGORY_KEY = "leaderboard:category:%d";
+    private static final String LANGUAGE_KEY = "leaderboard:language:%s";
+    private static final String CATEGORY_LANGUAGE_KEY = "leaderboard:category:%d:language:%s";
+    private static final double WIN_POINTS = 2;
+    private static final double DRAW_POINTS = 1;
+    private static final String APPLIED_KEY = "leaderboard:applied:%d";
+    // Outlives any flush retry and any restart that re-queues unmarked matches
+    private static final Duration APPLIED_TTL = Duration.ofDays(7);
+
+    /**
+     * KEYS: one applied marker per match, then the leaderboard keys.
+     * ARGV: marker TTL, top K, match count, then per match the number of increments
+     * followed by (leaderboard key index, member, points) for each.
+     */
+    private static final RedisScript<Long> APPLY_SCRIPT = new DefaultRedisScript<>("""
+            local keep = -(tonumber(ARGV[2]) + 1)
+            local touched = {}
+            local applied = 0
+            local a = 4
+            for m = 1, tonumber(ARGV[3]) do
+                local n = tonumber(ARGV[a])
+                local fresh = redis.call('SET', KEYS[m], '1', 'NX', 'EX', ARGV[1])
+                if fresh then
+                    applied = applied + 1
+                    for i = 0, n - 1 do
+                        local key = KEYS[tonumber(ARGV[a + 1 + i * 3])]
+                        redis.call('ZINCRBY', key, ARGV[a + 3 + i * 3], ARGV[a + 2 + i * 3])
+                        touched[key] = true
+                    end
+                end
+                a = a + 1 + n * 3
+            end
+            for key in pairs(touched) do
+                redis.call('ZREMRANGEBYRANK', key, 0, keep)
+            end
+            return applied
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LeaderboardReader reader;
+    private final MatchRepository matchRepository;
+    private final MatchSubmissionRepository submissionRepository;
+    private final ProblemRepository problemRepository;
+    private final int topK;
+    private final long flushIntervalMs;
+
+    private final Queue<MatchSnapshot> pending = new ConcurrentLinkedQueue<>();
+
+    // Category of a problem rarely changes - misses are loaded in bulk
+    private final Cache<Long, Long> problemCategories = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("dimension-leaderboard-flusher").daemon().factory()
+    );
+
+    public DimensionLeaderboardService(
+            StringRedisTemplate redisTemplate,
+            LeaderboardReader reader,
+            MatchRepository matchRepository,
+            MatchSubmissionRepository submissionRepository,
+            ProblemRepository problemRepository,
+            @Value("${leaderboard.top-k:1000}") int topK,
+            @Value("${leaderboard.flush-interval-ms:1000}") long flushIntervalMs
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.reader = reader;
+        this.matchRepository = matchRepository;
+        this.submissionRepository = submissionRepository;
+        this.problemRepository = problemRepository;
+        this.topK = topK;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Pick up matches that completed but were never added (e.g. crash before a flush).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<MatchSnapshot> unapplied = matchRepository.findLeaderboardPendingSnapshots();
+        if (!unapplied.isEmpty()) {
+            log.info("Adding {} completed matches left over from previous run to leaderboards", unapplied.size());
+            pending.addAll(unapplied);
+        }
+
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Category leaderboard, optionally restricted to one language.
+     *
+     * @param categoryId category ID
+     * @param language   language, or null for all languages
+     * @param page       zero-based page number
+     * @param size       page size
+     * @return leaderboard page
+     */
+    public LeaderboardPageResponse getCategoryPage(Long categoryId, ProgrammingLanguage language, int page, int size) {
+        String key = language == null
+                ? CATEGORY_KEY.formatted(categoryId)
+                : CATEGORY_LANGUAGE_KEY.formatted(categoryId, language);
+
+        return reader.page(key, page, size);
+    }
+
+    /**
+     * Language leaderboard.
+     *
+     * @param language language
+     * @param page     zero-based page number
+     * @param size     page size
+     * @return leaderboard page
+     */
+    public LeaderboardPageResponse getLanguagePage(ProgrammingLanguage language, int page, int size) {
+        return reader.page(LANGUAGE_KEY.formatted(language), page, size);
+    }
+
+    /**
+     * Queue completed match for the next flush.
+     */
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent event) {
+        pending.add(event.match());
+    }
+
+    void flush() {
+        List<MatchSnapshot> batch = new ArrayList<>();
+        MatchSnapshot match;
+        while ((match = pending.poll()) != null) {
+            batch.add(match);
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            apply(batch);
+        } catch (RuntimeException ex) {
+            log.error("Failed to update dimension leaderboards for {} matches, retrying next flush", batch.size(), ex);
+            pending.addAll(batch);
+        }
+    }
+
+    private void apply(List<MatchSnapshot> batch) {
+        Map<Long, Long> categories = categoriesOf(batch);
+
+        Map<String, ProgrammingLanguage> languages = submissionRepository
+                .findLanguagesByMatchIdIn(batch.stream().map(MatchSnapshot::id).toList())
+                .stream()
+                .collect(Collectors.toMap(s -> s.matchId() + ":" + s.userId(), SubmissionLanguage::language));
+
+        List<String> markers = new ArrayList<>(batch.size());
+        Map<String, Integer> keyIndexes = new LinkedHashMap<>();
+        List<String> increments = new ArrayList<>();
+
+        for (MatchSnapshot m : batch) {
+            markers.add(APPLIED_KEY.formatted(m.id()));
+            Long categoryId = categories.get(m.problemId());
+
+            List<String> points = new ArrayList<>();
+            if (m.winnerId() != null) {
+                addPoints(points, categoryId, languages.get(m.id() + ":" + m.winnerId()), m.winnerId(), WIN_POINTS);
+            } else {
+                addPoints(points, categoryId, languages.get(m.id() + ":" + m.player1Id()), m.player1Id(), DRAW_POINTS);
+                addPoints(points, categoryId, languages.get(m.id() + ":" + m.player2Id()), m.player2Id(), DRAW_POINTS);
+            }
+
+            // (key, member, points) triples, the key as its 1-based index in KEYS after the markers
+            increments.add(String.valueOf(points.size() / 3));
+            for (int i = 0; i < points.size(); i += 3) {
+                int index = keyIndexes.computeIfAbsent(points.get(i), k -> batch.size() + keyIndexes.size() + 1);
+                increments.add(String.valueOf(index));
+                increments.add(points.get(i + 1));
+                increments.add(points.get(i + 2));
+            }
+        }
+
+        List<String> keys = new ArrayList<>(markers);
+        keys.addAll(keyIndexes.keySet());
+
+        List<String> args = new ArrayList<>(increments.size() + 3);
+        args.add(String.valueOf(APPLIED_TTL.toSeconds()));
+        args.add(String.valueOf(topK));
+        args.add(String.valueOf(batch.size()));
+        args.addAll(increments);
+
+        redisTemplate.execute(APPLY_SCRIPT, keys, args.toArray());
+        matchRepository.markLeaderboardApplied(batch.stream().map(MatchSnapshot::id).toList());
+    }
+
+    /**
+     * Append (key, member, points) of every set a player earns points in.
+     */
+    private void addPoints(
+            List<String> increments,
+            Long categoryId,
+            ProgrammingLanguage language,
+            Long userId,
+            double points
+    ) {
+        String member = userId.toString();
+        String value = String.valueOf(points);
+
+        if (categoryId != null) {
+            increments.addAll(List.of(CATEGORY_KEY.formatted(categoryId), member, value));
+        }
+
+        // Player never submitted - no language to credit
+        if (language == null) {
+            return;
+        }
+
+        increments.addAll(List.of(LANGUAGE_KEY.formatted(language), member, value));
+
+        if (categoryId != null) {
+            increments.addAll(List.of(CATEGORY_LANGUAGE_KEY.formatted(categoryId, language), member, value));
+        }
+    }
+
+    private Map<Long, Long> categoriesOf(List<MatchSnapshot> batch) {
+        Set<Long> problemIds = new HashSet<>();
+        batch.forEach(m -> problemIds.add(m.problemId()));
+
+        return problemCategories.getAll(problemIds, missing -> problemRepository
+                .findCategoryRefsByIdIn(List.copyOf(missing))
+                .stream()
+                .collect(Collectors.toMap(ProblemCategoryRef::problemId, ProblemCategoryRef::categoryId)));
+    }
+}
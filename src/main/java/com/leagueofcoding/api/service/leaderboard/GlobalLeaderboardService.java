@@ -0,0 +1,160 @@
+package com.leagueofcoding.api.service.leaderboard;
+
+import com.leagueofcoding.api.dto.leaderboard.LeaderboardPageResponse;
+import com.leagueofcoding.api.dto.leaderboard.PlayerRankResponse;
+import com.leagueofcoding.api.service.rating.RatingChange;
+import com.leagueofcoding.api.service.rating.RatingsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Global ELO leaderboard in the Redis sorted set {@code leaderboard:global}.
+ * <p>
+ * Kept current from {@link RatingsChangedEvent} with one {@code ZADD} per flush,
+ * and rebuilt from {@code user_ratings} on startup so changes lost by a crash
+ * cannot leave it stale. Only players with at least one rated match are listed.
+ * Changes arriving during a rebuild are also buffered and applied again on top
+ * of the rebuilt board, so the swap cannot roll them back.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GlobalLeaderboardService {
+
+    static final String GLOBAL_KEY = "leaderboard:global";
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final LeaderboardReader reader;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guards rebuildBuffer and orders live writes against the swap
+    private final Object swapLock = new Object();
+    private Map<String, Integer> rebuildBuffer;
+
+    /**
+     * Top players, best first.
+     *
+     * @param page zero-based page number
+     * @param size page size
+     * @return leaderboard page
+     */
+    public LeaderboardPageResponse getPage(int page, int size) {
+        return reader.page(GLOBAL_KEY, page, size);
+    }
+
+    /**
+     * Exact rank of a player and the K players above and below.
+     *
+     * @param userId user ID
+     * @param k      neighbours on each side
+     * @return player rank
+     */
+    public PlayerRankResponse getPlayerRank(Long userId, int k) {
+        return reader.around(GLOBAL_KEY, userId, k);
+    }
+
+    /**
+     * Apply committed rating changes - last change of each user wins.
+     */
+    @EventListener
+    public void onRatingsChanged(RatingsChangedEvent event) {
+        Map<String, Integer> latest = new LinkedHashMap<>();
+        for (RatingChange change : event.changes()) {
+            latest.put(change.userId().toString(), change.ratingAfter());
+        }
+
+        Set<TypedTuple<String>> tuples = new HashSet<>();
+        latest.forEach((userId, rating) -> tuples.add(new DefaultTypedTuple<>(userId, rating.doubleValue())));
+
+        synchronized (swapLock) {
+            if (rebuildBuffer != null) {
+                rebuildBuffer.putAll(latest);
+            }
+
+            try {
+                redisTemplate.opsForZSet().add(GLOBAL_KEY, tuples);
+            } catch (RuntimeException ex) {
+                // Database is the source of truth - next rebuild repairs the board
+                log.error("Failed to update global leaderboard for {} players", tuples.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the board from the database into a scratch key, then swap it in atomically.
+     * Changes committed while the scratch key fills are replayed onto it right after the swap.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        String scratchKey = GLOBAL_KEY + ":rebuild";
+        redisTemplate.delete(scratchKey);
+
+        // Started before the read - any change the read misses is published after this point
+        synchronized (swapLock) {
+            rebuildBuffer = new LinkedHashMap<>();
+        }
+
+        try {
+            fill(scratchKey);
+        } finally {
+            synchronized (swapLock) {
+                rebuildBuffer = null;
+            }
+        }
+    }
+
+    private void fill(String scratchKey) {
+        Set<TypedTuple<String>> batch = new HashSet<>();
+        long[] total = {0};
+
+        jdbcTemplate.query(
+                "SELECT user_id, elo_rating FROM user_ratings WHERE matches_played > 0",
+                rs -> {
+                    batch.add(new DefaultTypedTuple<>(String.valueOf(rs.getLong(1)), (double) rs.getInt(2)));
+                    if (batch.size() == REBUILD_BATCH_SIZE) {
+                        redisTemplate.opsForZSet().add(scratchKey, batch);
+                        total[0] += batch.size();
+                        batch.clear();
+                    }
+                }
+        );
+
+        if (!batch.isEmpty()) {
+            redisTemplate.opsForZSet().add(scratchKey, batch);
+            total[0] += batch.size();
+        }
+
+        int replayed;
+        synchronized (swapLock) {
+            if (total[0] == 0) {
+                redisTemplate.delete(GLOBAL_KEY);
+            } else {
+                redisTemplate.rename(scratchKey, GLOBAL_KEY);
+            }
+
+            replayed = rebuildBuffer.size();
+            if (replayed > 0) {
+                Set<TypedTuple<String>> tuples = new HashSet<>();
+                rebuildBuffer.forEach((userId, rating) -> tuples.add(new DefaultTypedTuple<>(userId, rating.doubleValue())));
+                redisTemplate.opsForZSet().add(GLOBAL_KEY, tuples);
+            }
+        }
+
+        log.info("Global leaderboard rebuilt with {} players, {} live changes replayed", total[0], replayed);
+    }
+}
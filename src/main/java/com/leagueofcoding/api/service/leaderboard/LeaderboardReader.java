@@ -0,0 +1,114 @@
+package com.leagueofcoding.api.service.leaderboard;
+
+import com.leagueofcoding.api.dto.leaderboard.LeaderboardEntryResponse;
+import com.leagueofcoding.api.dto.leaderboard.LeaderboardPageResponse;
+import com.leagueofcoding.api.dto.leaderboard.PlayerRankResponse;
+import com.leagueofcoding.api.exception.UserNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads leaderboards stored as Redis sorted sets (member = user ID, score = points).
+ * <p>
+ * Every read is one {@code ZREVRANGE} / {@code ZREVRANK} / {@code ZCARD},
+ * all O(log n) plus the page size, however deep the page is.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardReader {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_NEIGHBOURS = 50;
+
+    private final StringRedisTemplate redisTemplate;
+    private final UsernameResolver usernameResolver;
+
+    /**
+     * Read one page, best first.
+     *
+     * @param key  sorted set key
+     * @param page zero-based page number
+     * @param size page size
+     * @return leaderboard page
+     */
+    public LeaderboardPageResponse page(String key, int page, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        long start = (long) Math.max(page, 0) * pageSize;
+
+        List<LeaderboardEntryResponse> entries = range(key, start, start + pageSize - 1);
+        Long total = redisTemplate.opsForZSet().zCard(key);
+
+        return new LeaderboardPageResponse(entries, Math.max(page, 0), pageSize, total != null ? total : 0);
+    }
+
+    /**
+     * Exact rank of a player plus the players right above and below.
+     *
+     * @param key    sorted set key
+     * @param userId player user ID
+     * @param k      neighbours on each side
+     * @return player rank
+     */
+    public PlayerRankResponse around(String key, Long userId, int k) {
+        Long index = redisTemplate.opsForZSet().reverseRank(key, userId.toString());
+        if (index == null) {
+            throw new UserNotFoundException("Player is not ranked on this leaderboard");
+        }
+
+        int neighbours = Math.clamp(k, 0, MAX_NEIGHBOURS);
+        long start = Math.max(0, index - neighbours);
+        List<LeaderboardEntryResponse> window = range(key, start, index + neighbours);
+        if (window.isEmpty()) {
+            throw new UserNotFoundException("Player is not ranked on this leaderboard");
+        }
+
+        // The window always contains the player; if it moved meanwhile, fall back to the middle
+        int position = (int) (index - start);
+        for (int i = 0; i < window.size(); i++) {
+            if (window.get(i).userId().equals(userId)) {
+                position = i;
+                break;
+            }
+        }
+        position = Math.min(position, window.size() - 1);
+
+        return new PlayerRankResponse(
+                window.get(position),
+                window.subList(0, position),
+                window.subList(position + 1, window.size())
+        );
+    }
+
+    private List<LeaderboardEntryResponse> range(String key, long start, long end) {
+        Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, start, end);
+        if (tuples == null || tuples.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> userIds = tuples.stream().map(tuple -> Long.valueOf(tuple.getValue())).toList();
+        Map<Long, String> usernames = usernameResolver.resolve(userIds);
+
+        List<LeaderboardEntryResponse> entries = new ArrayList<>(tuples.size());
+        long rank = start + 1;
+        for (TypedTuple<String> tuple : tuples) {
+            Long userId = Long.valueOf(tuple.getValue());
+            entries.add(new LeaderboardEntryResponse(
+                    rank++,
+                    userId,
+                    usernames.get(userId),
+                    Math.round(tuple.getScore())
+            ));
+        }
+
+        return entries;
+    }
+}
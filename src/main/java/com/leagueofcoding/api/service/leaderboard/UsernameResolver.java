@@ -0,0 +1,45 @@
+package com.leagueofcoding.api.service.leaderboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.entity.User;
+import com.leagueofcoding.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Username lookup for leaderboard pages.
+ * Leaderboards store only user IDs; names are resolved in bulk and cached,
+ * so a hot page costs no database query.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameResolver {
+
+    private final UserRepository userRepository;
+
+    private final Cache<Long, String> usernames = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    /**
+     * Resolve usernames of the given users with at most one query.
+     *
+     * @param userIds user IDs
+     * @return username by user ID (deleted users are missing)
+     */
+    public Map<Long, String> resolve(Collection<Long> userIds) {
+        return usernames.getAll(userIds, missing -> userRepository.findAllById(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername)));
+    }
+}
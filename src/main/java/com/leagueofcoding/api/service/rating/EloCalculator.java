@@ -0,0 +1,48 @@
+package com.leagueofcoding.api.service.rating;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * ELO rating formula.
+ * <p>
+ * Expected score {@code E = 1 / (1 + 10^((Rb - Ra) / 400))},
+ * new rating {@code Ra' = Ra + K * (S - E)} with S = 1 win, 0.5 draw, 0 loss.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class EloCalculator {
+
+    @Getter
+    private final int kFactor;
+
+    public EloCalculator(@Value("${rating.elo.k-factor:32}") int kFactor) {
+        this.kFactor = kFactor;
+    }
+
+    /**
+     * Expected score of a player against an opponent.
+     *
+     * @param rating         player rating
+     * @param opponentRating opponent rating
+     * @return expected score in (0, 1)
+     */
+    public double expectedScore(int rating, int opponentRating) {
+        return 1.0 / (1.0 + Math.pow(10, (opponentRating - rating) / 400.0));
+    }
+
+    /**
+     * Rating change of a player for one game.
+     * The opponent's change is the negation, so a game never creates or destroys points.
+     *
+     * @param rating         player rating
+     * @param opponentRating opponent rating
+     * @param score          1 win, 0.5 draw, 0 loss
+     * @return rating delta
+     */
+    public int delta(int rating, int opponentRating, double score) {
+        return (int) Math.round(kFactor * (score - expectedScore(rating, opponentRating)));
+    }
+}
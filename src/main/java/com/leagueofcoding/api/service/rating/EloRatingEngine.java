@@ -0,0 +1,274 @@
+package com.leagueofcoding.api.service.rating;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.entity.User;
+import com.leagueofcoding.api.entity.UserRating;
+import com.leagueofcoding.api.repository.MatchRepository;
+import com.leagueofcoding.api.repository.UserRatingRepository;
+import com.leagueofcoding.api.repository.UserRepository;
+import com.leagueofcoding.api.service.battle.MatchCompletedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies ELO changes of completed matches to {@link UserRating}.
+ * <p>
+ * Completed matches are queued and flushed on a fixed delay. A flush handles
+ * every match that finished since the previous one in a single transaction:
+ * one claim statement, one select per table, and one batched UPDATE per table,
+ * with a user playing several matches in the batch written once.
+ * Rating rows are versioned, so a concurrent writer makes the flush roll back and retry.
+ * Legacy {@code users.rating / wins / losses / total_matches} are kept in sync,
+ * and every change is appended to {@link RatingHistoryStore} in the same transaction.
+ * Committed changes are published as {@link RatingsChangedEvent}.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class EloRatingEngine {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EloCalculator calculator;
+    private final MatchRepository matchRepository;
+    private final UserRatingRepository userRatingRepository;
+    private final UserRepository userRepository;
+    private final RatingHistoryStore historyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long flushIntervalMs;
+
+    private final Queue<MatchSnapshot> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("rating-flusher").daemon().factory()
+    );
+
+    public EloRatingEngine(
+            EloCalculator calculator,
+            MatchRepository matchRepository,
+            UserRatingRepository userRatingRepository,
+            UserRepository userRepository,
+            RatingHistoryStore historyStore,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${rating.flush-interval-ms:1000}") long flushIntervalMs
+    ) {
+        this.calculator = calculator;
+        this.matchRepository = matchRepository;
+        this.userRatingRepository = userRatingRepository;
+        this.userRepository = userRepository;
+        this.historyStore = historyStore;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Pick up matches that completed but were never rated (e.g. crash before a flush),
+     * then start flushing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<MatchSnapshot> unrated = matchRepository.findUnratedSnapshots();
+        if (!unrated.isEmpty()) {
+            log.info("Rating {} completed matches left over from previous run", unrated.size());
+            pending.addAll(unrated);
+        }
+
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue completed match for the next flush.
+     */
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent event) {
+        pending.add(event.match());
+    }
+
+    /**
+     * Run an action while no flush is in progress and none can start.
+     * Matches completing meanwhile stay queued and are applied afterwards.
+     *
+     * @param action action to run
+     */
+    public void runPaused(Runnable action) {
+        flushLock.lock();
+        try {
+            action.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Apply all queued matches. Matches of a failed flush stay unrated
+     * in the database and are queued again for the next flush.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            flushQueued();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQueued() {
+        List<MatchSnapshot> batch = new ArrayList<>();
+        MatchSnapshot match;
+        while ((match = pending.poll()) != null) {
+            batch.add(match);
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                List<RatingChange> changes = transactionTemplate.execute(status -> applyBatch(batch));
+                log.debug("Applied {} rating changes", changes.size());
+
+                if (!changes.isEmpty()) {
+                    eventPublisher.publishEvent(new RatingsChangedEvent(changes));
+                }
+                return;
+            } catch (OptimisticLockingFailureException ex) {
+                log.warn("Rating update conflict (attempt {}/{}), retrying", attempt, MAX_ATTEMPTS);
+            } catch (RuntimeException ex) {
+                log.error("Failed to apply ratings of {} matches, retrying next flush", batch.size(), ex);
+                pending.addAll(batch);
+                return;
+            }
+        }
+
+        // Batches are applied in end order, so requeued matches need no special place in the queue
+        log.error("Conflicts on ratings of {} matches after {} attempts, retrying next flush", batch.size(), MAX_ATTEMPTS);
+        pending.addAll(batch);
+    }
+
+    /**
+     * Apply a batch inside one transaction.
+     *
+     * @param batch completed matches
+     * @return rating changes, two per applied match
+     */
+    private List<RatingChange> applyBatch(List<MatchSnapshot> batch) {
+        // Claim first - matches already rated by another instance are skipped
+        Map<Long, MatchSnapshot> candidates = batch.stream()
+                .collect(Collectors.toMap(MatchSnapshot::id, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        Set<Long> claimed = new HashSet<>(matchRepository.claimForRating(candidates.keySet()));
+
+        List<MatchSnapshot> matches = candidates.values().stream()
+                .filter(m -> claimed.contains(m.id()))
+                .sorted(Comparator.comparing(MatchSnapshot::endedAt))
+                .toList();
+
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        matches.forEach(m -> {
+            userIds.add(m.player1Id());
+            userIds.add(m.player2Id());
+        });
+
+        Map<Long, UserRating> ratings = userRatingRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserRating::getUserId, Function.identity()));
+
+        List<UserRating> created = new ArrayList<>();
+        userIds.stream()
+                .filter(userId -> !ratings.containsKey(userId))
+                .forEach(userId -> {
+                    UserRating rating = UserRating.builder().userId(userId).build();
+                    ratings.put(userId, rating);
+                    created.add(rating);
+                });
+
+        // In end order, so a user with several matches in the batch moves step by step
+        List<RatingChange> changes = new ArrayList<>(matches.size() * 2);
+        matches.forEach(m -> applyResult(m, ratings.get(m.player1Id()), ratings.get(m.player2Id()), changes));
+
+        userRatingRepository.saveAll(created);
+
+        // Legacy columns on users
+        for (User user : userRepository.findAllById(userIds)) {
+            UserRating rating = ratings.get(user.getId());
+            user.setRating(rating.getEloRating());
+            user.setTotalMatches(rating.getMatchesPlayed());
+            user.setWins(rating.getWins());
+            user.setLosses(rating.getLosses());
+        }
+
+        // Batched, version-checked UPDATEs - a conflict aborts before history is touched
+        userRatingRepository.flush();
+
+        historyStore.append(changes);
+        return changes;
+    }
+
+    private void applyResult(MatchSnapshot match, UserRating player1, UserRating player2, List<RatingChange> changes) {
+        Long winnerId = match.winnerId();
+        double score1 = winnerId == null ? 0.5 : winnerId.equals(player1.getUserId()) ? 1.0 : 0.0;
+        int delta = calculator.delta(player1.getEloRating(), player2.getEloRating(), score1);
+
+        changes.add(record(match, player1, delta, score1));
+        changes.add(record(match, player2, -delta, 1.0 - score1));
+    }
+
+    private static RatingChange record(MatchSnapshot match, UserRating rating, int delta, double score) {
+        int before = rating.getEloRating();
+        rating.setEloRating(before + delta);
+        rating.setMatchesPlayed(rating.getMatchesPlayed() + 1);
+        rating.setLastPlayedAt(match.endedAt());
+
+        if (score == 1.0) {
+            rating.setWins(rating.getWins() + 1);
+        } else if (score == 0.0) {
+            rating.setLosses(rating.getLosses() + 1);
+        } else {
+            rating.setDraws(rating.getDraws() + 1);
+        }
+
+        return new RatingChange(rating.getUserId(), match.id(), before, before + delta, match.endedAt());
+    }
+
+    /**
+     * Flush what is still queued on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
@@ -0,0 +1,157 @@
+package com.leagueofcoding.api.service.rating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Glicko-2 rating formula (Glickman, "Example of the Glicko-2 system").
+ * <p>
+ * Works on the internal Glicko-2 scale: {@code mu = (r - 1500) / 173.7178},
+ * {@code phi = RD / 173.7178}. The calculator is stateless and allocation free,
+ * so one instance is shared by all fork-join workers of a rating period.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class Glicko2Calculator {
+
+    public static final double DEFAULT_RATING = 1500.0;
+    public static final double DEFAULT_DEVIATION = 350.0;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+
+    private static final double SCALE = 173.7178;
+    private static final double MAX_PHI = DEFAULT_DEVIATION / SCALE;
+    private static final double CONVERGENCE = 0.000001;
+
+    private final double tau;
+
+    public Glicko2Calculator(@Value("${rating.glicko.tau:0.5}") double tau) {
+        this.tau = tau;
+    }
+
+    public static double toMu(double rating) {
+        return (rating - DEFAULT_RATING) / SCALE;
+    }
+
+    public static double toPhi(double deviation) {
+        return deviation / SCALE;
+    }
+
+    public static double toRating(double mu) {
+        return mu * SCALE + DEFAULT_RATING;
+    }
+
+    public static double toDeviation(double phi) {
+        return phi * SCALE;
+    }
+
+    /**
+     * Rate one player for a period.
+     * Results are the slice {@code [from, to)} of {@code opponents} / {@code scores};
+     * opponent state is read from {@code mu} / {@code phi} at the opponent index.
+     *
+     * @param player    player index
+     * @param mu        pre-period mu of all players
+     * @param phi       pre-period phi of all players
+     * @param sigma     pre-period volatility of all players
+     * @param opponents opponent index of each result
+     * @param scores    player score of each result (1 win, 0.5 draw, 0 loss)
+     * @param from      first result of the player
+     * @param to        end of the player's results (exclusive)
+     * @param newMu     output mu
+     * @param newPhi    output phi
+     * @param newSigma  output volatility
+     */
+    public void rate(
+            int player,
+            double[] mu, double[] phi, double[] sigma,
+            int[] opponents, float[] scores, int from, int to,
+            double[] newMu, double[] newPhi, double[] newSigma
+    ) {
+        double playerMu = mu[player];
+        double playerPhi = phi[player];
+        double playerSigma = sigma[player];
+
+        // Did not play - only the deviation grows
+        if (from == to) {
+            newMu[player] = playerMu;
+            newPhi[player] = Math.min(MAX_PHI, Math.sqrt(playerPhi * playerPhi + playerSigma * playerSigma));
+            newSigma[player] = playerSigma;
+            return;
+        }
+
+        double inverseV = 0;
+        double improvement = 0;
+        for (int k = from; k < to; k++) {
+            int opponent = opponents[k];
+            double g = g(phi[opponent]);
+            double expected = 1.0 / (1.0 + Math.exp(-g * (playerMu - mu[opponent])));
+
+            inverseV += g * g * expected * (1 - expected);
+            improvement += g * (scores[k] - expected);
+        }
+
+        double v = 1.0 / inverseV;
+        double delta = v * improvement;
+
+        double volatility = volatility(playerPhi, playerSigma, v, delta);
+        double phiStar = Math.sqrt(playerPhi * playerPhi + volatility * volatility);
+        double updatedPhi = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + inverseV);
+
+        newMu[player] = playerMu + updatedPhi * updatedPhi * improvement;
+        newPhi[player] = Math.min(MAX_PHI, updatedPhi);
+        newSigma[player] = volatility;
+    }
+
+    private static double g(double phi) {
+        return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    /**
+     * New volatility by the Illinois variant of regula falsi (step 5 of the paper).
+     */
+    private double volatility(double phi, double sigma, double v, double delta) {
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        double a = Math.log(sigma * sigma);
+
+        double lower = a;
+        double upper;
+        if (delta2 > phi2 + v) {
+            upper = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, v, delta2) < 0) {
+                k++;
+            }
+            upper = a - k * tau;
+        }
+
+        double fLower = f(lower, a, phi2, v, delta2);
+        double fUpper = f(upper, a, phi2, v, delta2);
+
+        while (Math.abs(upper - lower) > CONVERGENCE) {
+            double candidate = lower + (lower - upper) * fLower / (fUpper - fLower);
+            double fCandidate = f(candidate, a, phi2, v, delta2);
+
+            if (fCandidate * fUpper <= 0) {
+                lower = upper;
+                fLower = fUpper;
+            } else {
+                fLower /= 2;
+            }
+
+            upper = candidate;
+            fUpper = fCandidate;
+        }
+
+        return Math.exp(lower / 2);
+    }
+
+    private double f(double x, double a, double phi2, double v, double delta2) {
+        double ex = Math.exp(x);
+        double denominator = phi2 + v + ex;
+
+        return ex * (delta2 - phi2 - v - ex) / (2 * denominator * denominator) - (x - a) / (tau * tau);
+    }
+}
@@ -0,0 +1,468 @@
+package com.leagueofcoding.api.service.rating;
+
+import com.leagueofcoding.api.enums.RatingPeriodStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Glicko-2 rating periods.
+ * <p>
+ * Results are not applied one by one: every completed match accumulates in
+ * {@code matches}, and once a period has elapsed all players are recomputed
+ * together from their pre-period state. The job streams ratings and results
+ * into primitive arrays (results in CSR layout, per player), rates user
+ * partitions in parallel on a fork-join pool, then stages the changed rows in
+ * {@code rating_period_results} together with an APPLYING row in
+ * {@code rating_periods}. A crash before that commit simply repeats the period.
+ * Staged results are then copied into {@code user_ratings} in keyset-paginated
+ * chunks (by user ID, rows locked only for their chunk) with a pause between
+ * chunks, each committing with the cursor, so live rating keeps running and a
+ * restarted instance resumes the apply exactly where the previous one stopped.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class Glicko2RatingPeriodJob {
+
+    private static final int PARTITION_SIZE = 8192;
+    private static final int FETCH_SIZE = 10_000;
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    private final Glicko2Calculator calculator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration periodLength;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final ForkJoinPool pool;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("glicko-rating-period").daemon().factory()
+    );
+
+    public Glicko2RatingPeriodJob(
+            Glicko2Calculator calculator,
+            DataSource dataSource,
+            TransactionTemplate transactionTemplate,
+            @Value("${rating.glicko.period-hours:24}") long periodHours,
+            @Value("${rating.glicko.parallelism:0}") int parallelism,
+            @Value("${rating.glicko.chunk-size:1000}") int chunkSize,
+            @Value("${rating.glicko.pause-ms:50}") long pauseMs
+    ) {
+        this.calculator = calculator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = transactionTemplate;
+        this.periodLength = Duration.ofHours(periodHours);
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::runDuePeriods, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupts the pause between chunks - the committed cursor is the resume point
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Finish a period left half-applied, then process every period that has fully elapsed, oldest first.
+     */
+    void runDuePeriods() {
+        try {
+            resumeApplying();
+
+            LocalDateTime start = nextPeriodStart();
+            LocalDateTime now = LocalDateTime.now();
+
+            while (!start.plus(periodLength).isAfter(now)) {
+                LocalDateTime end = start.plus(periodLength);
+                runPeriod(start, end);
+                start = end;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Glicko-2 rating period failed", ex);
+        }
+    }
+
+    /**
+     * Recompute all players for one period.
+     *
+     * @param start period start (exclusive)
+     * @param end   period end (inclusive)
+     */
+    void runPeriod(LocalDateTime start, LocalDateTime end) throws InterruptedException {
+        long startNanos = System.nanoTime();
+
+        // Only the private staging table is written here - user_ratings is read without locks
+        StagedPeriod period = transactionTemplate.execute(status -> {
+            RatingPeriod loaded = load(start, end);
+            pool.invoke(new RatePartition(loaded, 0, loaded.size));
+            int changed = stage(loaded);
+
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO rating_periods (period_start, period_end, players, results, status) " +
+                            "VALUES (?, ?, ?, ?, ?) RETURNING id",
+                    Long.class,
+                    Timestamp.valueOf(start), Timestamp.valueOf(end), loaded.size, loaded.resultCount,
+                    RatingPeriodStatus.APPLYING.name()
+            );
+
+            return new StagedPeriod(id, loaded.size, loaded.resultCount, changed);
+        });
+
+        apply(period.id(), 0);
+
+        log.info("Glicko-2 period {} - {} rated {} players ({} changed) from {} results in {} ms",
+                start, end, period.players(), period.changed(), period.results(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void resumeApplying() throws InterruptedException {
+        List<long[]> applying = jdbcTemplate.query(
+                "SELECT id, apply_cursor FROM rating_periods WHERE status = ?",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                RatingPeriodStatus.APPLYING.name()
+        );
+
+        for (long[] period : applying) {
+            log.info("Resuming Glicko-2 period {} after user {}", period[0], period[1]);
+            apply(period[0], period[1]);
+        }
+    }
+
+    /**
+     * Copy staged results into user_ratings chunk by chunk, starting after the cursor.
+     */
+    private void apply(long periodId, long cursor) throws InterruptedException {
+        while (true) {
+            long from = cursor;
+            Long next = transactionTemplate.execute(status -> applyChunk(periodId, from));
+            if (next == null) {
+                return;
+            }
+
+            cursor = next;
+            Thread.sleep(pauseMs);
+        }
+    }
+
+    /**
+     * Apply the next chunk of staged results after the cursor.
+     *
+     * @return new cursor, or null once no result is left and the period was completed
+     */
+    private Long applyChunk(long periodId, long cursor) {
+        Long last = jdbcTemplate.queryForObject(
+                "SELECT MAX(user_id) FROM (SELECT user_id FROM rating_period_results " +
+                        "WHERE user_id > ? ORDER BY user_id LIMIT ?) chunk",
+                Long.class,
+                cursor, chunkSize
+        );
+
+        if (last == null) {
+            jdbcTemplate.update("DELETE FROM rating_period_results");
+            jdbcTemplate.update(
+                    "UPDATE rating_periods SET status = ?, completed_at = CURRENT_TIMESTAMP WHERE id = ?",
+                    RatingPeriodStatus.COMPLETED.name(), periodId
+            );
+            return null;
+        }
+
+        // Version bump makes a concurrent ELO flush retry instead of overwriting these columns
+        jdbcTemplate.update(
+                "UPDATE user_ratings r SET glicko_rating = s.glicko_rating, glicko_deviation = s.glicko_deviation, " +
+                        "glicko_volatility = s.glicko_volatility, version = r.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                        "FROM rating_period_results s WHERE r.user_id = s.user_id AND s.user_id > ? AND s.user_id <= ?",
+                cursor, last
+        );
+        jdbcTemplate.update("UPDATE rating_periods SET apply_cursor = ? WHERE id = ?", last, periodId);
+
+        return last;
+    }
+
+    /**
+     * Start of the next unprocessed period. The first period starts at the
+     * first completed match, aligned to whole hours.
+     */
+    private LocalDateTime nextPeriodStart() {
+        Timestamp last = jdbcTemplate.queryForObject("SELECT MAX(period_end) FROM rating_periods", Timestamp.class);
+        if (last != null) {
+            return last.toLocalDateTime();
+        }
+
+        Timestamp first = jdbcTemplate.queryForObject(
+                "SELECT MIN(ended_at) FROM matches WHERE status = 'COMPLETED'", Timestamp.class);
+        LocalDateTime origin = first != null ? first.toLocalDateTime() : LocalDateTime.now();
+
+        return origin.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private RatingPeriod load(LocalDateTime start, LocalDateTime end) {
+        RatingPeriod period = new RatingPeriod();
+
+        // A player's first rated match may not have created a rating row yet:
+        // start them from the column defaults, or the period would lose the result
+        jdbcTemplate.update(
+                "INSERT INTO user_ratings (user_id) " +
+                        "SELECT DISTINCT p.user_id FROM matches m " +
+                        "CROSS JOIN LATERAL (VALUES (m.player1_id), (m.player2_id)) AS p (user_id) " +
+                        "WHERE m.status = 'COMPLETED' AND m.ended_at > ? AND m.ended_at <= ? " +
+                        "ON CONFLICT (user_id) DO NOTHING",
+                Timestamp.valueOf(start), Timestamp.valueOf(end)
+        );
+
+        // Ratings ordered by user ID - the position is the player index
+        jdbcTemplate.query(
+                "SELECT user_id, glicko_rating, glicko_deviation, glicko_volatility FROM user_ratings ORDER BY user_id",
+                rs -> {
+                    period.addPlayer(
+                            rs.getLong(1),
+                            Glicko2Calculator.toMu(rs.getDouble(2)),
+                            Glicko2Calculator.toPhi(rs.getDouble(3)),
+                            rs.getDouble(4)
+                    );
+                }
+        );
+
+        jdbcTemplate.query(
+                "SELECT player1_id, player2_id, winner_id FROM matches " +
+                        "WHERE status = 'COMPLETED' AND ended_at > ? AND ended_at <= ?",
+                rs -> {
+                    long player1 = rs.getLong(1);
+                    long winner = rs.getLong(3);
+                    float score1 = rs.wasNull() ? 0.5f : winner == player1 ? 1f : 0f;
+                    period.addResult(player1, rs.getLong(2), score1);
+                },
+                Timestamp.valueOf(start), Timestamp.valueOf(end)
+        );
+
+        period.index();
+        return period;
+    }
+
+    /**
+     * Stage players whose values changed.
+     *
+     * @return number of rows staged
+     */
+    private int stage(RatingPeriod period) {
+        int[] changed = period.changedPlayers();
+
+        for (int offset = 0; offset < changed.length; offset += WRITE_BATCH_SIZE) {
+            int chunkStart = offset;
+            int chunkSize = Math.min(WRITE_BATCH_SIZE, changed.length - offset);
+
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO rating_period_results (glicko_rating, glicko_deviation, glicko_volatility, user_id) " +
+                            "VALUES (?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int player = changed[chunkStart + i];
+                            ps.setDouble(1, Glicko2Calculator.toRating(period.newMu[player]));
+                            ps.setDouble(2, Glicko2Calculator.toDeviation(period.newPhi[player]));
+                            ps.setDouble(3, period.newSigma[player]);
+                            ps.setLong(4, period.userIds[player]);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunkSize;
+                        }
+                    }
+            );
+        }
+
+        return changed.length;
+    }
+
+    /**
+     * Rates a contiguous range of players, splitting until the range is small enough.
+     * Workers only read pre-period arrays and write their own slots, so no locking is needed.
+     */
+    private final class RatePartition extends RecursiveAction {
+
+        private final RatingPeriod period;
+        private final int from;
+        private final int to;
+
+        RatePartition(RatingPeriod period, int from, int to) {
+            this.period = period;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARTITION_SIZE) {
+                for (int player = from; player < to; player++) {
+                    calculator.rate(
+                            player,
+                            period.mu, period.phi, period.sigma,
+                            period.opponents, period.scores,
+                            period.offsets[player], period.offsets[player + 1],
+                            period.newMu, period.newPhi, period.newSigma
+                    );
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RatePartition(period, from, middle), new RatePartition(period, middle, to));
+        }
+    }
+
+    /**
+     * Players and results of one period in primitive arrays.
+     * About 60 bytes per player plus 20 bytes per result.
+     */
+    private static final class RatingPeriod {
+
+        int size;
+        long[] userIds = new long[1024];
+        double[] mu = new double[1024];
+        double[] phi = new double[1024];
+        double[] sigma = new double[1024];
+
+        int resultCount;
+        private int[] resultPlayer1 = new int[1024];
+        private int[] resultPlayer2 = new int[1024];
+        private float[] resultScore1 = new float[1024];
+
+        // CSR: results of player i are opponents/scores[offsets[i] .. offsets[i + 1])
+        int[] offsets;
+        int[] opponents;
+        float[] scores;
+
+        double[] newMu;
+        double[] newPhi;
+        double[] newSigma;
+
+        void addPlayer(long userId, double playerMu, double playerPhi, double playerSigma) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                mu = Arrays.copyOf(mu, capacity);
+                phi = Arrays.copyOf(phi, capacity);
+                sigma = Arrays.copyOf(sigma, capacity);
+            }
+
+            userIds[size] = userId;
+            mu[size] = playerMu;
+            phi[size] = playerPhi;
+            sigma[size] = playerSigma;
+            size++;
+        }
+
+        void addResult(long player1Id, long player2Id, float score1) {
+            int player1 = Arrays.binarySearch(userIds, 0, size, player1Id);
+            int player2 = Arrays.binarySearch(userIds, 0, size, player2Id);
+
+            // Rows of all period players were inserted before the snapshot - rolls the period back
+            if (player1 < 0 || player2 < 0) {
+                throw new IllegalStateException(
+                        "No rating row for match players " + player1Id + " / " + player2Id);
+            }
+
+            if (resultCount == resultPlayer1.length) {
+                int capacity = resultCount * 2;
+                resultPlayer1 = Arrays.copyOf(resultPlayer1, capacity);
+                resultPlayer2 = Arrays.copyOf(resultPlayer2, capacity);
+                resultScore1 = Arrays.copyOf(resultScore1, capacity);
+            }
+
+            resultPlayer1[resultCount] = player1;
+            resultPlayer2[resultCount] = player2;
+            resultScore1[resultCount] = score1;
+            resultCount++;
+        }
+
+        /**
+         * Group results per player (each match is a result for both players).
+         */
+        void index() {
+            offsets = new int[size + 1];
+            for (int r = 0; r < resultCount; r++) {
+                offsets[resultPlayer1[r] + 1]++;
+                offsets[resultPlayer2[r] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            opponents = new int[resultCount * 2];
+            scores = new float[resultCount * 2];
+            int[] cursor = Arrays.copyOf(offsets, size);
+
+            for (int r = 0; r < resultCount; r++) {
+                int player1 = resultPlayer1[r];
+                int player2 = resultPlayer2[r];
+
+                opponents[cursor[player1]] = player2;
+                scores[cursor[player1]++] = resultScore1[r];
+                opponents[cursor[player2]] = player1;
+                scores[cursor[player2]++] = 1f - resultScore1[r];
+            }
+
+            // Release staging arrays before the parallel phase
+            resultPlayer1 = null;
+            resultPlayer2 = null;
+            resultScore1 = null;
+
+            newMu = new double[size];
+            newPhi = new double[size];
+            newSigma = new double[size];
+        }
+
+        /**
+         * Players whose values moved, e.g. not new players already at maximum deviation.
+         */
+        int[] changedPlayers() {
+            int[] changed = new int[size];
+            int count = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (newMu[i] != mu[i] || newPhi[i] != phi[i] || newSigma[i] != sigma[i]) {
+                    changed[count++] = i;
+                }
+            }
+
+            return Arrays.copyOf(changed, count);
+        }
+    }
+
+    private record StagedPeriod(long id, int players, int results, int changed) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.leagueofcoding.api.service.rating;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rating change of one player caused by one match.
+ *
+ * @param userId       player user ID
+ * @param matchId      match that caused the change
+ * @param ratingBefore ELO rating before the match
+ * @param ratingAfter  ELO rating after the match
+ * @param changedAt    match end timestamp
+ * @author dao-nguyenminh
+ */
+public record RatingChange(
+        Long userId,
+        Long matchId,
+        int ratingBefore,
+        int ratingAfter,
+        LocalDateTime changedAt
+) {
+}
@@ -0,0 +1,234 @@
+package com.leagueofcoding.api.service.rating;
+
+import com.leagueofcoding.api.dto.rating.RatingHistoryResponse;
+import com.leagueofcoding.api.dto.rating.RatingPointResponse;
+import com.leagueofcoding.api.util.DownsamplingUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only rating history.
+ * <p>
+ * Points are grouped per user and month into one {@code rating_history} row.
+ * Each point is three zigzag varints - deltas of epoch second, match ID and
+ * rating from the previous point - so a typical point takes 5-8 bytes.
+ * Appends run inside the rating flush transaction; a graph for any range is
+ * one primary key range scan, downsampled to at most {@link #MAX_POINTS}.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class RatingHistoryStore {
+
+    public static final int MAX_POINTS = 500;
+    public static final String TABLE = "rating_history";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Append rating changes. Must run in the transaction that applied them.
+     *
+     * @param changes rating changes in match end order
+     */
+    public void append(List<RatingChange> changes) {
+        append(TABLE, changes);
+    }
+
+    /**
+     * Append rating changes to a history table with the {@code rating_history} layout,
+     * e.g. the shadow table of a full recompute.
+     *
+     * @param table   history table
+     * @param changes rating changes in match end order
+     */
+    void append(String table, List<RatingChange> changes) {
+        Map<ChunkKey, List<RatingChange>> byChunk = new LinkedHashMap<>();
+        for (RatingChange change : changes) {
+            byChunk.computeIfAbsent(ChunkKey.of(change), k -> new ArrayList<>()).add(change);
+        }
+
+        Map<ChunkKey, long[]> tails = loadTails(table, byChunk.keySet());
+
+        List<Object[]> rows = new ArrayList<>(byChunk.size());
+        byChunk.forEach((key, points) -> {
+            // last epoch second, last match ID, last rating - zero for a new chunk
+            long[] last = tails.getOrDefault(key, new long[3]);
+            ByteArrayOutputStream data = new ByteArrayOutputStream(points.size() * 8);
+
+            for (RatingChange point : points) {
+                long at = point.changedAt().toEpochSecond(ZoneOffset.UTC);
+                writeVarLong(data, at - last[0]);
+                writeVarLong(data, point.matchId() - last[1]);
+                writeVarLong(data, point.ratingAfter() - last[2]);
+                last = new long[]{at, point.matchId(), point.ratingAfter()};
+            }
+
+            rows.add(new Object[]{
+                    key.userId(), Date.valueOf(key.month()), points.size(), data.toByteArray(),
+                    last[0], last[1], (int) last[2]
+            });
+        });
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + table + " AS h (user_id, month, points, data, last_at, last_match_id, last_rating) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (user_id, month) DO UPDATE SET " +
+                        "points = h.points + EXCLUDED.points, " +
+                        "data = h.data || EXCLUDED.data, " +
+                        "last_at = EXCLUDED.last_at, " +
+                        "last_match_id = EXCLUDED.last_match_id, " +
+                        "last_rating = EXCLUDED.last_rating",
+                rows
+        );
+    }
+
+    /**
+     * Rating graph of a user, at most {@link #MAX_POINTS} points.
+     *
+     * @param userId user ID
+     * @param from   range start (inclusive), null for the beginning
+     * @param to     range end (inclusive), null for now
+     * @return rating history
+     */
+    public RatingHistoryResponse read(Long userId, LocalDateTime from, LocalDateTime to) {
+        LocalDate firstMonth = from != null ? from.toLocalDate().withDayOfMonth(1) : LocalDate.of(1970, 1, 1);
+        LocalDate lastMonth = to != null ? to.toLocalDate().withDayOfMonth(1) : LocalDate.of(9999, 12, 1);
+        long fromSecond = from != null ? from.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        long toSecond = to != null ? to.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+
+        Series series = new Series();
+        jdbcTemplate.query(
+                "SELECT data FROM rating_history WHERE user_id = ? AND month BETWEEN ? AND ? ORDER BY month",
+                rs -> {
+                    decode(rs.getBytes(1), fromSecond, toSecond, series);
+                },
+                userId, Date.valueOf(firstMonth), Date.valueOf(lastMonth)
+        );
+
+        int[] kept = DownsamplingUtils.lttb(series.at, series.ratings, series.size, MAX_POINTS);
+
+        List<RatingPointResponse> points = new ArrayList<>(kept.length);
+        for (int i : kept) {
+            points.add(new RatingPointResponse(
+                    LocalDateTime.ofEpochSecond(series.at[i], 0, ZoneOffset.UTC),
+                    (int) series.ratings[i],
+                    series.matchIds[i]
+            ));
+        }
+
+        return new RatingHistoryResponse(userId, series.size, points);
+    }
+
+    private Map<ChunkKey, long[]> loadTails(String table, Set<ChunkKey> keys) {
+        Long[] userIds = keys.stream().map(ChunkKey::userId).distinct().toArray(Long[]::new);
+        LocalDate firstMonth = keys.stream().map(ChunkKey::month).min(LocalDate::compareTo).orElseThrow();
+        LocalDate lastMonth = keys.stream().map(ChunkKey::month).max(LocalDate::compareTo).orElseThrow();
+
+        // A flush nearly always spans one month, so the user/month cross product is tight
+        Map<ChunkKey, long[]> tails = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, month, last_at, last_match_id, last_rating FROM " + table + " " +
+                        "WHERE user_id = ANY(?) AND month BETWEEN ? AND ?",
+                rs -> {
+                    ChunkKey key = new ChunkKey(rs.getLong(1), rs.getDate(2).toLocalDate());
+                    if (keys.contains(key)) {
+                        tails.put(key, new long[]{rs.getLong(3), rs.getLong(4), rs.getInt(5)});
+                    }
+                },
+                userIds, Date.valueOf(firstMonth), Date.valueOf(lastMonth)
+        );
+
+        return tails;
+    }
+
+    private static void decode(byte[] data, long fromSecond, long toSecond, Series series) {
+        long at = 0;
+        long matchId = 0;
+        long rating = 0;
+        int[] position = {0};
+
+        while (position[0] < data.length) {
+            at += readVarLong(data, position);
+            matchId += readVarLong(data, position);
+            rating += readVarLong(data, position);
+
+            if (at >= fromSecond && at <= toSecond) {
+                series.add(at, matchId, rating);
+            }
+        }
+    }
+
+    /**
+     * Zigzag varint: 7 bits per byte, so small deltas of either sign take one or two bytes.
+     */
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    /**
+     * Read one zigzag varint and advance the position past it.
+     */
+    static long readVarLong(byte[] data, int[] position) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private record ChunkKey(Long userId, LocalDate month) {
+
+        static ChunkKey of(RatingChange change) {
+            return new ChunkKey(change.userId(), change.changedAt().toLocalDate().withDayOfMonth(1));
+        }
+    }
+
+    /**
+     * Decoded points in primitive arrays, in time order.
+     */
+    private static final class Series {
+
+        int size;
+        long[] at = new long[64];
+        long[] matchIds = new long[64];
+        double[] ratings = new double[64];
+
+        void add(long second, long matchId, long rating) {
+            if (size == at.length) {
+                at = Arrays.copyOf(at, size * 2);
+                matchIds = Arrays.copyOf(matchIds, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+
+            at[size] = second;
+            matchIds[size] = matchId;
+            ratings[size] = rating;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package com.leagueofcoding.api.service.rating;
+
+import com.leagueofcoding.api.dto.rating.RatingRecomputeStatusResponse;
+import com.leagueofcoding.api.enums.RatingRecomputePhase;
+import com.leagueofcoding.api.enums.SeasonStatus;
+import com.leagueofcoding.api.service.leaderboard.GlobalLeaderboardService;
+import com.leagueofcoding.api.service.season.SeasonResetPolicy;
+import com.leagueofcoding.api.service.user.UserStatsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full ELO recompute from match history, e.g. after a K-factor change.
+ * <p>
+ * Rated matches are streamed through a server-side cursor in end order and
+ * replayed into primitive arrays indexed by user, so heap use depends on the
+ * number of users, never on the number of matches. History is written to the
+ * shadow table {@code rating_history_next} in chunks, and final ratings to
+ * {@code user_ratings_next}. Live rating stays on during the replay; matches it
+ * applies after the replay snapshot are remembered and replayed last while it is paused, then
+ * the shadow tables are swapped in with one transaction. A failed run leaves
+ * the live tables untouched.
+ * <p>
+ * Finished seasons are replayed too: when the replay passes a season's end,
+ * every player who had played gets the same soft reset the rollover applied,
+ * from the season's stored mean. A run refuses to start while a rollover is
+ * still resetting, and fails if one starts before the swap.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class RatingRecomputeJob {
+
+    private static final String HISTORY_TABLE = "rating_history_next";
+    private static final String RATINGS_TABLE = "user_ratings_next";
+    private static final int FETCH_SIZE = 10_000;
+    private static final int CHUNK_SIZE = 5000;
+    private static final int WRITE_BATCH_SIZE = 1000;
+    private static final int INITIAL_RATING = 1200;
+
+    private final EloCalculator calculator;
+    private final EloRatingEngine ratingEngine;
+    private final RatingHistoryStore historyStore;
+    private final GlobalLeaderboardService globalLeaderboardService;
+    private final UserStatsService userStatsService;
+    private final SeasonResetPolicy resetPolicy;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransactionTemplate;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("rating-recompute").daemon().factory()
+    );
+
+    // Matches rated live after the replay snapshot - replayed last, in the catch-up
+    private final Set<Long> liveMatchIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile boolean collecting;
+
+    private volatile RatingRecomputePhase phase = RatingRecomputePhase.IDLE;
+    private volatile long total;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public RatingRecomputeJob(
+            EloCalculator calculator,
+            EloRatingEngine ratingEngine,
+            RatingHistoryStore historyStore,
+            GlobalLeaderboardService globalLeaderboardService,
+            UserStatsService userStatsService,
+            SeasonResetPolicy resetPolicy,
+            DataSource dataSource,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.calculator = calculator;
+        this.ratingEngine = ratingEngine;
+        this.historyStore = historyStore;
+        this.globalLeaderboardService = globalLeaderboardService;
+        this.userStatsService = userStatsService;
+        this.resetPolicy = resetPolicy;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = transactionTemplate;
+
+        // One snapshot for the user list, the count and the match cursor
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a recompute in the background.
+     *
+     * @return false if one is already running or a season rollover is still resetting ratings
+     */
+    public synchronized boolean start() {
+        if (isRunning() || isRolloverResetting()) {
+            return false;
+        }
+
+        liveMatchIds.clear();
+        processed.set(0);
+        total = 0;
+        error = null;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        startNanos = System.nanoTime();
+        phase = RatingRecomputePhase.REPLAYING;
+
+        executor.execute(this::run);
+        return true;
+    }
+
+    /**
+     * Progress of the current or last recompute.
+     */
+    public RatingRecomputeStatusResponse getStatus() {
+        long done = processed.get();
+        long elapsed = (isRunning() ? System.nanoTime() : endNanos) - startNanos;
+        long perSecond = elapsed > 0 ? done * 1_000_000_000L / elapsed : 0;
+        double percent = total > 0 ? Math.min(100.0, done * 100.0 / total) : 0;
+
+        return new RatingRecomputeStatusResponse(
+                phase, done, total, percent, perSecond, startedAt, finishedAt, error
+        );
+    }
+
+    /**
+     * Remember matches rated live during the replay.
+     */
+    @EventListener
+    public void onRatingsChanged(RatingsChangedEvent event) {
+        if (collecting) {
+            event.changes().forEach(change -> liveMatchIds.add(change.matchId()));
+        }
+    }
+
+    private boolean isRunning() {
+        return phase == RatingRecomputePhase.REPLAYING
+                || phase == RatingRecomputePhase.CATCHING_UP
+                || phase == RatingRecomputePhase.SWAPPING;
+    }
+
+    private void run() {
+        try {
+            createShadowTables();
+
+            Replay replay = new Replay();
+            snapshotTransactionTemplate.executeWithoutResult(status -> replayHistory(replay));
+
+            // Pause live rating for the tail and the swap - completed matches keep queuing
+            ratingEngine.runPaused(() -> {
+                collecting = false;
+                phase = RatingRecomputePhase.CATCHING_UP;
+                transactionTemplate.executeWithoutResult(status -> catchUp(replay));
+
+                phase = RatingRecomputePhase.SWAPPING;
+                transactionTemplate.executeWithoutResult(status -> swap(replay));
+            });
+
+            jdbcTemplate.execute("ALTER TABLE rating_history VALIDATE CONSTRAINT fk_rating_history_user");
+            globalLeaderboardService.rebuild();
+            userStatsService.syncRatings();
+
+            finish(RatingRecomputePhase.COMPLETED, null);
+            log.info("Rating recompute replayed {} matches for {} users in {} ms",
+                    processed.get(), replay.size, (endNanos - startNanos) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.error("Rating recompute failed", ex);
+            dropShadowTables();
+            finish(RatingRecomputePhase.FAILED, ex.getMessage());
+        }
+    }
+
+    /**
+     * A half-done rollover has reset only some players - the replay cannot reproduce that.
+     */
+    private boolean isRolloverResetting() {
+        Integer resetting = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seasons WHERE status = ?", Integer.class, SeasonStatus.RESETTING.name());
+        return resetting != null && resetting > 0;
+    }
+
+    /**
+     * Completed seasons not yet replayed, in end order.
+     */
+    private void loadSeasons(Replay replay) {
+        jdbcTemplate.query(
+                "SELECT id, ended_at, reset_mean FROM seasons WHERE status = ? AND id <> ALL(?) ORDER BY ended_at",
+                rs -> {
+                    replay.seasons.add(new SeasonEnd(
+                            rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getInt(3)));
+                },
+                SeasonStatus.COMPLETED.name(), (Object) replay.seasonIds().toArray(Long[]::new)
+        );
+    }
+
+    private void finish(RatingRecomputePhase result, String message) {
+        endNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        error = message;
+        phase = result;
+        collecting = false;
+        liveMatchIds.clear();
+    }
+
+    private void createShadowTables() {
+        dropShadowTables();
+        jdbcTemplate.execute("CREATE TABLE " + HISTORY_TABLE + " (LIKE rating_history INCLUDING ALL)");
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE " + RATINGS_TABLE + " (" +
+                "user_id BIGINT PRIMARY KEY, elo_rating INTEGER NOT NULL, matches_played INTEGER NOT NULL, " +
+                "wins INTEGER NOT NULL, losses INTEGER NOT NULL, draws INTEGER NOT NULL)");
+    }
+
+    private void dropShadowTables() {
+        try {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + HISTORY_TABLE);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + RATINGS_TABLE);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to drop rating recompute shadow tables", ex);
+        }
+    }
+
+    /**
+     * Stream every match rated before the snapshot, oldest first.
+     * Must run in a repeatable read transaction: the driver only fetches with a cursor
+     * inside a transaction, and the snapshot splits matches exactly into replayed here
+     * or collected for the catch-up.
+     */
+    private void replayHistory(Replay replay) {
+        // Taken with no flush in progress - every later flush commits after the snapshot
+        ratingEngine.runPaused(() -> {
+            total = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM matches WHERE status = 'COMPLETED' AND rated", Long.class);
+            collecting = true;
+        });
+
+        jdbcTemplate.query("SELECT id FROM users ORDER BY id", rs -> {
+            replay.addUser(rs.getLong(1));
+        });
+        loadSeasons(replay);
+
+        List<RatingChange> changes = new ArrayList<>(CHUNK_SIZE * 2);
+
+        jdbcTemplate.query(
+                "SELECT id, player1_id, player2_id, winner_id, ended_at FROM matches " +
+                        "WHERE status = 'COMPLETED' AND rated ORDER BY ended_at, id",
+                rs -> {
+                    replayRow(replay, rs, changes);
+                    if (changes.size() >= CHUNK_SIZE * 2) {
+                        historyStore.append(HISTORY_TABLE, changes);
+                        changes.clear();
+                    }
+                }
+        );
+
+        if (!changes.isEmpty()) {
+            historyStore.append(HISTORY_TABLE, changes);
+        }
+    }
+
+    /**
+     * Replay matches the live engine rated during the main pass, with live rating paused.
+     */
+    private void catchUp(Replay replay) {
+        // Users who registered during the replay
+        jdbcTemplate.query(
+                "SELECT id FROM users WHERE id > ? ORDER BY id",
+                rs -> {
+                    replay.addUser(rs.getLong(1));
+                },
+                replay.size > 0 ? replay.userIds[replay.size - 1] : 0L
+        );
+
+        // A rollover that ran during the replay would be overwritten by the swap
+        if (isRolloverResetting()) {
+            throw new IllegalStateException("Season rollover started during the recompute");
+        }
+        loadSeasons(replay);
+
+        if (!liveMatchIds.isEmpty()) {
+            total += liveMatchIds.size();
+            List<RatingChange> changes = new ArrayList<>(liveMatchIds.size() * 2);
+            jdbcTemplate.query(
+                    "SELECT id, player1_id, player2_id, winner_id, ended_at FROM matches " +
+                            "WHERE id = ANY(?) ORDER BY ended_at, id",
+                    rs -> {
+                        replayRow(replay, rs, changes);
+                    },
+                    (Object) liveMatchIds.toArray(Long[]::new)
+            );
+
+            historyStore.append(HISTORY_TABLE, changes);
+        }
+
+        // Seasons that ended after the last rated match
+        resetSeasonsBefore(replay, null);
+    }
+
+    /**
+     * Apply the soft reset of every season that ended before the given time, all of them if null.
+     */
+    private void resetSeasonsBefore(Replay replay, LocalDateTime time) {
+        while (replay.nextSeason < replay.seasons.size()) {
+            SeasonEnd season = replay.seasons.get(replay.nextSeason);
+            if (time != null && season.endedAt().isAfter(time)) {
+                return;
+            }
+
+            for (int user = 0; user < replay.size; user++) {
+                if (replay.matchesPlayed[user] > 0) {
+                    replay.elo[user] = resetPolicy.resetRating(
+                            replay.elo[user], season.mean(), replay.lastPlayedAt(user), season.endedAt());
+                }
+            }
+            replay.nextSeason++;
+        }
+    }
+
+    private void replayRow(Replay replay, ResultSet rs, List<RatingChange> changes) throws SQLException {
+        long matchId = rs.getLong(1);
+        int player1 = replay.indexOf(rs.getLong(2));
+        int player2 = replay.indexOf(rs.getLong(3));
+        long winnerId = rs.getLong(4);
+        boolean draw = rs.wasNull();
+        LocalDateTime endedAt = rs.getTimestamp(5).toLocalDateTime();
+        resetSeasonsBefore(replay, endedAt);
+
+        double score1 = draw ? 0.5 : winnerId == replay.userIds[player1] ? 1.0 : 0.0;
+        int delta = calculator.delta(replay.elo[player1], replay.elo[player2], score1);
+
+        changes.add(replay.apply(player1, matchId, delta, score1, endedAt));
+        changes.add(replay.apply(player2, matchId, -delta, 1.0 - score1, endedAt));
+        processed.incrementAndGet();
+    }
+
+    /**
+     * Write final ratings and swap the shadow tables in, all in one transaction.
+     */
+    private void swap(Replay replay) {
+        int[] played = replay.playedUsers();
+
+        for (int offset = 0; offset < played.length; offset += WRITE_BATCH_SIZE) {
+            int chunkStart = offset;
+            int chunkSize = Math.min(WRITE_BATCH_SIZE, played.length - offset);
+
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO " + RATINGS_TABLE + " (user_id, elo_rating, matches_played, wins, losses, draws) " +
+                            "VALUES (?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int user = played[chunkStart + i];
+                            ps.setLong(1, replay.userIds[user]);
+                            ps.setInt(2, replay.elo[user]);
+                            ps.setInt(3, replay.matchesPlayed[user]);
+                            ps.setInt(4, replay.wins[user]);
+                            ps.setInt(5, replay.losses[user]);
+                            ps.setInt(6, replay.draws[user]);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunkSize;
+                        }
+                    }
+            );
+        }
+
+        jdbcTemplate.execute("LOCK TABLE user_ratings IN SHARE ROW EXCLUSIVE MODE");
+
+        // Version bump makes any in-flight rating writer retry on top of the new values
+        jdbcTemplate.update(
+                "UPDATE user_ratings r SET elo_rating = n.elo_rating, matches_played = n.matches_played, " +
+                        "wins = n.wins, losses = n.losses, draws = n.draws, " +
+                        "version = r.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                        "FROM " + RATINGS_TABLE + " n WHERE r.user_id = n.user_id");
+        jdbcTemplate.update(
+                "UPDATE user_ratings r SET elo_rating = ?, matches_played = 0, wins = 0, losses = 0, draws = 0, " +
+                        "version = r.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE r.matches_played > 0 " +
+                        "AND NOT EXISTS (SELECT 1 FROM " + RATINGS_TABLE + " n WHERE n.user_id = r.user_id)",
+                INITIAL_RATING);
+        jdbcTemplate.update(
+                "INSERT INTO user_ratings (user_id, elo_rating, matches_played, wins, losses, draws) " +
+                        "SELECT n.user_id, n.elo_rating, n.matches_played, n.wins, n.losses, n.draws " +
+                        "FROM " + RATINGS_TABLE + " n " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM user_ratings r WHERE r.user_id = n.user_id)");
+
+        // Legacy columns on users
+        jdbcTemplate.update(
+                "UPDATE users u SET rating = r.elo_rating, total_matches = r.matches_played, " +
+                        "wins = r.wins, losses = r.losses " +
+                        "FROM user_ratings r WHERE u.id = r.user_id AND (u.rating, u.total_matches, u.wins, u.losses) " +
+                        "IS DISTINCT FROM (r.elo_rating, r.matches_played, r.wins, r.losses)");
+
+        // History: rename is metadata only, readers see either the old or the new table
+        jdbcTemplate.execute("DROP TABLE rating_history");
+        jdbcTemplate.execute("ALTER TABLE " + HISTORY_TABLE + " RENAME TO rating_history");
+        jdbcTemplate.execute("ALTER TABLE rating_history RENAME CONSTRAINT " + HISTORY_TABLE + "_pkey TO rating_history_pkey");
+        jdbcTemplate.execute("ALTER TABLE rating_history ADD CONSTRAINT fk_rating_history_user " +
+                "FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE NOT VALID");
+
+        jdbcTemplate.execute("DROP TABLE " + RATINGS_TABLE);
+    }
+
+    /**
+     * Replay state in primitive arrays ordered by user ID - the position is the user index.
+     * About 36 bytes per user.
+     */
+    private static final class Replay {
+
+        final List<SeasonEnd> seasons = new ArrayList<>();
+        int nextSeason;
+
+        int size;
+        long[] userIds = new long[1024];
+        int[] elo = new int[1024];
+        int[] matchesPlayed = new int[1024];
+        int[] wins = new int[1024];
+        int[] losses = new int[1024];
+        int[] draws = new int[1024];
+        // Epoch seconds in UTC - minute precision is plenty for the inactivity decay
+        long[] lastPlayed = new long[1024];
+
+        void addUser(long userId) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                elo = Arrays.copyOf(elo, capacity);
+                matchesPlayed = Arrays.copyOf(matchesPlayed, capacity);
+                wins = Arrays.copyOf(wins, capacity);
+                losses = Arrays.copyOf(losses, capacity);
+                draws = Arrays.copyOf(draws, capacity);
+                lastPlayed = Arrays.copyOf(lastPlayed, capacity);
+            }
+
+            userIds[size] = userId;
+            elo[size] = INITIAL_RATING;
+            size++;
+        }
+
+        int indexOf(long userId) {
+            int index = Arrays.binarySearch(userIds, 0, size, userId);
+            if (index < 0) {
+                throw new IllegalStateException("Match player " + userId + " not found");
+            }
+            return index;
+        }
+
+        RatingChange apply(int user, long matchId, int delta, double score, LocalDateTime endedAt) {
+            int before = elo[user];
+            elo[user] = before + delta;
+            matchesPlayed[user]++;
+            lastPlayed[user] = endedAt.toEpochSecond(ZoneOffset.UTC);
+
+            if (score == 1.0) {
+                wins[user]++;
+            } else if (score == 0.0) {
+                losses[user]++;
+            } else {
+                draws[user]++;
+            }
+
+            return new RatingChange(userIds[user], matchId, before, before + delta, endedAt);
+        }
+
+        LocalDateTime lastPlayedAt(int user) {
+            return LocalDateTime.ofEpochSecond(lastPlayed[user], 0, ZoneOffset.UTC);
+        }
+
+        List<Long> seasonIds() {
+            return seasons.stream().map(SeasonEnd::id).toList();
+        }
+
+        int[] playedUsers() {
+            int[] played = new int[size];
+            int count = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (matchesPlayed[i] > 0) {
+                    played[count++] = i;
+                }
+            }
+
+            return Arrays.copyOf(played, count);
+        }
+    }
+
+    private record SeasonEnd(long id, LocalDateTime endedAt, int mean) {
+    }
+}
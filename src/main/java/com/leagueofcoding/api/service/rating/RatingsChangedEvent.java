@@ -0,0 +1,13 @@
+package com.leagueofcoding.api.service.rating;
+
+import java.util.List;
+
+/**
+ * Published after a rating flush is committed.
+ * Changes are in match end order, so the last change of a user is the current rating.
+ *
+ * @param changes committed rating changes
+ * @author dao-nguyenminh
+ */
+public record RatingsChangedEvent(List<RatingChange> changes) {
+}
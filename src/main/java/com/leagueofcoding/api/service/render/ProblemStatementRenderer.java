@@ -0,0 +1,442 @@
+package com.leagueofcoding.api.service.render;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders problem statements from Markdown to HTML once per edit.
+ * <p>
+ * Supported: paragraphs, ATX headings, emphasis, inline and fenced code,
+ * lists, block quotes, rules, links and images. LaTeX between {@code $...$}
+ * or {@code $$...$$} is kept as escaped TeX in {@code math-inline} /
+ * {@code math-display} elements for the client's math typesetter.
+ * <p>
+ * The output is sanitized by construction: every character of the source is
+ * HTML-escaped, raw HTML is never passed through, only the tags above are
+ * emitted, and links and images only accept http(s), mailto and relative URLs.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class ProblemStatementRenderer {
+
+    private static final int MAX_QUOTE_DEPTH = 4;
+
+    private static final Pattern FENCE = Pattern.compile("^ {0,3}(`{3,}|~{3,})\\s*([\\w+#-]*)\\s*$");
+    private static final Pattern HEADING = Pattern.compile("^ {0,3}(#{1,6})\\s+(.*?)(\\s+#+)?\\s*$");
+    private static final Pattern RULE = Pattern.compile("^ {0,3}([-*_])(\\s*\\1){2,}\\s*$");
+    private static final Pattern LIST_ITEM = Pattern.compile("^ {0,3}([-*+]|(\\d{1,9})[.)])\\s+(.*)$");
+    private static final Pattern SAFE_URL = Pattern.compile("^(https?://|mailto:|/|#)[^\\s]*$", Pattern.CASE_INSENSITIVE);
+    private static final String ESCAPABLE = "\\`*_{}[]()#+-.!$>|~";
+
+    /**
+     * Render a statement.
+     *
+     * @param markdown statement source
+     * @return sanitized HTML and its SHA-256 (hex)
+     */
+    public Rendered render(String markdown) {
+        String html = toHtml(markdown);
+        return new Rendered(html, sha256(html));
+    }
+
+    String toHtml(String markdown) {
+        StringBuilder out = new StringBuilder(markdown.length() + markdown.length() / 4);
+        String[] lines = markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        blocks(lines, out, 0);
+        return out.toString();
+    }
+
+    private void blocks(String[] lines, StringBuilder out, int depth) {
+        List<String> paragraph = new ArrayList<>();
+        int i = 0;
+
+        while (i < lines.length) {
+            String line = lines[i];
+            String trimmed = line.strip();
+
+            if (trimmed.isEmpty()) {
+                paragraph(paragraph, out);
+                i++;
+                continue;
+            }
+
+            Matcher fence = FENCE.matcher(line);
+            if (fence.matches()) {
+                paragraph(paragraph, out);
+                i = codeBlock(lines, i, fence.group(1), fence.group(2), out);
+                continue;
+            }
+
+            if (trimmed.startsWith("$$")) {
+                paragraph(paragraph, out);
+                i = mathBlock(lines, i, out);
+                continue;
+            }
+
+            Matcher heading = HEADING.matcher(line);
+            if (heading.matches()) {
+                paragraph(paragraph, out);
+                int level = heading.group(1).length();
+                out.append("<h").append(level).append('>');
+                inline(heading.group(2), out);
+                out.append("</h").append(level).append(">\n");
+                i++;
+                continue;
+            }
+
+            if (RULE.matcher(line).matches()) {
+                paragraph(paragraph, out);
+                out.append("<hr>\n");
+                i++;
+                continue;
+            }
+
+            if (trimmed.startsWith(">") && depth < MAX_QUOTE_DEPTH) {
+                paragraph(paragraph, out);
+                List<String> quoted = new ArrayList<>();
+                while (i < lines.length && lines[i].strip().startsWith(">")) {
+                    String inner = lines[i].strip().substring(1);
+                    quoted.add(inner.startsWith(" ") ? inner.substring(1) : inner);
+                    i++;
+                }
+                out.append("<blockquote>\n");
+                blocks(quoted.toArray(String[]::new), out, depth + 1);
+                out.append("</blockquote>\n");
+                continue;
+            }
+
+            Matcher item = LIST_ITEM.matcher(line);
+            if (item.matches()) {
+                paragraph(paragraph, out);
+                i = list(lines, i, out);
+                continue;
+            }
+
+            paragraph.add(trimmed);
+            i++;
+        }
+
+        paragraph(paragraph, out);
+    }
+
+    private void paragraph(List<String> lines, StringBuilder out) {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        out.append("<p>");
+        inline(String.join("\n", lines), out);
+        out.append("</p>\n");
+        lines.clear();
+    }
+
+    /**
+     * Fenced code block from line {@code start}; unclosed fences run to the end.
+     *
+     * @return index of the first line after the block
+     */
+    private int codeBlock(String[] lines, int start, String marker, String language, StringBuilder out) {
+        out.append("<pre><code");
+        if (!language.isEmpty()) {
+            // [\w+#-]* - nothing to escape
+            out.append(" class=\"language-").append(language).append('"');
+        }
+        out.append('>');
+
+        int i = start + 1;
+        while (i < lines.length && !lines[i].strip().startsWith(marker)) {
+            escape(lines[i], out);
+            out.append('\n');
+            i++;
+        }
+
+        out.append("</code></pre>\n");
+        return Math.min(i + 1, lines.length);
+    }
+
+    /**
+     * Display math, either {@code $$...$$} on one line or between {@code $$} lines.
+     *
+     * @return index of the first line after the block
+     */
+    private int mathBlock(String[] lines, int start, StringBuilder out) {
+        String first = lines[start].strip().substring(2);
+        StringBuilder tex = new StringBuilder();
+        int i = start;
+
+        if (first.endsWith("$$")) {
+            tex.append(first, 0, first.length() - 2);
+            i++;
+        } else {
+            tex.append(first);
+            i++;
+            while (i < lines.length) {
+                String line = lines[i++].strip();
+                if (line.endsWith("$$")) {
+                    tex.append('\n').append(line, 0, line.length() - 2);
+                    break;
+                }
+                tex.append('\n').append(line);
+            }
+        }
+
+        out.append("<div class=\"math math-display\">");
+        escape(tex.toString().strip(), out);
+        out.append("</div>\n");
+        return i;
+    }
+
+    /**
+     * One flat list of the type of line {@code start}. Continuation lines join
+     * their item; a blank line ends the list unless another item follows.
+     *
+     * @return index of the first line after the list
+     */
+    private int list(String[] lines, int start, StringBuilder out) {
+        Matcher first = LIST_ITEM.matcher(lines[start]);
+        first.matches();
+        boolean ordered = first.group(2) != null;
+
+        List<StringBuilder> items = new ArrayList<>();
+        int i = start;
+        while (i < lines.length) {
+            String line = lines[i];
+            Matcher item = LIST_ITEM.matcher(line);
+
+            if (item.matches() && (item.group(2) != null) == ordered && !RULE.matcher(line).matches()) {
+                items.add(new StringBuilder(item.group(3).strip()));
+                i++;
+            } else if (!line.isBlank() && !items.isEmpty() && !startsBlock(line)) {
+                items.getLast().append('\n').append(line.strip());
+                i++;
+            } else if (line.isBlank() && i + 1 < lines.length && isSameListItem(lines[i + 1], ordered)) {
+                i++;
+            } else {
+                break;
+            }
+        }
+
+        if (ordered) {
+            long number = Long.parseLong(first.group(2));
+            out.append(number == 1 ? "<ol>\n" : "<ol start=\"" + number + "\">\n");
+        } else {
+            out.append("<ul>\n");
+        }
+        for (StringBuilder item : items) {
+            out.append("<li>");
+            inline(item.toString(), out);
+            out.append("</li>\n");
+        }
+        out.append(ordered ? "</ol>\n" : "</ul>\n");
+        return i;
+    }
+
+    private static boolean isSameListItem(String line, boolean ordered) {
+        Matcher item = LIST_ITEM.matcher(line);
+        return item.matches() && (item.group(2) != null) == ordered;
+    }
+
+    private static boolean startsBlock(String line) {
+        String trimmed = line.strip();
+        return FENCE.matcher(line).matches() || HEADING.matcher(line).matches() || RULE.matcher(line).matches()
+                || trimmed.startsWith(">") || trimmed.startsWith("$$") || LIST_ITEM.matcher(line).matches();
+    }
+
+    /**
+     * Inline Markdown. Unmatched markup is output as escaped text.
+     */
+    private void inline(String text, StringBuilder out) {
+        int n = text.length();
+        int i = 0;
+
+        while (i < n) {
+            char c = text.charAt(i);
+
+            if (c == '\\' && i + 1 < n && ESCAPABLE.indexOf(text.charAt(i + 1)) >= 0) {
+                escape(text.charAt(i + 1), out);
+                i += 2;
+                continue;
+            }
+
+            int next = switch (c) {
+                case '`' -> codeSpan(text, i, out);
+                case '$' -> mathSpan(text, i, out);
+                case '[' -> link(text, i, false, out);
+                case '!' -> i + 1 < n && text.charAt(i + 1) == '[' ? link(text, i + 1, true, out) : -1;
+                case '*', '_' -> emphasis(text, i, out);
+                default -> -1;
+            };
+
+            if (next > i) {
+                i = next;
+            } else {
+                escape(c, out);
+                i++;
+            }
+        }
+    }
+
+    private int codeSpan(String text, int start, StringBuilder out) {
+        int run = 0;
+        while (start + run < text.length() && text.charAt(start + run) == '`') {
+            run++;
+        }
+
+        int close = text.indexOf("`".repeat(run), start + run);
+        if (close < 0) {
+            return -1;
+        }
+
+        out.append("<code>");
+        escape(text.substring(start + run, close).strip(), out);
+        out.append("</code>");
+        return close + run;
+    }
+
+    private int mathSpan(String text, int start, StringBuilder out) {
+        boolean display = text.startsWith("$$", start);
+        String delimiter = display ? "$$" : "$";
+        int from = start + delimiter.length();
+
+        int close = from;
+        while ((close = text.indexOf(delimiter, close)) >= 0 && text.charAt(close - 1) == '\\') {
+            close++;
+        }
+        if (close <= from || Character.isWhitespace(text.charAt(from))
+                || Character.isWhitespace(text.charAt(close - 1))) {
+            return -1;
+        }
+
+        out.append(display ? "<span class=\"math math-display\">" : "<span class=\"math math-inline\">");
+        escape(text.substring(from, close), out);
+        out.append("</span>");
+        return close + delimiter.length();
+    }
+
+    /**
+     * {@code [text](url)} or, with {@code image}, {@code ![alt](url)} - {@code start} is at the '['.
+     * A link with an unsafe URL is rendered as its text.
+     */
+    private int link(String text, int start, boolean image, StringBuilder out) {
+        int labelEnd = text.indexOf("](", start);
+        int urlEnd = labelEnd < 0 ? -1 : closingParenthesis(text, labelEnd + 2);
+        if (urlEnd < 0) {
+            return -1;
+        }
+
+        String label = text.substring(start + 1, labelEnd);
+        String url = text.substring(labelEnd + 2, urlEnd).strip();
+        boolean safe = SAFE_URL.matcher(url).matches();
+
+        if (image && safe) {
+            out.append("<img src=\"");
+            escape(url, out);
+            out.append("\" alt=\"");
+            escape(label, out);
+            out.append("\" loading=\"lazy\">");
+        } else if (!image && safe) {
+            out.append("<a href=\"");
+            escape(url, out);
+            out.append("\" rel=\"nofollow noopener noreferrer\">");
+            inline(label, out);
+            out.append("</a>");
+        } else {
+            escape(label, out);
+        }
+        return urlEnd + 1;
+    }
+
+    /**
+     * Index of the ')' closing a link URL that starts at {@code from}, allowing
+     * balanced parentheses inside; -1 if the line ends first.
+     */
+    private static int closingParenthesis(String text, int from) {
+        int depth = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                return -1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && depth-- == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@code *em*} / {@code **strong**}, or the same with underscores. The content is inline
+     * Markdown again, so emphasis nests.
+     */
+    private int emphasis(String text, int start, StringBuilder out) {
+        char marker = text.charAt(start);
+        boolean strong = start + 1 < text.length() && text.charAt(start + 1) == marker;
+        String delimiter = strong ? String.valueOf(marker).repeat(2) : String.valueOf(marker);
+        int from = start + delimiter.length();
+
+        // snake_case and 2*3*4 are not emphasis
+        if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1)) && (marker == '_' || !strong)) {
+            return -1;
+        }
+
+        int close = text.indexOf(delimiter, from);
+        while (!strong && close >= 0 && close + 1 < text.length() && text.charAt(close + 1) == marker) {
+            close = text.indexOf(delimiter, close + 2);
+        }
+        if (close <= from || Character.isWhitespace(text.charAt(from))
+                || Character.isWhitespace(text.charAt(close - 1))) {
+            return -1;
+        }
+
+        String tag = strong ? "strong" : "em";
+        out.append('<').append(tag).append('>');
+        inline(text.substring(from, close), out);
+        out.append("</").append(tag).append('>');
+        return close + delimiter.length();
+    }
+
+    private static void escape(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            escape(text.charAt(i), out);
+        }
+    }
+
+    private static void escape(char c, StringBuilder out) {
+        switch (c) {
+            case '&' -> out.append("&amp;");
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '"' -> out.append("&quot;");
+            case '\'' -> out.append("&#39;");
+            default -> out.append(c);
+        }
+    }
+
+    private static String sha256(String html) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(html.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Rendered statement.
+     *
+     * @param html sanitized HTML
+     * @param hash SHA-256 of the HTML, hex
+     */
+    public record Rendered(String html, String hash) {
+    }
+}
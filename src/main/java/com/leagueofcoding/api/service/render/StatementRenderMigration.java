@@ -0,0 +1,87 @@
+package com.leagueofcoding.api.service.render;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Flyway V21: render the description of every existing problem, then make the
+ * rendered columns NOT NULL.
+ * <p>
+ * Rows are streamed with a cursor and updated in JDBC batches. Registered with
+ * Flyway as a Spring bean, so it renders with the same
+ * {@link ProblemStatementRenderer} as live writes.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class StatementRenderMigration extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProblemStatementRenderer renderer;
+
+    public StatementRenderMigration(ProblemStatementRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    @Override
+    protected void init() {
+        // Version and description are declared below, not parsed from the class name
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("21");
+    }
+
+    @Override
+    public String getDescription() {
+        return "render problem descriptions";
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        int rendered = 0;
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE problems SET description_html = ?, description_hash = ? WHERE id = ?")) {
+            // Cursor-based fetch - Flyway runs the migration outside auto-commit
+            select.setFetchSize(BATCH_SIZE);
+
+            try (ResultSet rs = select.executeQuery("SELECT id, description FROM problems")) {
+                while (rs.next()) {
+                    ProblemStatementRenderer.Rendered statement = renderer.render(rs.getString(2));
+
+                    update.setString(1, statement.html());
+                    update.setString(2, statement.hash());
+                    update.setLong(3, rs.getLong(1));
+                    update.addBatch();
+
+                    if (++rendered % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement alter = connection.createStatement()) {
+            alter.execute("ALTER TABLE problems " +
+                    "ALTER COLUMN description_html SET NOT NULL, " +
+                    "ALTER COLUMN description_hash SET NOT NULL");
+        }
+
+        log.info("Rendered descriptions of {} problems", rendered);
+    }
+}
@@ -0,0 +1,13 @@
+package com.leagueofcoding.api.service.search;
+
+/**
+ * Filterable attributes of a problem, indexed by {@link ProblemFacetIndex}.
+ * A new facet is a constant here plus its values in the index loader.
+ *
+ * @author dao-nguyenminh
+ */
+public enum ProblemFacet {
+    DIFFICULTY,
+    CATEGORY,
+    TAG
+}
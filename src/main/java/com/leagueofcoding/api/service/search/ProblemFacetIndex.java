@@ -0,0 +1,259 @@
+package com.leagueofcoding.api.service.search;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.leagueofcoding.api.service.ProblemChangedEvent;
+import com.leagueofcoding.api.service.battle.SubmissionJudgedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bitmap index of active problems per facet value, for faceted filtering.
+ * <p>
+ * Every facet value (a difficulty, a category, a tag) maps to a bitmap whose
+ * set bits are problem IDs, and every user who filters by "unsolved" gets a
+ * bitmap of solved problem IDs, loaded on first use. A filter is then pure
+ * bitmap algebra - OR within a facet (or AND, for "all of these tags"), AND
+ * across facets, AND NOT solved - and only the requested page of IDs is
+ * fetched from the database.
+ * <p>
+ * Problem bitmaps are built on startup and then kept current one problem at a
+ * time from {@link ProblemChangedEvent}s; solved bitmaps from first solves.
+ * Problem IDs are dense sequence values, so plain {@link BitSet}s stay compact.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class ProblemFacetIndex {
+
+    private static final String SELECT_PROBLEMS =
+            "SELECT p.id, p.difficulty, p.category_id, " +
+                    "ARRAY(SELECT t.tag FROM problem_tags t WHERE t.problem_id = p.id) " +
+                    "FROM problems p WHERE p.is_active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by this. facet -> value -> problem IDs, and each problem's values for removal
+    private final Map<ProblemFacet, Map<String, BitSet>> bitmaps = new EnumMap<>(ProblemFacet.class);
+    private final Map<Integer, Map<ProblemFacet, Set<String>>> valuesByProblem = new HashMap<>();
+    private final BitSet active = new BitSet();
+
+    // Each bitmap is guarded by itself
+    private final LoadingCache<Long, BitSet> solvedByUser;
+
+    public ProblemFacetIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.solvedByUser = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build(this::loadSolved);
+
+        for (ProblemFacet facet : ProblemFacet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Build the problem bitmaps. Changes committed meanwhile wait for the lock
+     * and are applied on top.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long startNanos = System.nanoTime();
+
+        jdbcTemplate.query(SELECT_PROBLEMS, rs -> {
+            Document document = readDocument(rs);
+            // A change indexed before the build already has bits set
+            remove(document.problemId());
+            put(document);
+        });
+
+        log.info("Problem facet index built: {} problems in {} ms",
+                active.cardinality(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Re-index a changed problem once its transaction commits; an inactive
+     * problem is dropped from every bitmap.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProblemChanged(ProblemChangedEvent event) {
+        List<Document> loaded = jdbcTemplate.query(
+                SELECT_PROBLEMS + " AND p.id = ?",
+                (rs, i) -> readDocument(rs),
+                event.problemId()
+        );
+
+        synchronized (this) {
+            remove(Math.toIntExact(event.problemId()));
+            if (!loaded.isEmpty()) {
+                put(loaded.getFirst());
+            }
+        }
+    }
+
+    /**
+     * Add a committed first solve to the user's bitmap, if it is loaded.
+     * A load in progress for the same user finishes first.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (!event.firstSolve()) {
+            return;
+        }
+
+        solvedByUser.asMap().computeIfPresent(event.userId(), (userId, solved) -> {
+            synchronized (solved) {
+                solved.set(Math.toIntExact(event.problemId()));
+            }
+            return solved;
+        });
+    }
+
+    /**
+     * Active problems matching every criterion, in ID order.
+     *
+     * @param criteria     facet criteria, combined with AND
+     * @param unsolvedBy   user whose solved problems are excluded, or null
+     * @param afterId      only IDs greater than this (keyset position), 0 for the start
+     * @param limit        maximum IDs returned
+     * @return matching IDs after the position, and the total number of matches
+     */
+    public Match filter(Collection<Criterion> criteria, Long unsolvedBy, long afterId, int limit) {
+        BitSet result;
+
+        synchronized (this) {
+            result = (BitSet) active.clone();
+            for (Criterion criterion : criteria) {
+                result.and(evaluate(criterion));
+            }
+        }
+
+        if (unsolvedBy != null) {
+            BitSet solved = solvedByUser.get(unsolvedBy);
+            synchronized (solved) {
+                result.andNot(solved);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        int from = (int) Math.min(afterId + 1, Integer.MAX_VALUE);
+        for (int id = result.nextSetBit(from); id >= 0 && ids.size() < limit; id = result.nextSetBit(id + 1)) {
+            ids.add((long) id);
+        }
+
+        return new Match(ids, result.cardinality());
+    }
+
+    /**
+     * Problems matching one criterion. Caller holds the lock.
+     */
+    private BitSet evaluate(Criterion criterion) {
+        Map<String, BitSet> values = bitmaps.get(criterion.facet());
+        BitSet matched = null;
+
+        for (String value : criterion.values()) {
+            BitSet bitmap = values.getOrDefault(value, new BitSet());
+            if (matched == null) {
+                matched = (BitSet) bitmap.clone();
+            } else if (criterion.matchAll()) {
+                matched.and(bitmap);
+            } else {
+                matched.or(bitmap);
+            }
+        }
+
+        return matched != null ? matched : (BitSet) active.clone();
+    }
+
+    /**
+     * Index a problem. Caller holds the lock.
+     */
+    private void put(Document document) {
+        int problemId = document.problemId();
+
+        document.values().forEach((facet, facetValues) -> facetValues.forEach(value ->
+                bitmaps.get(facet).computeIfAbsent(value, v -> new BitSet()).set(problemId)));
+        valuesByProblem.put(problemId, document.values());
+        active.set(problemId);
+    }
+
+    /**
+     * Drop a problem from every bitmap. Caller holds the lock.
+     */
+    private void remove(int problemId) {
+        Map<ProblemFacet, Set<String>> values = valuesByProblem.remove(problemId);
+        if (values == null) {
+            return;
+        }
+
+        values.forEach((facet, facetValues) -> facetValues.forEach(value -> {
+            BitSet bitmap = bitmaps.get(facet).get(value);
+            bitmap.clear(problemId);
+            if (bitmap.isEmpty()) {
+                bitmaps.get(facet).remove(value);
+            }
+        }));
+        active.clear(problemId);
+    }
+
+    private static Document readDocument(ResultSet rs) throws SQLException {
+        Map<ProblemFacet, Set<String>> values = new EnumMap<>(ProblemFacet.class);
+        values.put(ProblemFacet.DIFFICULTY, Set.of(rs.getString(2)));
+        values.put(ProblemFacet.CATEGORY, Set.of(Long.toString(rs.getLong(3))));
+        values.put(ProblemFacet.TAG, Set.of((String[]) rs.getArray(4).getArray()));
+
+        return new Document(Math.toIntExact(rs.getLong(1)), values);
+    }
+
+    private BitSet loadSolved(Long userId) {
+        BitSet solved = new BitSet();
+        jdbcTemplate.query("SELECT problem_id FROM user_solved_problems WHERE user_id = ?",
+                rs -> {
+                    solved.set(Math.toIntExact(rs.getLong(1)));
+                }, userId);
+        return solved;
+    }
+
+    /**
+     * Indexed problem: its ID (the bit) and its values per facet.
+     */
+    private record Document(int problemId, Map<ProblemFacet, Set<String>> values) {
+    }
+
+    /**
+     * Filter on one facet.
+     *
+     * @param facet    facet
+     * @param values   accepted values; empty matches everything
+     * @param matchAll require every value (e.g. all tags) instead of any
+     */
+    public record Criterion(ProblemFacet facet, Set<String> values, boolean matchAll) {
+    }
+
+    /**
+     * One page of filter results.
+     *
+     * @param problemIds matching IDs, ascending
+     * @param total      matches across all pages
+     */
+    public record Match(List<Long> problemIds, int total) {
+    }
+}
@@ -0,0 +1,351 @@
+package com.leagueofcoding.api.service.search;
+
+import com.leagueofcoding.api.dto.problem.CategoryResponse;
+import com.leagueofcoding.api.dto.problem.ProblemSearchHitResponse;
+import com.leagueofcoding.api.dto.problem.ProblemSummaryResponse;
+import com.leagueofcoding.api.enums.Difficulty;
+import com.leagueofcoding.api.service.ProblemChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over active problems.
+ * <p>
+ * Title and description are tokenized (lowercased, accents folded, split on
+ * anything that is not a letter or digit) into an inverted index of postings
+ * per term. Queries are ranked with BM25 over one combined field in which a
+ * title occurrence counts {@link #TITLE_BOOST} times; the last query token is
+ * also matched as a prefix, so results follow the user while typing.
+ * <p>
+ * The index is built once on startup and then kept current one problem at a
+ * time from {@link ProblemChangedEvent}s, after the change commits. Searches
+ * share a read lock and touch only the postings of the query terms.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class ProblemSearchIndex {
+
+    public static final int MAX_RESULTS = 50;
+
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float TITLE_BOOST = 3f;
+    private static final float PREFIX_WEIGHT = 0.7f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "if", "in", "is", "it",
+            "of", "on", "or", "that", "the", "then", "this", "to", "was", "with"
+    );
+
+    private static final String SELECT_PROBLEMS =
+            "SELECT p.id, p.title, p.slug, p.difficulty, p.description, " +
+                    "c.id, c.name, c.slug, c.description " +
+                    "FROM problems p JOIN categories c ON c.id = p.category_id " +
+                    "WHERE p.is_active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Documents live in reusable slots so postings stay int-keyed
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> slotsByProblemId = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private Document[] documents = new Document[1024];
+    private int slotCount;
+    private double totalLength;
+
+    public ProblemSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Build the index from all active problems. Changes committed meanwhile
+     * wait for the write lock and are applied on top.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long startNanos = System.nanoTime();
+
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query(SELECT_PROBLEMS, rs -> {
+                Document document = readDocument(rs);
+                // A change indexed before the build already has a slot
+                remove(document.summary().id());
+                put(document);
+            });
+
+            log.info("Problem search index built: {} problems, {} terms in {} ms",
+                    slotsByProblemId.size(), terms.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-index a changed problem once its transaction commits; an inactive or
+     * deleted problem is dropped from the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProblemChanged(ProblemChangedEvent event) {
+        List<Document> loaded = jdbcTemplate.query(
+                SELECT_PROBLEMS + " AND p.id = ?",
+                (rs, i) -> readDocument(rs),
+                event.problemId()
+        );
+
+        lock.writeLock().lock();
+        try {
+            remove(event.problemId());
+            if (!loaded.isEmpty()) {
+                put(loaded.getFirst());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search active problems, most relevant first.
+     *
+     * @param query free text; the last word also matches as a prefix
+     * @param limit maximum hits (at most {@link #MAX_RESULTS})
+     * @return ranked hits, empty for a query without searchable words
+     */
+    public List<ProblemSearchHitResponse> search(String query, int limit) {
+        String text = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        List<String> tokens = List.copyOf(new LinkedHashSet<>(tokenize(text)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        int maxHits = Math.clamp(limit, 1, MAX_RESULTS);
+
+        lock.readLock().lock();
+        try {
+            int docCount = slotsByProblemId.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+
+            float averageLength = (float) totalLength / docCount;
+            float[] scores = new float[slotCount];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+
+            for (Map.Entry<Postings, Float> match : expand(tokens).entrySet()) {
+                Postings postings = match.getKey();
+                float idf = (float) Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+                float weight = idf * match.getValue();
+
+                for (int i = 0; i < postings.size; i++) {
+                    int slot = postings.slots[i];
+                    float tf = postings.frequencies[i];
+                    float norm = K1 * (1 - B + B * documents[slot].length() / averageLength);
+
+                    if (scores[slot] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                    scores[slot] += weight * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            // Min-heap of the best slots so far - O(touched * log limit)
+            PriorityQueue<Integer> best = new PriorityQueue<>(maxHits + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+            for (int i = 0; i < touchedCount; i++) {
+                best.add(touched[i]);
+                if (best.size() > maxHits) {
+                    best.poll();
+                }
+            }
+
+            ProblemSearchHitResponse[] hits = new ProblemSearchHitResponse[best.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                int slot = best.poll();
+                hits[i] = ProblemSearchHitResponse.from(documents[slot].summary(), scores[slot]);
+            }
+
+            return List.of(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Postings to score, with their weight. Exact terms weigh 1; terms that only
+     * extend the last token weigh {@link #PREFIX_WEIGHT}.
+     */
+    private Map<Postings, Float> expand(List<String> tokens) {
+        Map<Postings, Float> matches = new LinkedHashMap<>();
+
+        for (String token : tokens) {
+            Postings exact = terms.get(token);
+            if (exact != null) {
+                matches.put(exact, 1f);
+            }
+        }
+
+        String prefix = tokens.getLast();
+        int expansions = 0;
+        for (Map.Entry<String, Postings> entry : terms.tailMap(prefix, false).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || expansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matches.putIfAbsent(entry.getValue(), PREFIX_WEIGHT);
+        }
+
+        return matches;
+    }
+
+    private void put(Document document) {
+        Integer free = freeSlots.poll();
+        int slot = free != null ? free : slotCount++;
+        if (slot == documents.length) {
+            documents = Arrays.copyOf(documents, slot * 2);
+        }
+
+        documents[slot] = document;
+        slotsByProblemId.put(document.summary().id(), slot);
+        totalLength += document.length();
+
+        document.frequencies().forEach((term, tf) -> terms.computeIfAbsent(term, t -> new Postings()).add(slot, tf));
+    }
+
+    private void remove(Long problemId) {
+        Integer slot = slotsByProblemId.remove(problemId);
+        if (slot == null) {
+            return;
+        }
+
+        Document document = documents[slot];
+        for (String term : document.frequencies().keySet()) {
+            Postings postings = terms.get(term);
+            postings.remove(slot);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+
+        totalLength -= document.length();
+        documents[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private static Document readDocument(ResultSet rs) throws SQLException {
+        ProblemSummaryResponse summary = new ProblemSummaryResponse(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                Difficulty.valueOf(rs.getString(4)),
+                new CategoryResponse(rs.getLong(6), rs.getString(7), rs.getString(8), rs.getString(9))
+        );
+
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (String term : tokenize(summary.title())) {
+            frequencies.merge(term, TITLE_BOOST, Float::sum);
+            length += TITLE_BOOST;
+        }
+        for (String term : tokenize(rs.getString(5))) {
+            frequencies.merge(term, 1f, Float::sum);
+            length++;
+        }
+
+        return new Document(summary, frequencies, Math.max(length, 1f));
+    }
+
+    /**
+     * Lowercase, fold accents (including Vietnamese đ) and split into words,
+     * dropping stop words and single letters.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace('đ', 'd');
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            boolean singleLetter = token.length() == 1 && !Character.isDigit(token.charAt(0));
+            if (!token.isEmpty() && !singleLetter && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indexed problem: the summary returned as a hit, weighted term frequencies and length.
+     */
+    private record Document(ProblemSummaryResponse summary, Map<String, Float> frequencies, float length) {
+    }
+
+    /**
+     * Slots containing a term, with the term's weighted frequency in each. Unordered.
+     */
+    private static final class Postings {
+
+        int size;
+        int[] slots = new int[4];
+        float[] frequencies = new float[4];
+
+        void add(int slot, float frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    // Order does not matter - move the last posting into the gap
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.leagueofcoding.api.service.season;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Season soft reset math, shared by the rollover and the rating recompute
+ * so a replayed history lands on the same ratings as the live one.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class SeasonResetPolicy {
+
+    private final double keep;
+    private final Duration inactiveAfter;
+    private final int decayPerWeek;
+    private final int maxDecay;
+
+    public SeasonResetPolicy(
+            @Value("${season.reset.keep:0.5}") double keep,
+            @Value("${season.decay.inactive-days:28}") long inactiveDays,
+            @Value("${season.decay.points-per-week:15}") int decayPerWeek,
+            @Value("${season.decay.max-points:200}") int maxDecay
+    ) {
+        this.keep = keep;
+        this.inactiveAfter = Duration.ofDays(inactiveDays);
+        this.decayPerWeek = decayPerWeek;
+        this.maxDecay = maxDecay;
+    }
+
+    /**
+     * Soft reset toward the mean, then decay for weeks of inactivity past the threshold.
+     * Decay only takes players down to the mean, never below.
+     *
+     * @param lastPlayedAt last rated match, null if never tracked
+     */
+    public int resetRating(int rating, int mean, LocalDateTime lastPlayedAt, LocalDateTime seasonEndedAt) {
+        int reset = mean + (int) Math.round((rating - mean) * keep);
+
+        if (reset <= mean) {
+            return reset;
+        }
+
+        // Never played a rated match since tracking started - full decay
+        if (lastPlayedAt == null) {
+            return Math.max(mean, reset - maxDecay);
+        }
+
+        Duration idle = Duration.between(lastPlayedAt, seasonEndedAt);
+        if (idle.compareTo(inactiveAfter) <= 0) {
+            return reset;
+        }
+
+        long weeks = idle.minus(inactiveAfter).toDays() / 7 + 1;
+        int decay = (int) Math.min(maxDecay, weeks * decayPerWeek);
+        return Math.max(mean, reset - decay);
+    }
+}
@@ -0,0 +1,273 @@
+package com.leagueofcoding.api.service.season;
+
+import com.leagueofcoding.api.enums.SeasonStatus;
+import com.leagueofcoding.api.service.leaderboard.GlobalLeaderboardService;
+import com.leagueofcoding.api.service.user.UserStatsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked season rollover.
+ * <p>
+ * When a season has run its length, its final standings are archived into
+ * {@code season_standings} and every rated player gets a soft reset toward the
+ * season's mean rating, plus a decay for players inactive at season end.
+ * Players are processed in keyset-paginated chunks of {@code user_ratings}
+ * (by user ID, rows locked only for their chunk), with a pause between chunks,
+ * so live rating and matchmaking keep running. Each chunk commits together with
+ * the cursor in {@code seasons}, so a restarted instance resumes exactly where
+ * the previous one stopped. A chunk is claimed by a compare-and-set on that
+ * cursor, so with several instances every player is reset exactly once.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class SeasonRolloverJob {
+
+    // resetChunk result when another instance moved the cursor first
+    private static final long CLAIMED_ELSEWHERE = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GlobalLeaderboardService globalLeaderboardService;
+    private final UserStatsService userStatsService;
+    private final SeasonResetPolicy resetPolicy;
+    private final Duration seasonLength;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("season-rollover").daemon().factory()
+    );
+
+    public SeasonRolloverJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            GlobalLeaderboardService globalLeaderboardService,
+            UserStatsService userStatsService,
+            SeasonResetPolicy resetPolicy,
+            @Value("${season.length-days:90}") long lengthDays,
+            @Value("${season.reset.chunk-size:1000}") int chunkSize,
+            @Value("${season.reset.pause-ms:50}") long pauseMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.globalLeaderboardService = globalLeaderboardService;
+        this.userStatsService = userStatsService;
+        this.resetPolicy = resetPolicy;
+        this.seasonLength = Duration.ofDays(lengthDays);
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * Resume an interrupted rollover right away, then check for due seasons every minute.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::rollOverIfDue, 0, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupts the pause between chunks - the committed cursor is the resume point
+        scheduler.shutdownNow();
+    }
+
+    void rollOverIfDue() {
+        try {
+            Season season = findResetting();
+            if (season == null) {
+                season = endDueSeason();
+            }
+
+            if (season != null) {
+                reset(season);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Season rollover failed", ex);
+        }
+    }
+
+    private Season findResetting() {
+        List<Season> seasons = jdbcTemplate.query(
+                "SELECT id, number, ended_at, reset_mean, reset_cursor FROM seasons WHERE status = ?",
+                (rs, i) -> new Season(
+                        rs.getLong(1), rs.getInt(2), rs.getTimestamp(3).toLocalDateTime(), rs.getInt(4), rs.getLong(5)
+                ),
+                SeasonStatus.RESETTING.name()
+        );
+
+        return seasons.isEmpty() ? null : seasons.getFirst();
+    }
+
+    /**
+     * End the active season if it has run its length. The mean is fixed here,
+     * so every chunk of the reset - before or after a restart - uses the same one.
+     */
+    private Season endDueSeason() {
+        int ended = jdbcTemplate.update(
+                "UPDATE seasons SET status = ?, ended_at = CURRENT_TIMESTAMP, " +
+                        "reset_mean = (SELECT COALESCE(ROUND(AVG(elo_rating)), 1200) FROM user_ratings WHERE matches_played > 0) " +
+                        "WHERE status = ? AND started_at <= ?",
+                SeasonStatus.RESETTING.name(), SeasonStatus.ACTIVE.name(),
+                Timestamp.valueOf(LocalDateTime.now().minus(seasonLength))
+        );
+
+        if (ended == 0) {
+            return null;
+        }
+
+        Season season = findResetting();
+        log.info("Season {} ended, resetting ratings toward {}", season.number(), season.mean());
+        return season;
+    }
+
+    private void reset(Season season) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long cursor = season.cursor();
+
+        while (true) {
+            long from = cursor;
+            Long next = transactionTemplate.execute(status -> resetChunk(season, from));
+            if (next == null) {
+                break;
+            }
+            if (next == CLAIMED_ELSEWHERE) {
+                log.info("Season {} reset is being run by another instance", season.number());
+                return;
+            }
+
+            cursor = next;
+            Thread.sleep(pauseMs);
+        }
+
+        globalLeaderboardService.rebuild();
+        userStatsService.syncRatings();
+        log.info("Season {} rollover finished in {} ms", season.number(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Archive and reset the next chunk of players after the cursor.
+     *
+     * @return new cursor, null once no player is left and the season was closed,
+     * or {@link #CLAIMED_ELSEWHERE} if another instance already processed the chunk
+     */
+    private Long resetChunk(Season season, long cursor) {
+        // Claim: the season row stays locked until commit, so a second instance waits here
+        // and then finds the cursor moved (or the season closed) instead of resetting twice
+        int claimed = jdbcTemplate.update(
+                "UPDATE seasons SET reset_cursor = reset_cursor WHERE id = ? AND status = ? AND reset_cursor = ?",
+                season.id(), SeasonStatus.RESETTING.name(), cursor
+        );
+        if (claimed == 0) {
+            return CLAIMED_ELSEWHERE;
+        }
+
+        List<Standing> chunk = jdbcTemplate.query(
+                "SELECT user_id, elo_rating, matches_played, wins, losses, draws, last_played_at FROM user_ratings " +
+                        "WHERE user_id > ? AND matches_played > 0 ORDER BY user_id LIMIT ? FOR UPDATE",
+                (rs, i) -> {
+                    Timestamp lastPlayedAt = rs.getTimestamp(7);
+                    return new Standing(
+                            rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6),
+                            lastPlayedAt != null ? lastPlayedAt.toLocalDateTime() : null
+                    );
+                },
+                cursor, chunkSize
+        );
+
+        if (chunk.isEmpty()) {
+            closeSeason(season);
+            return null;
+        }
+
+        List<Object[]> archived = new ArrayList<>(chunk.size());
+        List<Object[]> ratings = new ArrayList<>(chunk.size());
+
+        for (Standing standing : chunk) {
+            int reset = resetPolicy.resetRating(
+                    standing.rating(), season.mean(), standing.lastPlayedAt(), season.endedAt());
+            archived.add(new Object[]{
+                    season.id(), standing.userId(), standing.rating(), reset,
+                    standing.matchesPlayed(), standing.wins(), standing.losses(), standing.draws()
+            });
+            ratings.add(new Object[]{reset, standing.userId()});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO season_standings " +
+                        "(season_id, user_id, elo_rating, reset_rating, matches_played, wins, losses, draws) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                archived
+        );
+        // Version bump makes a concurrent ELO flush retry on top of the reset rating
+        jdbcTemplate.batchUpdate(
+                "UPDATE user_ratings SET elo_rating = ?, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE user_id = ?",
+                ratings
+        );
+        jdbcTemplate.batchUpdate("UPDATE users SET rating = ? WHERE id = ?", ratings);
+
+        long next = chunk.getLast().userId();
+        jdbcTemplate.update(
+                "UPDATE seasons SET reset_cursor = ?, players_processed = players_processed + ? WHERE id = ?",
+                next, chunk.size(), season.id()
+        );
+
+        return next;
+    }
+
+    /**
+     * Rank the archive, close the season and open the next one.
+     */
+    private void closeSeason(Season season) {
+        jdbcTemplate.update(
+                "UPDATE season_standings s SET final_rank = r.rank " +
+                        "FROM (SELECT user_id, RANK() OVER (ORDER BY elo_rating DESC) AS rank " +
+                        "FROM season_standings WHERE season_id = ?) r " +
+                        "WHERE s.season_id = ? AND s.user_id = r.user_id",
+                season.id(), season.id()
+        );
+        jdbcTemplate.update(
+                "UPDATE seasons SET status = ?, completed_at = CURRENT_TIMESTAMP WHERE id = ?",
+                SeasonStatus.COMPLETED.name(), season.id()
+        );
+        jdbcTemplate.update(
+                "INSERT INTO seasons (number, status, started_at) VALUES (?, ?, ?)",
+                season.number() + 1, SeasonStatus.ACTIVE.name(), Timestamp.valueOf(season.endedAt())
+        );
+    }
+
+    record Season(long id, int number, LocalDateTime endedAt, int mean, long cursor) {
+    }
+
+    record Standing(
+            long userId,
+            int rating,
+            int matchesPlayed,
+            int wins,
+            int losses,
+            int draws,
+            LocalDateTime lastPlayedAt
+    ) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.leagueofcoding.api.service.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flyway V18: aggregate existing judged submissions into {@code problem_stats}.
+ * <p>
+ * Counts are grouped in SQL; accepted runtimes are streamed with a cursor into
+ * one {@link RuntimeHistogram} per problem and language, so the stored buckets
+ * match what {@link ProblemStatsService} maintains from then on.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class ProblemStatsBackfillMigration extends BaseJavaMigration {
+
+    private static final int FETCH_SIZE = 1000;
+
+    @Override
+    protected void init() {
+        // Version and description are declared below, not parsed from the class name
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("18");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill problem stats";
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement insert = connection.createStatement()) {
+            insert.executeUpdate(
+                    "INSERT INTO problem_stats (problem_id, language, submissions, accepted) " +
+                            "SELECT m.problem_id, s.language, COUNT(*), COUNT(*) FILTER (WHERE s.status = 'PASSED') " +
+                            "FROM match_submissions s JOIN matches m ON m.id = s.match_id " +
+                            "WHERE s.status <> 'PENDING' " +
+                            "GROUP BY m.problem_id, s.language");
+        }
+
+        Map<String, RuntimeHistogram> histograms = new HashMap<>();
+        try (Statement select = connection.createStatement()) {
+            // Cursor-based fetch - Flyway runs the migration outside auto-commit
+            select.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = select.executeQuery(
+                    "SELECT m.problem_id, s.language, s.execution_time_ms " +
+                            "FROM match_submissions s JOIN matches m ON m.id = s.match_id " +
+                            "WHERE s.status = 'PASSED' AND s.execution_time_ms IS NOT NULL")) {
+                while (rs.next()) {
+                    histograms.computeIfAbsent(rs.getLong(1) + ":" + rs.getString(2), key -> new RuntimeHistogram())
+                            .record(rs.getInt(3));
+                }
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE problem_stats SET runtime_histogram = ? WHERE problem_id = ? AND language = ?")) {
+            for (Map.Entry<String, RuntimeHistogram> entry : histograms.entrySet()) {
+                String[] key = entry.getKey().split(":", 2);
+                Long[] counts = Arrays.stream(entry.getValue().toArray()).boxed().toArray(Long[]::new);
+
+                update.setArray(1, connection.createArrayOf("bigint", counts));
+                update.setLong(2, Long.parseLong(key[0]));
+                update.setString(3, key[1]);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+
+        log.info("Backfilled runtime histograms of {} problem/language pairs", histograms.size());
+    }
+}
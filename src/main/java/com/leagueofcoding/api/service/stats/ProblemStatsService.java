@@ -0,0 +1,315 @@
+package com.leagueofcoding.api.service.stats;
+
+import com.leagueofcoding.api.dto.problem.ProblemLanguageStatsResponse;
+import com.leagueofcoding.api.dto.problem.ProblemStatsResponse;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+import com.leagueofcoding.api.service.battle.SubmissionJudgedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-problem, per-language acceptance and runtime statistics, served from memory.
+ * <p>
+ * Every judged submission updates its problem and language counters and, if
+ * accepted, the {@link RuntimeHistogram} of accepted runtimes. Changes are also
+ * kept as a pending delta that a periodic flush merges into {@code problem_stats}
+ * (counts added, histograms added bucket by bucket), so several instances can
+ * write the same rows. Every flush then reads back all rows changed since the
+ * previous read, by this instance or any other, so problems without local
+ * traffic stay current too. Nothing is ever computed from {@code match_submissions}.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+public class ProblemStatsService {
+
+    private static final String MERGE =
+            "INSERT INTO problem_stats AS s (problem_id, language, submissions, accepted, runtime_histogram, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, LOCALTIMESTAMP) " +
+                    "ON CONFLICT (problem_id, language) DO UPDATE SET " +
+                    "submissions = s.submissions + EXCLUDED.submissions, " +
+                    "accepted = s.accepted + EXCLUDED.accepted, " +
+                    "runtime_histogram = COALESCE((SELECT array_agg(COALESCE(a, 0) + COALESCE(b, 0) ORDER BY i) " +
+                    "FROM unnest(s.runtime_histogram, EXCLUDED.runtime_histogram) WITH ORDINALITY AS u (a, b, i)), '{}'), " +
+                    "updated_at = LOCALTIMESTAMP";
+
+    private static final String SELECT_STATS =
+            "SELECT problem_id, language, submissions, accepted, runtime_histogram FROM problem_stats";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMs;
+
+    // Rows are stamped when their transaction starts, but become visible at commit
+    private static final Duration RELOAD_OVERLAP = Duration.ofMinutes(1);
+
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+
+    // Database time of the last read - only touched by the flusher thread
+    private LocalDateTime loadedAt;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("problem-stats-flusher").daemon().factory()
+    );
+
+    public ProblemStatsService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${problem-stats.flush-interval-ms:10000}") long flushIntervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Load all stored statistics, then start flushing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadedAt = databaseNow();
+        jdbcTemplate.query(SELECT_STATS, rs -> {
+            load(rs);
+        });
+        log.info("Problem stats loaded: {} problem/language rows", stats.size());
+
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Count a committed verdict.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.status() == SubmissionStatus.PENDING || event.problemId() == null || event.language() == null) {
+            return;
+        }
+
+        boolean accepted = event.status() == SubmissionStatus.PASSED;
+        stats.computeIfAbsent(new Key(event.problemId(), event.language()), key -> new Stats())
+                .record(accepted, accepted ? event.executionTimeMs() : null);
+    }
+
+    /**
+     * Statistics of a problem, overall and per language.
+     *
+     * @param problemId problem ID
+     * @return statistics, all zero if nothing was judged yet
+     */
+    public ProblemStatsResponse getStats(Long problemId) {
+        List<ProblemLanguageStatsResponse> languages = new ArrayList<>();
+        long submissions = 0;
+        long accepted = 0;
+        RuntimeHistogram runtimes = new RuntimeHistogram();
+
+        for (ProgrammingLanguage language : ProgrammingLanguage.values()) {
+            Stats entry = stats.get(new Key(problemId, language));
+            if (entry == null) {
+                continue;
+            }
+
+            synchronized (entry) {
+                submissions += entry.submissions;
+                accepted += entry.accepted;
+                runtimes.merge(entry.runtimes);
+                languages.add(ProblemLanguageStatsResponse.of(
+                        language, entry.submissions, entry.accepted, entry.runtimes.percentile(0.5)
+                ));
+            }
+        }
+
+        languages.sort(Comparator.comparingLong(ProblemLanguageStatsResponse::submissions).reversed());
+        return ProblemStatsResponse.of(problemId, submissions, accepted, runtimes.percentile(0.5), languages);
+    }
+
+    /**
+     * Share of accepted submissions in the same language that ran slower.
+     *
+     * @param problemId problem ID
+     * @param language  submission language
+     * @param runtimeMs runtime to rank
+     * @return percentage 0-100, null without accepted submissions to compare with
+     */
+    public Double beatsPercent(Long problemId, ProgrammingLanguage language, long runtimeMs) {
+        Stats entry = stats.get(new Key(problemId, language));
+        if (entry == null) {
+            return null;
+        }
+
+        synchronized (entry) {
+            return entry.runtimes.beatsPercent(runtimeMs);
+        }
+    }
+
+    void flush() {
+        Map<Key, Delta> deltas = new HashMap<>();
+        stats.forEach((key, entry) -> {
+            Delta delta = entry.drain();
+            if (delta != null) {
+                deltas.put(key, delta);
+            }
+        });
+
+        if (!deltas.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> merge(deltas));
+            } catch (RuntimeException ex) {
+                log.error("Failed to flush stats of {} problem/language pairs", deltas.size(), ex);
+                deltas.forEach((key, delta) -> stats.get(key).restore(delta));
+            }
+        }
+
+        try {
+            reloadChanged();
+        } catch (RuntimeException ex) {
+            log.error("Failed to reload changed problem stats", ex);
+        }
+    }
+
+    /**
+     * Read back rows changed since the last read, including other instances' flushes.
+     * Reading a row twice is harmless, so the window overlaps the previous one.
+     */
+    private void reloadChanged() {
+        // Not started - nothing was loaded to refresh
+        if (loadedAt == null) {
+            return;
+        }
+
+        LocalDateTime now = databaseNow();
+        jdbcTemplate.query(SELECT_STATS + " WHERE updated_at > ?", rs -> {
+            load(rs);
+        }, Timestamp.valueOf(loadedAt.minus(RELOAD_OVERLAP)));
+        loadedAt = now;
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+
+    private void merge(Map<Key, Delta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{
+                key.problemId(), key.language().name(), delta.submissions(), delta.accepted(),
+                Arrays.stream(delta.runtimes()).boxed().toArray(Long[]::new)
+        }));
+        jdbcTemplate.batchUpdate(MERGE, rows);
+    }
+
+    private void load(ResultSet rs) throws SQLException {
+        ProgrammingLanguage language;
+        try {
+            language = ProgrammingLanguage.valueOf(rs.getString(2));
+        } catch (IllegalArgumentException ex) {
+            return;
+        }
+
+        Array histogram = rs.getArray(5);
+        long[] counts = Arrays.stream((Long[]) histogram.getArray()).mapToLong(Long::longValue).toArray();
+        stats.computeIfAbsent(new Key(rs.getLong(1), language), key -> new Stats())
+                .reset(rs.getLong(3), rs.getLong(4), counts);
+    }
+
+    private record Key(Long problemId, ProgrammingLanguage language) {
+    }
+
+    private record Delta(long submissions, long accepted, long[] runtimes) {
+    }
+
+    /**
+     * Live totals of one problem and language, plus what is not flushed yet.
+     * Guarded by its own monitor.
+     */
+    private static final class Stats {
+
+        long submissions;
+        long accepted;
+        final RuntimeHistogram runtimes = new RuntimeHistogram();
+
+        long pendingSubmissions;
+        long pendingAccepted;
+        final RuntimeHistogram pendingRuntimes = new RuntimeHistogram();
+
+        synchronized void record(boolean isAccepted, Integer runtimeMs) {
+            submissions++;
+            pendingSubmissions++;
+            if (isAccepted) {
+                accepted++;
+                pendingAccepted++;
+                if (runtimeMs != null) {
+                    runtimes.record(runtimeMs);
+                    pendingRuntimes.record(runtimeMs);
+                }
+            }
+        }
+
+        /**
+         * Take the pending delta, null if there is none.
+         */
+        synchronized Delta drain() {
+            if (pendingSubmissions == 0) {
+                return null;
+            }
+
+            Delta delta = new Delta(pendingSubmissions, pendingAccepted, pendingRuntimes.toArray());
+            pendingSubmissions = 0;
+            pendingAccepted = 0;
+            pendingRuntimes.clear();
+            return delta;
+        }
+
+        /**
+         * Put a delta that failed to flush back into the pending one.
+         */
+        synchronized void restore(Delta delta) {
+            pendingSubmissions += delta.submissions();
+            pendingAccepted += delta.accepted();
+            pendingRuntimes.merge(delta.runtimes());
+        }
+
+        /**
+         * Replace the totals with the stored row; verdicts recorded since the
+         * last drain are not in it yet and stay on top.
+         */
+        synchronized void reset(long storedSubmissions, long storedAccepted, long[] storedRuntimes) {
+            submissions = storedSubmissions + pendingSubmissions;
+            accepted = storedAccepted + pendingAccepted;
+            runtimes.clear();
+            runtimes.merge(storedRuntimes);
+            runtimes.merge(pendingRuntimes);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.leagueofcoding.api.service.stats;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of accepted runtimes with fixed log-linear buckets.
+ * <p>
+ * Runtimes below {@value #LINEAR_LIMIT} ms get one bucket per millisecond;
+ * above that every power of two is split into {@value #SUB_BUCKETS} buckets,
+ * so a bucket is never wider than about 3% of its values. The layout is the
+ * same everywhere, which makes histograms mergeable by adding counts bucket
+ * by bucket - across languages, instances or the database row.
+ * <p>
+ * "Beats X%" is answered in O(1) from a suffix-count table, rebuilt lazily
+ * after the histogram changes. Not thread-safe.
+ *
+ * @author dao-nguyenminh
+ */
+public final class RuntimeHistogram {
+
+    static final int LINEAR_LIMIT = 64;
+    static final int SUB_BUCKETS = 32;
+    static final long MAX_RUNTIME_MS = (1L << 20) - 1;
+    static final int BUCKETS = bucketOf(MAX_RUNTIME_MS) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    // slower[i] = runtimes in buckets above i; null after a change
+    private long[] slower;
+
+    /**
+     * Bucket of a runtime. Negative runtimes count as 0, huge ones as the last bucket.
+     */
+    static int bucketOf(long runtimeMs) {
+        long ms = Math.clamp(runtimeMs, 0, MAX_RUNTIME_MS);
+        if (ms < LINEAR_LIMIT) {
+            return (int) ms;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(ms);
+        return LINEAR_LIMIT + (exponent - 6) * SUB_BUCKETS + (int) ((ms >> (exponent - 5)) - SUB_BUCKETS);
+    }
+
+    /**
+     * Smallest runtime falling into a bucket.
+     */
+    static long lowerBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 6;
+        long sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return sub << (exponent - 5);
+    }
+
+    public void record(long runtimeMs) {
+        counts[bucketOf(runtimeMs)]++;
+        total++;
+        slower = null;
+    }
+
+    /**
+     * Add another histogram's counts to this one.
+     */
+    public void merge(RuntimeHistogram other) {
+        merge(other.counts);
+    }
+
+    /**
+     * Add bucket counts in this layout, e.g. as stored in the database.
+     * Missing trailing buckets count as empty.
+     */
+    public void merge(long[] bucketCounts) {
+        int length = Math.min(bucketCounts.length, BUCKETS);
+        for (int i = 0; i < length; i++) {
+            counts[i] += bucketCounts[i];
+            total += bucketCounts[i];
+        }
+        slower = null;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        slower = null;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * Bucket counts without trailing empty buckets, for storage.
+     */
+    public long[] toArray() {
+        int length = BUCKETS;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    /**
+     * Share of recorded runtimes that are slower than the given one,
+     * i.e. fall into a higher bucket. O(1) once the suffix table is built.
+     *
+     * @param runtimeMs runtime to rank
+     * @return percentage 0-100, null if nothing is recorded
+     */
+    public Double beatsPercent(long runtimeMs) {
+        if (total == 0) {
+            return null;
+        }
+
+        if (slower == null) {
+            long[] table = new long[BUCKETS];
+            for (int i = BUCKETS - 2; i >= 0; i--) {
+                table[i] = table[i + 1] + counts[i + 1];
+            }
+            slower = table;
+        }
+
+        return 100.0 * slower[bucketOf(runtimeMs)] / total;
+    }
+
+    /**
+     * Approximate runtime at a quantile - the lower bound of its bucket.
+     *
+     * @param quantile 0-1, e.g. 0.5 for the median
+     * @return runtime in ms, null if nothing is recorded
+     */
+    public Integer percentile(double quantile) {
+        if (total == 0) {
+            return null;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (int) lowerBoundOf(i);
+            }
+        }
+        return (int) MAX_RUNTIME_MS;
+    }
+}
@@ -0,0 +1,31 @@
+package com.leagueofcoding.api.service.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Problems each user has passed at least once ({@code user_solved_problems}).
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+@RequiredArgsConstructor
+public class SolvedProblemStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record a passed problem. Participates in the caller's transaction.
+     *
+     * @param userId    user ID
+     * @param problemId problem ID
+     * @return true if the user had never solved the problem before
+     */
+    public boolean recordSolve(Long userId, Long problemId) {
+        return jdbcTemplate.update(
+                "INSERT INTO user_solved_problems (user_id, problem_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                userId, problemId
+        ) == 1;
+    }
+}
@@ -0,0 +1,352 @@
+package com.leagueofcoding.api.service.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.dto.battle.SubmissionLanguage;
+import com.leagueofcoding.api.dto.user.UserProfileResponse;
+import com.leagueofcoding.api.entity.User;
+import com.leagueofcoding.api.entity.UserStats;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.exception.UserNotFoundException;
+import com.leagueofcoding.api.repository.MatchRepository;
+import com.leagueofcoding.api.repository.MatchSubmissionRepository;
+import com.leagueofcoding.api.repository.UserStatsRepository;
+import com.leagueofcoding.api.service.battle.MatchCompletedEvent;
+import com.leagueofcoding.api.service.battle.SubmissionJudgedEvent;
+import com.leagueofcoding.api.service.rating.RatingChange;
+import com.leagueofcoding.api.service.rating.RatingsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Public profiles served from the precomputed {@code user_stats} row.
+ * <p>
+ * A profile view is a Caffeine hit, or one lookup on the unique username index.
+ * Completed matches, first solves and rating changes are queued and applied in
+ * periodic flushes: one select for the touched rows, one for the submission
+ * languages and batched updates. Cached
+ * profiles of every touched user are invalidated once the flush commits.
+ * A batch that fails to commit is kept and retried first, ahead of newer
+ * events, so rating changes still apply in commit order.
+ * <p>
+ * Nothing is lost in a crash between flushes: a match is claimed through
+ * {@code matches.stats_applied} in the flush transaction, so it counts exactly
+ * once, and matches left unclaimed are queued again at startup. Solved counts
+ * are recounted from {@code user_solved_problems} and ratings copied from
+ * {@code user_ratings}, so both are reconciled at startup as well.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+public class UserStatsService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final MatchRepository matchRepository;
+    private final MatchSubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMs;
+
+    private final Queue<MatchSnapshot> pendingMatches = new ConcurrentLinkedQueue<>();
+    private final Queue<RatingChange> pendingRatings = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> pendingSolves = new ConcurrentLinkedQueue<>();
+
+    // Batch of the last failed flush - only touched by the flusher thread
+    private Batch failed;
+
+    private final Cache<String, UserProfileResponse> profiles = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-stats-flusher").daemon().factory()
+    );
+
+    public UserStatsService(
+            UserStatsRepository userStatsRepository,
+            MatchRepository matchRepository,
+            MatchSubmissionRepository submissionRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${user-stats.flush-interval-ms:1000}") long flushIntervalMs
+    ) {
+        this.userStatsRepository = userStatsRepository;
+        this.matchRepository = matchRepository;
+        this.submissionRepository = submissionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Recover what a crash lost from the queues: matches never counted, solved counts and ratings.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<MatchSnapshot> pending = matchRepository.findStatsPendingSnapshots();
+        if (!pending.isEmpty()) {
+            log.info("Counting {} completed matches left over from previous run", pending.size());
+            pendingMatches.addAll(pending);
+        }
+
+        int solved = jdbcTemplate.update(
+                "UPDATE user_stats s SET solved_count = c.solved, updated_at = CURRENT_TIMESTAMP " +
+                        "FROM (SELECT user_id, COUNT(*) AS solved FROM user_solved_problems GROUP BY user_id) c " +
+                        "WHERE s.user_id = c.user_id AND s.solved_count <> c.solved");
+        if (solved > 0) {
+            log.info("Reconciled {} solved counts", solved);
+        }
+        syncRatings();
+
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Public profile of a user.
+     *
+     * @param username username
+     * @return profile
+     */
+    public UserProfileResponse getProfile(String username) {
+        UserProfileResponse profile = profiles.get(username, key -> userStatsRepository.findByUsername(key)
+                .map(UserProfileResponse::from)
+                .orElse(null));
+
+        if (profile == null) {
+            throw new UserNotFoundException("User not found: " + username);
+        }
+
+        return profile;
+    }
+
+    /**
+     * ID of a user, resolved through the cached profile.
+     *
+     * @param username username
+     * @return user ID
+     */
+    public Long getUserId(String username) {
+        return getProfile(username).userId();
+    }
+
+    /**
+     * Create the empty stats row of a new user. Must run in the registration transaction.
+     *
+     * @param user registered user
+     */
+    public void createFor(User user) {
+        userStatsRepository.save(UserStats.builder()
+                .userId(user.getId())
+                .username(user.getUsername())
+                .build());
+    }
+
+    /**
+     * Copy ratings changed in bulk (recompute, season reset) from {@code user_ratings}
+     * and drop every cached profile.
+     */
+    public void syncRatings() {
+        int updated = jdbcTemplate.update(
+                "UPDATE user_stats s SET elo_rating = r.elo_rating, updated_at = CURRENT_TIMESTAMP " +
+                        "FROM user_ratings r WHERE s.user_id = r.user_id AND s.elo_rating <> r.elo_rating");
+        profiles.invalidateAll();
+
+        log.info("Synced {} profile ratings", updated);
+    }
+
+    /**
+     * Queue completed match for the next flush.
+     */
+    @EventListener
+    public void onMatchCompleted(MatchCompletedEvent event) {
+        pendingMatches.add(event.match());
+    }
+
+    /**
+     * Queue a committed first solve for the next flush.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.firstSolve()) {
+            pendingSolves.add(event.userId());
+        }
+    }
+
+    /**
+     * Queue committed rating changes for the next flush.
+     */
+    @EventListener
+    public void onRatingsChanged(RatingsChangedEvent event) {
+        pendingRatings.addAll(event.changes());
+    }
+
+    void flush() {
+        Batch batch = failed != null ? failed : new Batch(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        failed = null;
+
+        drain(pendingMatches, batch.matches());
+        drain(pendingRatings, batch.ratings());
+        drain(pendingSolves, batch.solves());
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<String> touched = transactionTemplate.execute(
+                    status -> apply(batch.matches(), batch.ratings(), batch.solves()));
+            profiles.invalidateAll(touched);
+        } catch (RuntimeException ex) {
+            log.error("Failed to update stats for {} matches, {} rating changes and {} solves, retrying next flush",
+                    batch.matches().size(), batch.ratings().size(), batch.solves().size(), ex);
+            failed = batch;
+        }
+    }
+
+    private static <T> void drain(Queue<T> queue, List<T> target) {
+        T item;
+        while ((item = queue.poll()) != null) {
+            target.add(item);
+        }
+    }
+
+    /**
+     * Apply a batch inside one transaction.
+     *
+     * @return usernames whose stats changed
+     */
+    private Set<String> apply(List<MatchSnapshot> batchMatches, List<RatingChange> ratings, List<Long> solves) {
+        List<MatchSnapshot> matches = claim(batchMatches);
+
+        Set<Long> userIds = new HashSet<>();
+        matches.forEach(m -> {
+            userIds.add(m.player1Id());
+            userIds.add(m.player2Id());
+        });
+        ratings.forEach(r -> userIds.add(r.userId()));
+        userIds.addAll(solves);
+
+        Map<Long, UserStats> stats = userStatsRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserStats::getUserId, Function.identity()));
+
+        if (!matches.isEmpty()) {
+            applyMatches(matches, stats);
+        }
+
+        // In commit order - the last change of a user is the current rating
+        ratings.forEach(r -> {
+            UserStats userStats = stats.get(r.userId());
+            if (userStats != null) {
+                userStats.setEloRating(r.ratingAfter());
+            }
+        });
+
+        // Recounted rather than incremented, so a retried or replayed solve never counts twice
+        solvedCounts(new HashSet<>(solves)).forEach((userId, solved) -> {
+            UserStats userStats = stats.get(userId);
+            if (userStats != null) {
+                userStats.setSolvedCount(solved);
+            }
+        });
+
+        return stats.values().stream().map(UserStats::getUsername).collect(Collectors.toSet());
+    }
+
+    /**
+     * Claim matches not counted yet - matches counted by another instance or an earlier run are skipped.
+     */
+    private List<MatchSnapshot> claim(List<MatchSnapshot> matches) {
+        if (matches.isEmpty()) {
+            return matches;
+        }
+
+        Map<Long, MatchSnapshot> candidates = matches.stream()
+                .collect(Collectors.toMap(MatchSnapshot::id, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        Set<Long> claimed = new HashSet<>(matchRepository.claimForStats(candidates.keySet()));
+
+        return candidates.values().stream()
+                .filter(m -> claimed.contains(m.id()))
+                .toList();
+    }
+
+    private Map<Long, Integer> solvedCounts(Set<Long> userIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return counts;
+        }
+
+        jdbcTemplate.query(
+                "SELECT user_id, COUNT(*) FROM user_solved_problems WHERE user_id = ANY(?) GROUP BY user_id",
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getInt(2));
+                },
+                (Object) userIds.toArray(Long[]::new)
+        );
+        return counts;
+    }
+
+    private void applyMatches(List<MatchSnapshot> matches, Map<Long, UserStats> stats) {
+        Map<String, ProgrammingLanguage> languages = submissionRepository
+                .findLanguagesByMatchIdIn(matches.stream().map(MatchSnapshot::id).toList())
+                .stream()
+                .collect(Collectors.toMap(s -> s.matchId() + ":" + s.userId(), SubmissionLanguage::language));
+
+        List<MatchSnapshot> ordered = matches.stream()
+                .sorted(Comparator.comparing(MatchSnapshot::endedAt))
+                .toList();
+
+        for (MatchSnapshot m : ordered) {
+            for (Long userId : List.of(m.player1Id(), m.player2Id())) {
+                UserStats userStats = stats.get(userId);
+                if (userStats == null) {
+                    continue;
+                }
+
+                ProgrammingLanguage language = languages.get(m.id() + ":" + userId);
+                char result = m.winnerId() == null ? 'D' : m.winnerId().equals(userId) ? 'W' : 'L';
+                userStats.addResult(result, m.endedAt(), language != null ? language.name() : null);
+            }
+        }
+    }
+
+    private record Batch(List<MatchSnapshot> matches, List<RatingChange> ratings, List<Long> solves) {
+
+        boolean isEmpty() {
+            return matches.isEmpty() && ratings.isEmpty() && solves.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.leagueofcoding.api.service.version;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.leagueofcoding.api.service.blob.BlobRef;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Test sets of problem versions, keyed by version ID.
+ * <p>
+ * Versions are immutable, so an entry is never invalidated - it only ages
+ * out by size. A collected version simply stops being requested, because no
+ * live match pins it any more.
+ *
+ * @author dao-nguyenminh
+ */
+@Component
+public class ProblemVersionCache {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LoadingCache<Long, TestSet> testSets;
+
+    public ProblemVersionCache(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.testSets = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .build(this::load);
+    }
+
+    /**
+     * Test set of a version.
+     *
+     * @param versionId problem version ID
+     * @return test set, null if the version does not exist
+     */
+    public TestSet get(Long versionId) {
+        return testSets.get(versionId);
+    }
+
+    private TestSet load(Long versionId) {
+        List<TestSet> versions = jdbcTemplate.query(
+                "SELECT problem_id, number, time_limit_ms, memory_limit_mb FROM problem_versions WHERE id = ?",
+                (rs, i) -> new TestSet(versionId, rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), List.of()),
+                versionId
+        );
+        if (versions.isEmpty()) {
+            return null;
+        }
+
+        List<TestData> tests = jdbcTemplate.query(
+                "SELECT input_hash, input_size, output_hash, output_size, is_sample " +
+                        "FROM problem_version_test_cases WHERE version_id = ? ORDER BY position",
+                (rs, i) -> new TestData(
+                        new BlobRef(rs.getString(1), rs.getLong(2)),
+                        new BlobRef(rs.getString(3), rs.getLong(4)),
+                        rs.getBoolean(5)
+                ),
+                versionId
+        );
+
+        TestSet version = versions.getFirst();
+        return new TestSet(
+                versionId, version.problemId(), version.number(), version.timeLimitMs(), version.memoryLimitMb(),
+                List.copyOf(tests)
+        );
+    }
+
+    /**
+     * Everything needed to judge a submission against one problem version.
+     *
+     * @param versionId     problem version ID
+     * @param problemId     problem ID
+     * @param number        version number within the problem, from 1
+     * @param timeLimitMs   time limit per test
+     * @param memoryLimitMb memory limit
+     * @param tests         test cases in judging order
+     */
+    public record TestSet(
+            Long versionId,
+            Long problemId,
+            int number,
+            int timeLimitMs,
+            int memoryLimitMb,
+            List<TestData> tests
+    ) {
+    }
+
+    /**
+     * Blobs of one test case.
+     */
+    public record TestData(BlobRef input, BlobRef output, boolean sample) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.leagueofcoding.api.service.version;
+
+import com.leagueofcoding.api.service.blob.BlobStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garbage collector of problem versions and test data blobs.
+ * <p>
+ * A superseded version is deleted once it has been superseded for the grace
+ * period and no waiting or running match pins it; finished matches keep their
+ * result but lose the version reference. The grace period covers a match
+ * created from a version that was superseded a moment later. Blobs referenced
+ * by neither a test case nor a remaining version are then swept from disk,
+ * sparing recently written ones whose rows may not have committed yet.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Component
+public class ProblemVersionCollector {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final long intervalMinutes;
+    private final Duration grace;
+    private final Duration blobMinAge;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("problem-version-gc").daemon().factory()
+    );
+
+    public ProblemVersionCollector(
+            JdbcTemplate jdbcTemplate,
+            BlobStore blobStore,
+            @Value("${problem-versions.gc.interval-minutes:60}") long intervalMinutes,
+            @Value("${problem-versions.gc.grace-minutes:10}") long graceMinutes,
+            @Value("${problem-versions.gc.blob-min-age-minutes:60}") long blobMinAgeMinutes
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.intervalMinutes = intervalMinutes;
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.blobMinAge = Duration.ofMinutes(blobMinAgeMinutes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::collect, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void collect() {
+        try {
+            int versions = jdbcTemplate.update(
+                    "DELETE FROM problem_versions v " +
+                            "WHERE v.superseded_at < ? " +
+                            "AND NOT EXISTS (SELECT 1 FROM problems p WHERE p.current_version_id = v.id) " +
+                            "AND NOT EXISTS (SELECT 1 FROM matches m WHERE m.problem_version_id = v.id " +
+                            "AND m.status IN ('WAITING', 'IN_PROGRESS'))",
+                    Timestamp.valueOf(LocalDateTime.now().minus(grace))
+            );
+
+            Set<String> referenced = new HashSet<>();
+            jdbcTemplate.query(
+                    "SELECT input_hash, output_hash FROM test_cases " +
+                            "UNION SELECT input_hash, output_hash FROM problem_version_test_cases",
+                    rs -> {
+                        referenced.add(rs.getString(1));
+                        referenced.add(rs.getString(2));
+                    }
+            );
+            int blobs = blobStore.deleteUnreferenced(referenced, blobMinAge);
+
+            log.info("Problem version GC: {} versions, {} blobs deleted", versions, blobs);
+        } catch (RuntimeException ex) {
+            log.error("Problem version GC failed", ex);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.leagueofcoding.api.service.version;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Publishes immutable problem versions.
+ * <p>
+ * A version freezes the statement, the limits and the test case hashes of a
+ * problem as they are in the current transaction. Versions are never updated
+ * afterwards: the next edit publishes a new one and marks the previous one
+ * superseded, so a match keeps judging against the version it was created with
+ * and anything derived from a version ID can be cached forever.
+ *
+ * @author dao-nguyenminh
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProblemVersionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Publish a new version of each problem, which becomes its current version.
+     * Joins the caller's transaction, so the version commits with the edit.
+     *
+     * @param problemIds problems whose content changed
+     */
+    @Transactional
+    public void publish(Collection<Long> problemIds) {
+        if (problemIds.isEmpty()) {
+            return;
+        }
+
+        // Pending JPA changes must be visible to the copies below
+        entityManager.flush();
+
+        Object ids = problemIds.toArray(Long[]::new);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // Serializes concurrent publishes of the same problem, so version numbers stay unique
+        jdbcTemplate.queryForList("SELECT id FROM problems WHERE id = ANY(?) ORDER BY id FOR UPDATE", Long.class, ids);
+
+        List<Long> versionIds = jdbcTemplate.queryForList(
+                "INSERT INTO problem_versions (problem_id, number, title, description, time_limit_ms, memory_limit_mb, " +
+                        "created_at) " +
+                        "SELECT p.id, COALESCE((SELECT MAX(v.number) FROM problem_versions v WHERE v.problem_id = p.id), 0) + 1, " +
+                        "p.title, p.description, p.time_limit_ms, p.memory_limit_mb, ? " +
+                        "FROM problems p WHERE p.id = ANY(?) " +
+                        "RETURNING id",
+                Long.class, now, ids
+        );
+        Object newIds = versionIds.toArray(Long[]::new);
+
+        jdbcTemplate.update(
+                "INSERT INTO problem_version_test_cases " +
+                        "(version_id, position, input_hash, input_size, output_hash, output_size, is_sample) " +
+                        "SELECT v.id, ROW_NUMBER() OVER (PARTITION BY v.id ORDER BY t.order_index, t.id) - 1, " +
+                        "t.input_hash, t.input_size, t.output_hash, t.output_size, t.is_sample " +
+                        "FROM problem_versions v JOIN test_cases t ON t.problem_id = v.problem_id " +
+                        "WHERE v.id = ANY(?)",
+                newIds
+        );
+
+        jdbcTemplate.update(
+                "UPDATE problem_versions v SET superseded_at = ? " +
+                        "FROM problems p WHERE v.id = p.current_version_id AND p.id = ANY(?)",
+                now, ids
+        );
+
+        jdbcTemplate.update(
+                "UPDATE problems p SET current_version_id = v.id " +
+                        "FROM problem_versions v WHERE v.problem_id = p.id AND v.id = ANY(?)",
+                newIds
+        );
+
+        log.info("Published problem versions {} for problems {}", versionIds, problemIds);
+    }
+}
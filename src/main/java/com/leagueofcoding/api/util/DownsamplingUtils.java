@@ -0,0 +1,81 @@
+package com.leagueofcoding.api.util;
+
+/**
+ * DownsamplingUtils - Reduce time series for charts.
+ *
+ * @author dao-nguyenminh
+ */
+public class DownsamplingUtils {
+
+    /**
+     * Largest-Triangle-Three-Buckets (Steinarsson, 2013).
+     * <p>
+     * Keeps the first and last point and, from each of the buckets in between,
+     * the point forming the largest triangle with its neighbours - so peaks and
+     * dips survive, unlike plain averaging or every-nth sampling.
+     *
+     * @param x         x values, ascending
+     * @param y         y values
+     * @param length    number of points used from the arrays
+     * @param threshold maximum number of points to keep (at least 3)
+     * @return indices of the kept points, ascending
+     */
+    public static int[] lttb(long[] x, double[] y, int length, int threshold) {
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third triangle corner
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            double maxArea = -1;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs(
+                        (x[previous] - averageX) * (y[i] - y[previous])
+                                - (x[previous] - x[i]) * (averageY - y[previous])
+                );
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+
+            kept[count++] = selected;
+            previous = selected;
+        }
+
+        kept[count] = length - 1;
+        return kept;
+    }
+
+    private DownsamplingUtils() {
+        // Utility class
+    }
+}
@@ -0,0 +1,55 @@
+package com.leagueofcoding.api.util;
+
+import com.leagueofcoding.api.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * IdCursor - Position in a listing ordered by ID alone.
+ * <p>
+ * Clients get it as an opaque token like {@link KeysetCursor}: base64url of
+ * the ID, 8 bytes before encoding.
+ *
+ * @param id ID of the last row returned
+ * @author dao-nguyenminh
+ */
+public record IdCursor(long id) {
+
+    /**
+     * Start of an ascending listing - before every row.
+     */
+    public static final IdCursor BEFORE_ALL = new IdCursor(0);
+
+    /**
+     * Opaque token for this position.
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ByteBuffer.allocate(8).putLong(id).array());
+    }
+
+    /**
+     * Decode a token from {@link #encode()}.
+     *
+     * @param token opaque token, null or blank for the first page
+     * @param start position of the first page
+     * @return decoded position
+     * @throws InvalidCursorException if the token was not produced by {@link #encode()}
+     */
+    public static IdCursor decode(String token, IdCursor start) {
+        if (token == null || token.isBlank()) {
+            return start;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.remaining() != 8) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new IdCursor(buffer.getLong());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+}
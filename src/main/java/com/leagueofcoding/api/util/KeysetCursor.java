@@ -0,0 +1,70 @@
+package com.leagueofcoding.api.util;
+
+import com.leagueofcoding.api.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * KeysetCursor - Position in a listing ordered by (created_at, id).
+ * <p>
+ * Clients get it as an opaque token: base64url of the epoch microseconds
+ * (the database timestamp precision) and the ID, 16 bytes before encoding.
+ *
+ * @param createdAt creation time of the last row returned
+ * @param id        ID of the last row returned
+ * @author dao-nguyenminh
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+    /**
+     * Start of an oldest-first listing - before every row.
+     */
+    public static final KeysetCursor BEFORE_ALL = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    /**
+     * Start of a newest-first listing - after every row.
+     */
+    public static final KeysetCursor AFTER_ALL = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Opaque token for this position.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(EPOCH.until(createdAt, ChronoUnit.MICROS))
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode a token from {@link #encode()}.
+     *
+     * @param token opaque token, null or blank for the first page
+     * @param start position of the first page
+     * @return decoded position
+     * @throws InvalidCursorException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token, KeysetCursor start) {
+        if (token == null || token.isBlank()) {
+            return start;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.remaining() != 16) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+
+            LocalDateTime createdAt = EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+            return new KeysetCursor(createdAt, buffer.getLong());
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+}
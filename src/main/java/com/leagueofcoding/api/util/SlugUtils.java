@@ -1,7 +1,10 @@
 package com.leagueofcoding.api.util;
 
 import java.text.Normalizer;
+import java.util.Collection;
 import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 /**
@@ -28,6 +31,24 @@ public class SlugUtils {
                 .replaceAll("^-|-$", "");
     }
 
+    /**
+     * Normalize tags to slugs, dropping empty and duplicate ones.
+     * <p>
+     * Example: ["Dynamic Programming", "dynamic-programming", "!"] → ["dynamic-programming"]
+     */
+    public static Set<String> generateTagSlugs(Collection<String> tags) {
+        Set<String> slugs = new TreeSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String slug = generateSlug(tag);
+                if (!slug.isEmpty()) {
+                    slugs.add(slug);
+                }
+            }
+        }
+        return slugs;
+    }
+
     /**
      * Generate unique slug by appending number if needed.
      */
@@ -0,0 +1,69 @@
+-- ========================================
+-- League Of Coding - Database Migration V10
+-- Ranked seasons: soft reset + inactivity decay at rollover, archived standings
+-- ========================================
+
+ALTER TABLE user_ratings
+    ADD COLUMN last_played_at TIMESTAMP;
+
+-- One pass over matches, then a join - a per-row subquery cannot use an index on either player column
+UPDATE user_ratings r
+SET last_played_at = p.last_played_at
+FROM (SELECT user_id, MAX(ended_at) AS last_played_at
+      FROM (SELECT player1_id AS user_id, ended_at
+            FROM matches
+            WHERE status = 'COMPLETED'
+              AND rated
+            UNION ALL
+            SELECT player2_id, ended_at
+            FROM matches
+            WHERE status = 'COMPLETED'
+              AND rated) played
+      GROUP BY user_id) p
+WHERE r.user_id = p.user_id;
+
+CREATE TABLE seasons
+(
+    id                BIGSERIAL PRIMARY KEY,
+    number            INTEGER     NOT NULL UNIQUE,
+    status            VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    started_at        TIMESTAMP   NOT NULL,
+    ended_at          TIMESTAMP,
+
+    -- Rollover progress: reset runs in user_id order, committed chunk by chunk
+    reset_mean        INTEGER,
+    reset_cursor      BIGINT      NOT NULL DEFAULT 0,
+    players_processed INTEGER     NOT NULL DEFAULT 0,
+    completed_at      TIMESTAMP
+);
+
+-- At most one season is being played
+CREATE UNIQUE INDEX idx_seasons_active ON seasons (status) WHERE status = 'ACTIVE';
+
+CREATE TABLE season_standings
+(
+    season_id      BIGINT  NOT NULL,
+    user_id        BIGINT  NOT NULL,
+    final_rank     INTEGER,
+    elo_rating     INTEGER NOT NULL,
+    reset_rating   INTEGER NOT NULL,
+    matches_played INTEGER NOT NULL,
+    wins           INTEGER NOT NULL,
+    losses         INTEGER NOT NULL,
+    draws          INTEGER NOT NULL,
+
+    PRIMARY KEY (season_id, user_id),
+    CONSTRAINT fk_season_standings_season FOREIGN KEY (season_id) REFERENCES seasons (id),
+    CONSTRAINT fk_season_standings_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_season_standings_rank ON season_standings (season_id, final_rank);
+
+INSERT INTO seasons (number, status, started_at)
+VALUES (1, 'ACTIVE', CURRENT_TIMESTAMP);
+
+COMMENT ON COLUMN user_ratings.last_played_at IS 'End time of the last rated match, drives inactivity decay';
+COMMENT ON COLUMN seasons.status IS 'ACTIVE, RESETTING, COMPLETED';
+COMMENT ON COLUMN seasons.reset_mean IS 'Rating the soft reset pulls toward, fixed when the rollover starts';
+COMMENT ON COLUMN seasons.reset_cursor IS 'Last user_id reset - a restarted rollover continues after it';
+COMMENT ON TABLE season_standings IS 'Final ratings of a season, archived before the soft reset';
@@ -0,0 +1,88 @@
+-- ========================================
+-- League Of Coding - Database Migration V11
+-- Precomputed per-user profile stats, maintained incrementally on match completion
+-- ========================================
+
+CREATE TABLE user_stats
+(
+    user_id         BIGINT      NOT NULL PRIMARY KEY,
+    username        VARCHAR(50) NOT NULL UNIQUE,
+    elo_rating      INTEGER     NOT NULL DEFAULT 1200,
+    matches_played  INTEGER     NOT NULL DEFAULT 0,
+    wins            INTEGER     NOT NULL DEFAULT 0,
+    losses          INTEGER     NOT NULL DEFAULT 0,
+    draws           INTEGER     NOT NULL DEFAULT 0,
+    recent_form     VARCHAR(10) NOT NULL DEFAULT '',
+    language_counts JSONB       NOT NULL DEFAULT '{}',
+    solved_count    INTEGER     NOT NULL DEFAULT 0,
+    last_played_at  TIMESTAMP,
+    updated_at      TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_user_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Problems a user has passed at least once - makes the solved count incremental
+CREATE TABLE user_solved_problems
+(
+    user_id    BIGINT    NOT NULL,
+    problem_id BIGINT    NOT NULL,
+    solved_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id, problem_id),
+    CONSTRAINT fk_user_solved_problems_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_solved_problems_problem FOREIGN KEY (problem_id) REFERENCES problems (id) ON DELETE CASCADE
+);
+
+-- Backfill from existing matches
+INSERT INTO user_solved_problems (user_id, problem_id, solved_at)
+SELECT s.user_id, m.problem_id, MIN(COALESCE(s.judged_at, s.submitted_at))
+FROM match_submissions s
+         JOIN matches m ON m.id = s.match_id
+WHERE s.status = 'PASSED'
+GROUP BY s.user_id, m.problem_id;
+
+INSERT INTO user_stats (user_id, username, elo_rating, matches_played, wins, losses, draws, last_played_at)
+SELECT u.id,
+       u.username,
+       COALESCE(r.elo_rating, 1200),
+       COALESCE(r.matches_played, 0),
+       COALESCE(r.wins, 0),
+       COALESCE(r.losses, 0),
+       COALESCE(r.draws, 0),
+       r.last_played_at
+FROM users u
+         LEFT JOIN user_ratings r ON r.user_id = u.id;
+
+UPDATE user_stats s
+SET solved_count = c.solved
+FROM (SELECT user_id, COUNT(*) AS solved FROM user_solved_problems GROUP BY user_id) c
+WHERE s.user_id = c.user_id;
+
+UPDATE user_stats s
+SET language_counts = c.counts
+FROM (SELECT user_id, jsonb_object_agg(language, matches) AS counts
+      FROM (SELECT user_id, language, COUNT(*) AS matches FROM match_submissions GROUP BY user_id, language) l
+      GROUP BY user_id) c
+WHERE s.user_id = c.user_id;
+
+UPDATE user_stats s
+SET recent_form = f.form
+FROM (SELECT user_id, string_agg(result, '' ORDER BY ended_at DESC, match_id DESC) AS form
+      FROM (SELECT p.user_id,
+                   m.id                                                          AS match_id,
+                   m.ended_at,
+                   CASE
+                       WHEN m.winner_id IS NULL THEN 'D'
+                       WHEN m.winner_id = p.user_id THEN 'W'
+                       ELSE 'L' END                                              AS result,
+                   ROW_NUMBER() OVER (PARTITION BY p.user_id ORDER BY m.ended_at DESC, m.id DESC) AS n
+            FROM matches m
+                     CROSS JOIN LATERAL (VALUES (m.player1_id), (m.player2_id)) AS p (user_id)
+            WHERE m.status = 'COMPLETED') recent
+      WHERE n <= 10
+      GROUP BY user_id) f
+WHERE s.user_id = f.user_id;
+
+COMMENT ON TABLE user_stats IS 'Profile stats per user, one primary key lookup per profile view';
+COMMENT ON COLUMN user_stats.recent_form IS 'Results of the last 10 matches, newest first: W, L or D';
+COMMENT ON COLUMN user_stats.language_counts IS 'Matches submitted per language, e.g. {"JAVA": 12}';
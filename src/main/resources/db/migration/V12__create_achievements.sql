@@ -0,0 +1,27 @@
+-- ========================================
+-- League Of Coding - Database Migration V12
+-- Achievements: unlocked badges and the incremental counters behind them
+-- ========================================
+
+CREATE TABLE user_achievements
+(
+    user_id     BIGINT      NOT NULL,
+    code        VARCHAR(64) NOT NULL,
+    unlocked_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id, code),
+    CONSTRAINT fk_user_achievements_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE achievement_counters
+(
+    user_id BIGINT      NOT NULL,
+    name    VARCHAR(64) NOT NULL,
+    value   BIGINT      NOT NULL,
+
+    PRIMARY KEY (user_id, name),
+    CONSTRAINT fk_achievement_counters_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE user_achievements IS 'Badges unlocked per user, e.g. WIN_STREAK_10';
+COMMENT ON TABLE achievement_counters IS 'Rule state per user, e.g. wins, win_streak, solved:category:3';
@@ -0,0 +1,22 @@
+-- ========================================
+-- League Of Coding - Database Migration V13
+-- Keyset pagination indexes for problem listings and match history
+-- ========================================
+
+-- Problem listings page by (created_at, id) over active problems, optionally
+-- filtered by difficulty and/or category: one partial index per filter, so
+-- every page is an index range scan whatever its depth.
+-- Match history pages by (created_at, id) newest first per player; the
+-- composite indexes replace the single-column player indexes.
+
+CREATE INDEX idx_problems_active_created ON problems (created_at, id) WHERE is_active = TRUE;
+CREATE INDEX idx_problems_active_difficulty_created ON problems (difficulty, created_at, id) WHERE is_active = TRUE;
+CREATE INDEX idx_problems_active_category_created ON problems (category_id, created_at, id) WHERE is_active = TRUE;
+CREATE INDEX idx_problems_active_category_difficulty_created
+    ON problems (category_id, difficulty, created_at, id) WHERE is_active = TRUE;
+
+DROP INDEX idx_matches_player1;
+DROP INDEX idx_matches_player2;
+
+CREATE INDEX idx_matches_player1_created ON matches (player1_id, created_at DESC, id DESC);
+CREATE INDEX idx_matches_player2_created ON matches (player2_id, created_at DESC, id DESC);
@@ -0,0 +1,13 @@
+-- ========================================
+-- League Of Coding - Database Migration V14
+-- Test case data moves to the content-addressed blob store
+-- ========================================
+-- Rows keep only the SHA-256 and size of their input and expected output.
+-- The TEXT columns are copied to the blob store and dropped by the Java
+-- migration V15 (TestDataBlobMigration).
+
+ALTER TABLE test_cases
+    ADD COLUMN input_hash  VARCHAR(64),
+    ADD COLUMN input_size  BIGINT,
+    ADD COLUMN output_hash VARCHAR(64),
+    ADD COLUMN output_size BIGINT;
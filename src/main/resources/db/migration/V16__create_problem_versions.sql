@@ -0,0 +1,77 @@
+-- ========================================
+-- League Of Coding - Database Migration V16
+-- Immutable problem versions pinned by matches
+-- ========================================
+-- Every edit of a problem or its test cases publishes a new version: a copy
+-- of the statement, the limits and the test case hashes (the data itself
+-- is shared in the blob store). A match judges against the version current
+-- when it was created. Superseded versions that no live match pins are
+-- garbage-collected; finished matches then lose their version reference.
+
+CREATE TABLE problem_versions
+(
+    id              BIGSERIAL PRIMARY KEY,
+    problem_id      BIGINT       NOT NULL,
+    number          INTEGER      NOT NULL,
+    title           VARCHAR(255) NOT NULL,
+    description     TEXT         NOT NULL,
+    time_limit_ms   INTEGER      NOT NULL,
+    memory_limit_mb INTEGER      NOT NULL,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    superseded_at   TIMESTAMP,
+
+    CONSTRAINT uk_problem_versions_number UNIQUE (problem_id, number),
+    CONSTRAINT fk_problem_versions_problem FOREIGN KEY (problem_id) REFERENCES problems (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_problem_versions_superseded ON problem_versions (superseded_at) WHERE superseded_at IS NOT NULL;
+
+CREATE TABLE problem_version_test_cases
+(
+    version_id  BIGINT      NOT NULL,
+    position    INTEGER     NOT NULL,
+    input_hash  VARCHAR(64) NOT NULL,
+    input_size  BIGINT      NOT NULL,
+    output_hash VARCHAR(64) NOT NULL,
+    output_size BIGINT      NOT NULL,
+    is_sample   BOOLEAN     NOT NULL,
+
+    PRIMARY KEY (version_id, position),
+    CONSTRAINT fk_problem_version_test_cases_version FOREIGN KEY (version_id)
+        REFERENCES problem_versions (id) ON DELETE CASCADE
+);
+
+-- Version 1 of every existing problem
+INSERT INTO problem_versions (problem_id, number, title, description, time_limit_ms, memory_limit_mb)
+SELECT id, 1, title, description, time_limit_ms, memory_limit_mb
+FROM problems;
+
+INSERT INTO problem_version_test_cases (version_id, position, input_hash, input_size, output_hash, output_size, is_sample)
+SELECT v.id,
+       ROW_NUMBER() OVER (PARTITION BY t.problem_id ORDER BY t.order_index, t.id) - 1,
+       t.input_hash, t.input_size, t.output_hash, t.output_size, t.is_sample
+FROM test_cases t
+         JOIN problem_versions v ON v.problem_id = t.problem_id;
+
+ALTER TABLE problems
+    ADD COLUMN current_version_id BIGINT,
+    ADD CONSTRAINT fk_problems_current_version FOREIGN KEY (current_version_id) REFERENCES problem_versions (id);
+
+UPDATE problems p
+SET current_version_id = v.id
+FROM problem_versions v
+WHERE v.problem_id = p.id;
+
+ALTER TABLE matches
+    ADD COLUMN problem_version_id BIGINT,
+    ADD CONSTRAINT fk_matches_problem_version FOREIGN KEY (problem_version_id)
+        REFERENCES problem_versions (id) ON DELETE SET NULL;
+
+-- Only live matches pin a version
+UPDATE matches m
+SET problem_version_id = p.current_version_id
+FROM problems p
+WHERE p.id = m.problem_id
+  AND m.status IN ('WAITING', 'IN_PROGRESS');
+
+CREATE INDEX idx_matches_problem_version ON matches (problem_version_id);
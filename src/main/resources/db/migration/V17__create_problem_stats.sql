@@ -0,0 +1,22 @@
+-- ========================================
+-- League Of Coding - Database Migration V17
+-- Per-problem, per-language submission statistics
+-- ========================================
+-- Maintained incrementally by ProblemStatsService: each instance merges its
+-- counters and runtime histogram deltas into these rows periodically.
+-- runtime_histogram holds accepted-runtime counts per RuntimeHistogram bucket,
+-- trailing empty buckets trimmed. Existing submissions are aggregated by the
+-- Java migration V18 (ProblemStatsBackfillMigration).
+
+CREATE TABLE problem_stats
+(
+    problem_id        BIGINT      NOT NULL,
+    language          VARCHAR(20) NOT NULL,
+    submissions       BIGINT      NOT NULL DEFAULT 0,
+    accepted          BIGINT      NOT NULL DEFAULT 0,
+    runtime_histogram BIGINT[]    NOT NULL DEFAULT '{}',
+    updated_at        TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (problem_id, language),
+    CONSTRAINT fk_problem_stats_problem FOREIGN KEY (problem_id) REFERENCES problems (id) ON DELETE CASCADE
+);
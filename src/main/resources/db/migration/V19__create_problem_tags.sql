@@ -0,0 +1,15 @@
+-- ========================================
+-- League Of Coding - Database Migration V19
+-- Problem tags
+-- ========================================
+-- Free-form slugs (e.g. "dynamic-programming") set by admins, used as a
+-- filter facet together with difficulty and category.
+
+CREATE TABLE problem_tags
+(
+    problem_id BIGINT      NOT NULL,
+    tag        VARCHAR(50) NOT NULL,
+
+    PRIMARY KEY (problem_id, tag),
+    CONSTRAINT fk_problem_tags_problem FOREIGN KEY (problem_id) REFERENCES problems (id) ON DELETE CASCADE
+);
@@ -0,0 +1,12 @@
+-- ========================================
+-- League Of Coding - Database Migration V20
+-- Pre-rendered problem statements
+-- ========================================
+-- The Markdown description is rendered to sanitized HTML when a problem is
+-- written, and stored next to the source with the SHA-256 of the HTML.
+-- Existing problems are rendered by the Java migration V21
+-- (StatementRenderMigration), which also makes the columns NOT NULL.
+
+ALTER TABLE problems
+    ADD COLUMN description_html TEXT,
+    ADD COLUMN description_hash VARCHAR(64);
@@ -0,0 +1,100 @@
+-- ========================================
+-- League Of Coding - Database Migration V22
+-- Backfill achievement counters and badges from match and solve history
+-- ========================================
+
+-- Tiers unlock at exact counter values: counters must start from the real history,
+-- or a veteran's next win counts as the first one
+
+-- One row per player per completed match, with the streak group it belongs to:
+-- every non-win starts a new group, so the wins of a group are one streak
+CREATE TEMPORARY TABLE achievement_results ON COMMIT DROP AS
+SELECT user_id,
+       result,
+       SUM(CASE WHEN result = 'W' THEN 0 ELSE 1 END)
+       OVER (PARTITION BY user_id ORDER BY ended_at, match_id) AS streak_group
+FROM (SELECT p.user_id,
+             m.id       AS match_id,
+             m.ended_at,
+             CASE
+                 WHEN m.winner_id IS NULL THEN 'D'
+                 WHEN m.winner_id = p.user_id THEN 'W'
+                 ELSE 'L' END AS result
+      FROM matches m
+               CROSS JOIN LATERAL (VALUES (m.player1_id), (m.player2_id)) AS p (user_id)
+      WHERE m.status = 'COMPLETED') r;
+
+CREATE TEMPORARY TABLE achievement_streaks ON COMMIT DROP AS
+SELECT user_id, streak_group, COUNT(*) FILTER (WHERE result = 'W') AS wins
+FROM achievement_results
+GROUP BY user_id, streak_group;
+
+-- ===== Counters =====
+
+INSERT INTO achievement_counters (user_id, name, value)
+SELECT user_id, 'matches', COUNT(*)
+FROM achievement_results
+GROUP BY user_id
+UNION ALL
+SELECT user_id, 'wins', COUNT(*)
+FROM achievement_results
+WHERE result = 'W'
+GROUP BY user_id
+UNION ALL
+-- Current streak: wins of the latest group
+(SELECT DISTINCT ON (user_id) user_id, 'win_streak', wins
+ FROM achievement_streaks
+ ORDER BY user_id, streak_group DESC)
+ON CONFLICT (user_id, name) DO UPDATE SET value = EXCLUDED.value;
+
+INSERT INTO achievement_counters (user_id, name, value)
+SELECT user_id, 'solved', COUNT(*)
+FROM user_solved_problems
+GROUP BY user_id
+UNION ALL
+SELECT s.user_id, 'solved:category:' || p.category_id, COUNT(*)
+FROM user_solved_problems s
+         JOIN problems p ON p.id = s.problem_id
+GROUP BY s.user_id, p.category_id
+ON CONFLICT (user_id, name) DO UPDATE SET value = EXCLUDED.value;
+
+-- ===== Badges already earned =====
+
+INSERT INTO user_achievements (user_id, code)
+SELECT c.user_id, t.code
+FROM achievement_counters c
+         JOIN (VALUES ('wins', 1, 'FIRST_WIN'),
+                      ('wins', 10, 'WINS_10'),
+                      ('wins', 100, 'WINS_100'),
+                      ('matches', 100, 'MATCHES_100'),
+                      ('matches', 1000, 'MATCHES_1000'),
+                      ('solved', 1, 'FIRST_SOLVE'),
+                      ('solved', 50, 'SOLVED_50'),
+                      ('solved', 200, 'SOLVED_200')) AS t (name, tier, code)
+              ON c.name = t.name AND c.value >= t.tier
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_achievements (user_id, code)
+SELECT c.user_id, t.code || substring(c.name FROM length('solved:category:') + 1)
+FROM achievement_counters c
+         JOIN (VALUES (10, 'SOLVED_10_CATEGORY_'),
+                      (50, 'SOLVED_50_CATEGORY_')) AS t (tier, code)
+              ON c.value >= t.tier
+WHERE c.name LIKE 'solved:category:%'
+ON CONFLICT DO NOTHING;
+
+-- Streak badges go by the longest streak ever, not the current one
+INSERT INTO user_achievements (user_id, code)
+SELECT s.user_id, t.code
+FROM (SELECT user_id, MAX(wins) AS longest FROM achievement_streaks GROUP BY user_id) s
+         JOIN (VALUES (5, 'WIN_STREAK_5'),
+                      (10, 'WIN_STREAK_10')) AS t (tier, code)
+              ON s.longest >= t.tier
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_achievements (user_id, code)
+SELECT DISTINCT user_id, 'SUB_100MS'
+FROM match_submissions
+WHERE status = 'PASSED'
+  AND execution_time_ms < 100
+ON CONFLICT DO NOTHING;
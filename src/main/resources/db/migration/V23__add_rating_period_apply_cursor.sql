@@ -0,0 +1,24 @@
+-- ========================================
+-- League Of Coding - Database Migration V23
+-- Glicko-2 periods: results staged once, applied to user_ratings in keyset chunks
+-- ========================================
+
+ALTER TABLE rating_periods
+    ADD COLUMN status       VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    -- Apply progress: runs in user_id order, committed chunk by chunk
+    ADD COLUMN apply_cursor BIGINT      NOT NULL DEFAULT 0,
+    ALTER COLUMN completed_at DROP NOT NULL,
+    ALTER COLUMN completed_at DROP DEFAULT;
+
+-- New values of the period being applied - kept until every chunk has committed,
+-- so a restarted apply never rates a player twice
+CREATE TABLE rating_period_results
+(
+    user_id           BIGINT           NOT NULL PRIMARY KEY,
+    glicko_rating     DOUBLE PRECISION NOT NULL,
+    glicko_deviation  DOUBLE PRECISION NOT NULL,
+    glicko_volatility DOUBLE PRECISION NOT NULL
+);
+
+COMMENT ON COLUMN rating_periods.status IS 'APPLYING while results are being written to user_ratings, then COMPLETED';
+COMMENT ON TABLE rating_period_results IS 'Glicko-2 results of the period being applied, emptied once it completes';
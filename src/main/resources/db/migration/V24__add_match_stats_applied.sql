@@ -0,0 +1,17 @@
+-- ========================================
+-- League Of Coding - Database Migration V24
+-- Applied flag for profile stats, so a crash between flushes loses no match
+-- ========================================
+
+ALTER TABLE matches
+    ADD COLUMN stats_applied BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Everything completed so far is already counted in user_stats
+UPDATE matches
+SET stats_applied = TRUE
+WHERE status = 'COMPLETED';
+
+-- Completed matches still waiting for the profile stats flush (normally empty)
+CREATE INDEX idx_matches_stats_pending ON matches (ended_at) WHERE status = 'COMPLETED' AND stats_applied = FALSE;
+
+COMMENT ON COLUMN matches.stats_applied IS 'TRUE once the result has been applied to user_stats (exactly once)';
@@ -0,0 +1,18 @@
+-- ========================================
+-- League Of Coding - Database Migration V25
+-- Applied flag for dimension leaderboards, so a crash between flushes loses no match
+-- ========================================
+
+ALTER TABLE matches
+    ADD COLUMN leaderboard_applied BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Everything completed so far is already counted in the sorted sets
+UPDATE matches
+SET leaderboard_applied = TRUE
+WHERE status = 'COMPLETED';
+
+-- Completed matches still waiting for the leaderboard flush (normally empty)
+CREATE INDEX idx_matches_leaderboard_pending ON matches (ended_at)
+    WHERE status = 'COMPLETED' AND leaderboard_applied = FALSE;
+
+COMMENT ON COLUMN matches.leaderboard_applied IS 'TRUE once the result has been added to the dimension leaderboards';
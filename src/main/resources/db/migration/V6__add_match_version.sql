@@ -0,0 +1,9 @@
+-- ========================================
+-- League Of Coding - Database Migration V6
+-- Add version column to matches for compare-and-set transitions
+-- ========================================
+
+ALTER TABLE matches
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN matches.version IS 'Incremented by every state transition (WAITING -> IN_PROGRESS -> COMPLETED/CANCELLED)';
@@ -0,0 +1,17 @@
+-- ========================================
+-- League Of Coding - Database Migration V7
+-- ELO rating engine: optimistic locking on ratings, draws, rated flag on matches
+-- ========================================
+
+ALTER TABLE user_ratings
+    ADD COLUMN draws   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN version BIGINT  NOT NULL DEFAULT 0;
+
+ALTER TABLE matches
+    ADD COLUMN rated BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Completed matches still waiting for the rating engine (normally empty)
+CREATE INDEX idx_matches_unrated ON matches (ended_at) WHERE status = 'COMPLETED' AND rated = FALSE;
+
+COMMENT ON COLUMN user_ratings.version IS 'Optimistic lock, bumped by every rating update';
+COMMENT ON COLUMN matches.rated IS 'TRUE once the result has been applied to user_ratings (exactly once)';
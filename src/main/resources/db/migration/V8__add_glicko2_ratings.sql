@@ -0,0 +1,28 @@
+-- ========================================
+-- League Of Coding - Database Migration V8
+-- Glicko-2 ratings alongside ELO, processed in rating periods
+-- ========================================
+
+ALTER TABLE user_ratings
+    ADD COLUMN glicko_rating     DOUBLE PRECISION NOT NULL DEFAULT 1500,
+    ADD COLUMN glicko_deviation  DOUBLE PRECISION NOT NULL DEFAULT 350,
+    ADD COLUMN glicko_volatility DOUBLE PRECISION NOT NULL DEFAULT 0.06;
+
+-- Processed rating periods - the latest period_end is where the next period starts
+CREATE TABLE rating_periods
+(
+    id           BIGSERIAL PRIMARY KEY,
+    period_start TIMESTAMP NOT NULL UNIQUE,
+    period_end   TIMESTAMP NOT NULL,
+    players      INTEGER   NOT NULL,
+    results      INTEGER   NOT NULL,
+    completed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Results of a period are read by end time
+CREATE INDEX idx_matches_completed_ended_at ON matches (ended_at) WHERE status = 'COMPLETED';
+
+COMMENT ON COLUMN user_ratings.glicko_rating IS 'Glicko-2 rating (Glicko scale, 1500 = new player)';
+COMMENT ON COLUMN user_ratings.glicko_deviation IS 'Glicko-2 rating deviation (RD) - uncertainty, 350 = unknown';
+COMMENT ON COLUMN user_ratings.glicko_volatility IS 'Glicko-2 volatility (sigma) - expected fluctuation';
+COMMENT ON TABLE rating_periods IS 'Glicko-2 rating periods already applied to user_ratings';
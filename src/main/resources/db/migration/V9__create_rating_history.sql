@@ -0,0 +1,23 @@
+-- ========================================
+-- League Of Coding - Database Migration V9
+-- Append-only rating history, one delta-encoded chunk per user per month
+-- ========================================
+
+CREATE TABLE rating_history
+(
+    user_id       BIGINT  NOT NULL,
+    month         DATE    NOT NULL,
+    points        INTEGER NOT NULL,
+    data          BYTEA   NOT NULL,
+
+    -- Last point of the chunk - the next appended point is encoded relative to it
+    last_at       BIGINT  NOT NULL,
+    last_match_id BIGINT  NOT NULL,
+    last_rating   INTEGER NOT NULL,
+
+    PRIMARY KEY (user_id, month),
+    CONSTRAINT fk_rating_history_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE rating_history IS 'Rating change per match, grouped per user and month';
+COMMENT ON COLUMN rating_history.data IS 'Points as zigzag varint deltas of (epoch second, match ID, rating), first point relative to zero';
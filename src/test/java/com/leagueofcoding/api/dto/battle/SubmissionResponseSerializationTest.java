@@ -0,0 +1,47 @@
+package com.leagueofcoding.api.dto.battle;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueofcoding.api.entity.MatchSubmission;
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Submission responses must never echo the submitted code back.
+ *
+ * @author dao-nguyenminh
+ */
+class SubmissionResponseSerializationTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void submissionResponseHasNoCodeField() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        MatchSubmission submission = MatchSubmission.builder()
+                .id(42L)
+                .matchId(7L)
+                .userId(1L)
+                .code("class Solution { int solve(int[] a) { return a.length; } }")
+                .language(ProgrammingLanguage.JAVA)
+                .status(SubmissionStatus.PASSED)
+                .testCasesPassed(10)
+                .testCasesTotal(10)
+                .executionTimeMs(120)
+                .memoryUsedKb(32_000)
+                .submittedAt(now)
+                .judgedAt(now)
+                .build();
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsBytes(SubmissionResponse.from(submission)));
+
+        assertThat(json.has("code")).isFalse();
+        assertThat(json.get("id").asLong()).isEqualTo(42L);
+        assertThat(json.get("status").asText()).isEqualTo("PASSED");
+    }
+}
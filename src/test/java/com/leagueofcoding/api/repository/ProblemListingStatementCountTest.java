@@ -0,0 +1,131 @@
+package com.leagueofcoding.api.repository;
+
+import com.leagueofcoding.api.dto.problem.ProblemSummaryResponse;
+import com.leagueofcoding.api.entity.Category;
+import com.leagueofcoding.api.entity.Problem;
+import com.leagueofcoding.api.entity.User;
+import com.leagueofcoding.api.enums.Difficulty;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Problem listing must issue a fixed number of statements per page
+ * (page query + count), whatever the page size.
+ *
+ * @author dao-nguyenminh
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProblemListingStatementCountTest {
+
+    private static final int PROBLEMS = 25;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        String suffix = Long.toString(System.nanoTime());
+        User creator = entityManager.persist(User.builder()
+                .username("n1-" + suffix)
+                .email("n1-" + suffix + "@example.com")
+                .password("x")
+                .build());
+
+        Category[] categories = new Category[5];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = entityManager.persist(Category.builder()
+                    .name("N+1 " + suffix + " " + i)
+                    .slug("n1-" + suffix + "-" + i)
+                    .build());
+        }
+        categoryId = categories[0].getId();
+
+        // Newest problems first in the listings below, spread over all categories
+        LocalDateTime now = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < PROBLEMS; i++) {
+            entityManager.persist(Problem.builder()
+                    .title("Problem " + i)
+                    .slug("n1-" + suffix + "-problem-" + i)
+                    .description("Description " + i)
+                    .descriptionHtml("<p>Description " + i + "</p>")
+                    .descriptionHash("0".repeat(64))
+                    .difficulty(Difficulty.EASY)
+                    .category(i < 20 ? categories[0] : categories[i % categories.length])
+                    .createdBy(creator)
+                    .createdAt(now.plusSeconds(i))
+                    .build());
+        }
+
+        // Listings must not be served from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void activeListingUsesTwoStatementsPerPage() {
+        assertStatementsPerPage(problemRepository::findByIsActiveTrue);
+    }
+
+    @Test
+    void difficultyListingUsesTwoStatementsPerPage() {
+        assertStatementsPerPage(pageable -> problemRepository.findByDifficultyAndActive(Difficulty.EASY, pageable));
+    }
+
+    @Test
+    void categoryListingUsesTwoStatementsPerPage() {
+        assertStatementsPerPage(pageable -> problemRepository.findByCategoryAndActive(categoryId, pageable));
+    }
+
+    @Test
+    void categoryAndDifficultyListingUsesTwoStatementsPerPage() {
+        assertStatementsPerPage(pageable ->
+                problemRepository.findByCategoryAndDifficultyAndActive(categoryId, Difficulty.EASY, pageable));
+    }
+
+    private void assertStatementsPerPage(Function<Pageable, Page<Problem>> listing) {
+        assertThat(statementsFor(listing, 5)).isEqualTo(2);
+        assertThat(statementsFor(listing, 20)).isEqualTo(2);
+    }
+
+    private long statementsFor(Function<Pageable, Page<Problem>> listing, int size) {
+        entityManager.clear();
+        statistics.clear();
+
+        // Same mapping as ProblemService.listProblems - touches every category
+        Page<ProblemSummaryResponse> page = listing
+                .apply(PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")))
+                .map(ProblemSummaryResponse::from);
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getContent()).allSatisfy(problem -> assertThat(problem.category().name()).isNotNull());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
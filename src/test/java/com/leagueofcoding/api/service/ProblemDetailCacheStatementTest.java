@@ -0,0 +1,50 @@
+package com.leagueofcoding.api.service;
+
+import com.leagueofcoding.api.service.render.ProblemStatementRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement representations: the gzip body must carry its own strong ETag.
+ *
+ * @author dao-nguyenminh
+ */
+class ProblemDetailCacheStatementTest {
+
+    private final ProblemDetailCache.Statement statement =
+            ProblemDetailCache.Statement.of(new ProblemStatementRenderer.Rendered("<p>Sum two numbers</p>\n", "abc123"));
+
+    @Test
+    void encodingsHaveDistinctStrongTags() {
+        assertThat(statement.etag()).isEqualTo("\"abc123\"");
+        assertThat(statement.gzipEtag()).isEqualTo("\"abc123-gz\"");
+    }
+
+    @Test
+    void eitherTagMatches() {
+        assertThat(statement.matches("\"abc123\"")).isTrue();
+        assertThat(statement.matches("\"abc123-gz\"")).isTrue();
+        assertThat(statement.matches("\"other\", \"abc123-gz\"")).isTrue();
+        assertThat(statement.matches("*")).isTrue();
+    }
+
+    @Test
+    void otherTagsDoNotMatch() {
+        assertThat(statement.matches(null)).isFalse();
+        assertThat(statement.matches("\"abc12\"")).isFalse();
+        assertThat(statement.matches("\"abc123-br\"")).isFalse();
+    }
+
+    @Test
+    void gzipBodyInflatesToTheHtml() throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(statement.gzip()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("<p>Sum two numbers</p>\n");
+        }
+    }
+}
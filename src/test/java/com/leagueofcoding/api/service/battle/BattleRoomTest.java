@@ -0,0 +1,179 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.entity.Match;
+import com.leagueofcoding.api.entity.MatchSubmission;
+import com.leagueofcoding.api.enums.MatchStatus;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Battle room deadline resolution (more passed tests wins, then faster execution) and write order.
+ *
+ * @author dao-nguyenminh
+ */
+class BattleRoomTest {
+
+    private static final Long PLAYER_1 = 1L;
+    private static final Long PLAYER_2 = 2L;
+
+    private final MatchStateWriter stateWriter = mock(MatchStateWriter.class);
+    private final BattleDeadlineScheduler deadlineScheduler = mock(BattleDeadlineScheduler.class);
+    private final List<BattleRoom> closed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(stateWriter.write(any())).thenReturn(CompletableFuture.completedFuture(true));
+    }
+
+    @Test
+    void morePassedTestsWinsOverSpeed() {
+        MatchSnapshot ended = expire(judged(PLAYER_1, 7, 900), judged(PLAYER_2, 6, 10));
+
+        assertThat(ended.status()).isEqualTo(MatchStatus.COMPLETED);
+        assertThat(ended.winnerId()).isEqualTo(PLAYER_1);
+    }
+
+    @Test
+    void fasterWinsOnEqualPassedTests() {
+        MatchSnapshot ended = expire(judged(PLAYER_1, 5, 300), judged(PLAYER_2, 5, 120));
+
+        assertThat(ended.winnerId()).isEqualTo(PLAYER_2);
+    }
+
+    @Test
+    void equalScoreAndTimeIsADraw() {
+        MatchSnapshot ended = expire(judged(PLAYER_1, 5, 200), judged(PLAYER_2, 5, 200));
+
+        assertThat(ended.status()).isEqualTo(MatchStatus.COMPLETED);
+        assertThat(ended.winnerId()).isNull();
+    }
+
+    @Test
+    void speedDoesNotDecideWhenNothingPassed() {
+        MatchSnapshot ended = expire(judged(PLAYER_1, 0, 5), judged(PLAYER_2, 0, 500));
+
+        assertThat(ended.winnerId()).isNull();
+    }
+
+    @Test
+    void judgedSubmissionBeatsMissingOne() {
+        MatchSnapshot ended = expire(judged(PLAYER_2, 1, 1000));
+
+        assertThat(ended.winnerId()).isEqualTo(PLAYER_2);
+    }
+
+    @Test
+    void missingExecutionTimeLosesTheTieBreak() {
+        MatchSnapshot ended = expire(judged(PLAYER_1, 3, null), judged(PLAYER_2, 3, 800));
+
+        assertThat(ended.winnerId()).isEqualTo(PLAYER_2);
+    }
+
+    @Test
+    void battleWithoutSubmissionsIsCancelled() {
+        MatchSnapshot ended = expire();
+
+        assertThat(ended.status()).isEqualTo(MatchStatus.CANCELLED);
+        assertThat(ended.winnerId()).isNull();
+    }
+
+    @Test
+    void decidedMatchDoesNotExpireAgain() {
+        BattleRoom room = room(List.of());
+        room.recordVerdict(passed(PLAYER_1)).join();
+
+        assertThat(room.expire().join()).isEmpty();
+        assertThat(room.snapshot().winnerId()).isEqualTo(PLAYER_1);
+    }
+
+    @Test
+    void roomClosesOnceFinalStateIsStored() {
+        BattleRoom room = room(List.of());
+
+        room.expire().join();
+
+        assertThat(closed).containsExactly(room);
+    }
+
+    @Test
+    void finalStateWaitsUntilStartIsStored() {
+        CompletableFuture<Boolean> startWrite = new CompletableFuture<>();
+        when(stateWriter.write(any())).thenAnswer(invocation ->
+                invocation.<MatchSnapshot>getArgument(0).status() == MatchStatus.IN_PROGRESS
+                        ? startWrite
+                        : CompletableFuture.completedFuture(true));
+        BattleRoom room = room(MatchStatus.WAITING, List.of());
+
+        room.join(PLAYER_1).join();
+        room.expire().join();
+
+        verify(stateWriter, times(1)).write(any());
+        assertThat(closed).isEmpty();
+
+        startWrite.complete(true);
+
+        verify(stateWriter, times(2)).write(any());
+        assertThat(closed).containsExactly(room);
+    }
+
+    private MatchSnapshot expire(MatchSubmission... submissions) {
+        Optional<MatchSnapshot> ended = room(List.of(submissions)).expire().join();
+
+        assertThat(ended).isPresent();
+        return ended.get();
+    }
+
+    private BattleRoom room(List<MatchSubmission> submissions) {
+        return room(MatchStatus.IN_PROGRESS, submissions);
+    }
+
+    private BattleRoom room(MatchStatus status, List<MatchSubmission> submissions) {
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(30);
+        Match match = Match.builder()
+                .id(10L)
+                .player1Id(PLAYER_1)
+                .player2Id(PLAYER_2)
+                .problemId(100L)
+                .status(status)
+                .startedAt(status == MatchStatus.IN_PROGRESS ? startedAt : null)
+                .createdAt(startedAt)
+                .build();
+
+        return new BattleRoom(match, submissions, Runnable::run, stateWriter, deadlineScheduler, closed::add);
+    }
+
+    private static MatchSubmission judged(Long userId, int testCasesPassed, Integer executionTimeMs) {
+        return MatchSubmission.builder()
+                .userId(userId)
+                .status(SubmissionStatus.FAILED)
+                .testCasesPassed(testCasesPassed)
+                .testCasesTotal(10)
+                .executionTimeMs(executionTimeMs)
+                .build();
+    }
+
+    private static MatchSubmission passed(Long userId) {
+        return MatchSubmission.builder()
+                .userId(userId)
+                .status(SubmissionStatus.PASSED)
+                .testCasesPassed(10)
+                .testCasesTotal(10)
+                .executionTimeMs(50)
+                .build();
+    }
+}
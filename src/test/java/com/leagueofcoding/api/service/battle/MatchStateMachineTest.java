@@ -0,0 +1,85 @@
+package com.leagueofcoding.api.service.battle;
+
+import com.leagueofcoding.api.dto.battle.MatchSnapshot;
+import com.leagueofcoding.api.enums.MatchStatus;
+import com.leagueofcoding.api.repository.MatchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Each target state maps to one conditional transition; only a stored COMPLETED publishes an event.
+ *
+ * @author dao-nguyenminh
+ */
+class MatchStateMachineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private final MatchRepository matchRepository = mock(MatchRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final MatchStateMachine stateMachine = new MatchStateMachine(matchRepository, eventPublisher);
+
+    @Test
+    void startStoresStartTime() {
+        when(matchRepository.startMatch(1L, NOW)).thenReturn(Optional.of(2L));
+
+        assertThat(stateMachine.apply(snapshot(MatchStatus.IN_PROGRESS, null))).isTrue();
+        verify(matchRepository).startMatch(1L, NOW);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void storedCompletionPublishesEvent() {
+        MatchSnapshot completed = snapshot(MatchStatus.COMPLETED, 7L);
+        when(matchRepository.completeMatch(1L, 7L, NOW)).thenReturn(Optional.of(3L));
+
+        assertThat(stateMachine.apply(completed)).isTrue();
+        verify(eventPublisher).publishEvent(new MatchCompletedEvent(completed));
+    }
+
+    @Test
+    void rejectedCompletionPublishesNothing() {
+        when(matchRepository.completeMatch(any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThat(stateMachine.apply(snapshot(MatchStatus.COMPLETED, 7L))).isFalse();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void cancellationPublishesNothing() {
+        when(matchRepository.cancelMatch(1L, NOW)).thenReturn(Optional.of(2L));
+
+        assertThat(stateMachine.apply(snapshot(MatchStatus.CANCELLED, null))).isTrue();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void rejectedCancellationReturnsFalse() {
+        when(matchRepository.cancelMatch(1L, NOW)).thenReturn(Optional.empty());
+
+        assertThat(stateMachine.apply(snapshot(MatchStatus.CANCELLED, null))).isFalse();
+    }
+
+    @Test
+    void waitingIsNotATransition() {
+        assertThatThrownBy(() -> stateMachine.apply(snapshot(MatchStatus.WAITING, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(matchRepository);
+    }
+
+    private static MatchSnapshot snapshot(MatchStatus status, Long winnerId) {
+        return new MatchSnapshot(1L, 7L, 8L, 100L, status, winnerId, NOW, NOW, NOW.minusMinutes(1), false, false);
+    }
+}
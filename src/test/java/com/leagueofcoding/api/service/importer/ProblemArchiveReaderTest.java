@@ -0,0 +1,82 @@
+package com.leagueofcoding.api.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Problem archive layout and the per-file and per-directory size caps.
+ *
+ * @author dao-nguyenminh
+ */
+class ProblemArchiveReaderTest {
+
+    @Test
+    void readsOneProblemPerDirectory() throws IOException {
+        List<ProblemArchiveReader.ArchivedProblem> problems = read(100, 1000,
+                "a/problem.json", "{}",
+                "a/tests/10.in", "x", "a/tests/10.out", "y",
+                "a/samples/1.in", "1", "a/samples/1.out", "2",
+                "a/tests/2.in", "3", "a/tests/2.out", "4",
+                "b/problem.json", "{}");
+
+        assertThat(problems).extracting(ProblemArchiveReader.ArchivedProblem::directory).containsExactly("a", "b");
+        assertThat(problems.getFirst().error()).isNull();
+        assertThat(problems.getFirst().testCases())
+                .extracting(t -> t.input())
+                .containsExactly("1", "3", "x");
+    }
+
+    @Test
+    void fileOverTheCapRejectsTheDirectory() throws IOException {
+        List<ProblemArchiveReader.ArchivedProblem> problems = read(4, 1000,
+                "a/problem.json", "{}",
+                "a/tests/1.in", "12345", "a/tests/1.out", "1",
+                "b/problem.json", "{}");
+
+        assertThat(problems.getFirst().error()).contains("tests/1.in");
+        assertThat(problems.get(1).error()).isNull();
+    }
+
+    @Test
+    void directoryOverTheCapIsRejected() throws IOException {
+        List<ProblemArchiveReader.ArchivedProblem> problems = read(4, 10,
+                "a/problem.json", "{}",
+                "a/tests/1.in", "1234", "a/tests/1.out", "1234",
+                "a/tests/2.in", "1234", "a/tests/2.out", "1234",
+                "b/problem.json", "{}",
+                "b/tests/1.in", "1234", "b/tests/1.out", "1234");
+
+        assertThat(problems.getFirst().error()).contains("in total");
+        assertThat(problems.getFirst().manifest()).isNull();
+        assertThat(problems.getFirst().testCases()).isEmpty();
+        assertThat(problems.get(1).error()).isNull();
+        assertThat(problems.get(1).testCases()).hasSize(1);
+    }
+
+    private static List<ProblemArchiveReader.ArchivedProblem> read(
+            int maxFileBytes, long maxDirectoryBytes, String... entries) throws IOException {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+
+        List<ProblemArchiveReader.ArchivedProblem> problems = new ArrayList<>();
+        new ProblemArchiveReader(new ByteArrayInputStream(zipped.toByteArray()), maxFileBytes, maxDirectoryBytes)
+                .read(problems::add);
+        return problems;
+    }
+}
@@ -0,0 +1,67 @@
+package com.leagueofcoding.api.service.rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * ELO expected score and rating deltas.
+ *
+ * @author dao-nguyenminh
+ */
+class EloCalculatorTest {
+
+    private final EloCalculator calculator = new EloCalculator(32);
+
+    @Test
+    void equalRatingsExpectHalf() {
+        assertThat(calculator.expectedScore(1500, 1500)).isEqualTo(0.5);
+    }
+
+    @Test
+    void fourHundredPointsIsTenToOne() {
+        assertThat(calculator.expectedScore(1900, 1500)).isCloseTo(10.0 / 11.0, within(1e-12));
+        assertThat(calculator.expectedScore(1500, 1900)).isCloseTo(1.0 / 11.0, within(1e-12));
+    }
+
+    @Test
+    void expectedScoresSumToOne() {
+        assertThat(calculator.expectedScore(1234, 1777) + calculator.expectedScore(1777, 1234))
+                .isCloseTo(1.0, within(1e-12));
+    }
+
+    @Test
+    void equalRatingsMoveHalfTheKFactor() {
+        assertThat(calculator.delta(1500, 1500, 1)).isEqualTo(16);
+        assertThat(calculator.delta(1500, 1500, 0)).isEqualTo(-16);
+        assertThat(calculator.delta(1500, 1500, 0.5)).isZero();
+    }
+
+    @Test
+    void upsetMovesMoreThanExpectedWin() {
+        // E = 1/11 for the underdog: 32 * 10/11 = 29.09
+        assertThat(calculator.delta(1500, 1900, 1)).isEqualTo(29);
+        // 32 * 1/11 = 2.91
+        assertThat(calculator.delta(1900, 1500, 1)).isEqualTo(3);
+    }
+
+    @Test
+    void drawFavoursTheLowerRated() {
+        assertThat(calculator.delta(1400, 1600, 0.5)).isPositive();
+        assertThat(calculator.delta(1600, 1400, 0.5)).isNegative();
+    }
+
+    @Test
+    void gameIsZeroSum() {
+        for (int opponent = 800; opponent <= 2400; opponent += 37) {
+            assertThat(calculator.delta(1600, opponent, 1) + calculator.delta(opponent, 1600, 0)).isZero();
+        }
+    }
+
+    @Test
+    void kFactorScalesTheDelta() {
+        assertThat(new EloCalculator(16).delta(1500, 1500, 1)).isEqualTo(8);
+        assertThat(calculator.getKFactor()).isEqualTo(32);
+    }
+}
@@ -0,0 +1,131 @@
+package com.leagueofcoding.api.service.rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Glicko-2 against the worked example of Glickman's paper, and the edge cases of the volatility iteration.
+ *
+ * @author dao-nguyenminh
+ */
+class Glicko2CalculatorTest {
+
+    private final Glicko2Calculator calculator = new Glicko2Calculator(0.5);
+
+    @Test
+    void matchesPaperExample() {
+        // Player 1500/200 beats 1400/30, loses to 1550/100 and 1700/300
+        Period period = new Period(
+                new double[]{1500, 1400, 1550, 1700},
+                new double[]{200, 30, 100, 300},
+                new int[]{1, 2, 3},
+                new float[]{1, 0, 0}
+        );
+
+        period.rate(0, 0, 3);
+
+        assertThat(Glicko2Calculator.toRating(period.newMu[0])).isCloseTo(1464.06, within(0.01));
+        assertThat(Glicko2Calculator.toDeviation(period.newPhi[0])).isCloseTo(151.52, within(0.01));
+        assertThat(period.newSigma[0]).isCloseTo(0.05999, within(0.00001));
+    }
+
+    @Test
+    void surprisingResultRaisesVolatility() {
+        // delta^2 > phi^2 + v: the upper bracket is taken from delta directly
+        Period period = new Period(
+                new double[]{1500, 2300},
+                new double[]{50, 30},
+                new int[]{1, 1, 1, 1, 1},
+                new float[]{1, 1, 1, 1, 1}
+        );
+
+        period.rate(0, 0, 5);
+
+        assertThat(period.newSigma[0]).isGreaterThan(Glicko2Calculator.DEFAULT_VOLATILITY);
+        assertThat(Glicko2Calculator.toRating(period.newMu[0])).isGreaterThan(1500);
+    }
+
+    @Test
+    void expectedResultKeepsVolatilityNearlyStable() {
+        // delta^2 <= phi^2 + v: the upper bracket is searched in steps of tau
+        Period period = new Period(
+                new double[]{1500, 1500},
+                new double[]{80, 80},
+                new int[]{1},
+                new float[]{0.5f}
+        );
+
+        period.rate(0, 0, 1);
+
+        assertThat(period.newSigma[0]).isCloseTo(Glicko2Calculator.DEFAULT_VOLATILITY, within(0.0001));
+        assertThat(Glicko2Calculator.toRating(period.newMu[0])).isCloseTo(1500, within(1e-9));
+        assertThat(Glicko2Calculator.toDeviation(period.newPhi[0])).isLessThan(80);
+    }
+
+    @Test
+    void idlePlayerOnlyGainsDeviation() {
+        Period period = new Period(new double[]{1700}, new double[]{100}, new int[0], new float[0]);
+
+        period.rate(0, 0, 0);
+
+        double expectedPhi = Math.hypot(Glicko2Calculator.toPhi(100), Glicko2Calculator.DEFAULT_VOLATILITY);
+        assertThat(Glicko2Calculator.toRating(period.newMu[0])).isCloseTo(1700, within(1e-9));
+        assertThat(period.newPhi[0]).isCloseTo(expectedPhi, within(1e-12));
+        assertThat(period.newSigma[0]).isEqualTo(Glicko2Calculator.DEFAULT_VOLATILITY);
+    }
+
+    @Test
+    void deviationIsCappedAtDefault() {
+        Period period = new Period(new double[]{1500}, new double[]{349.9}, new int[0], new float[0]);
+
+        period.rate(0, 0, 0);
+
+        assertThat(Glicko2Calculator.toDeviation(period.newPhi[0]))
+                .isCloseTo(Glicko2Calculator.DEFAULT_DEVIATION, within(1e-9));
+    }
+
+    @Test
+    void scaleConversionsRoundTrip() {
+        assertThat(Glicko2Calculator.toMu(Glicko2Calculator.DEFAULT_RATING)).isZero();
+        assertThat(Glicko2Calculator.toRating(Glicko2Calculator.toMu(1834.5))).isCloseTo(1834.5, within(1e-9));
+        assertThat(Glicko2Calculator.toDeviation(Glicko2Calculator.toPhi(87))).isCloseTo(87, within(1e-9));
+    }
+
+    /**
+     * Pre- and post-period state of a few players, on the internal scale.
+     */
+    private final class Period {
+
+        final double[] mu;
+        final double[] phi;
+        final double[] sigma;
+        final int[] opponents;
+        final float[] scores;
+        final double[] newMu;
+        final double[] newPhi;
+        final double[] newSigma;
+
+        Period(double[] ratings, double[] deviations, int[] opponents, float[] scores) {
+            int players = ratings.length;
+            this.mu = new double[players];
+            this.phi = new double[players];
+            this.sigma = new double[players];
+            for (int i = 0; i < players; i++) {
+                mu[i] = Glicko2Calculator.toMu(ratings[i]);
+                phi[i] = Glicko2Calculator.toPhi(deviations[i]);
+                sigma[i] = Glicko2Calculator.DEFAULT_VOLATILITY;
+            }
+            this.opponents = opponents;
+            this.scores = scores;
+            this.newMu = new double[players];
+            this.newPhi = new double[players];
+            this.newSigma = new double[players];
+        }
+
+        void rate(int player, int from, int to) {
+            calculator.rate(player, mu, phi, sigma, opponents, scores, from, to, newMu, newPhi, newSigma);
+        }
+    }
+}
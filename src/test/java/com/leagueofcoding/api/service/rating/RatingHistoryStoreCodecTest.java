@@ -0,0 +1,84 @@
+package com.leagueofcoding.api.service.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Zigzag varint codec of the rating history chunks.
+ *
+ * @author dao-nguyenminh
+ */
+class RatingHistoryStoreCodecTest {
+
+    @Test
+    void roundTripsEdgeValues() {
+        long[] values = {
+                0, 1, -1, 63, -64, 64, -65, 8191, -8192, 8192,
+                Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE
+        };
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            RatingHistoryStore.writeVarLong(out, value);
+        }
+
+        byte[] data = out.toByteArray();
+        int[] position = {0};
+        for (long value : values) {
+            assertThat(RatingHistoryStore.readVarLong(data, position)).isEqualTo(value);
+        }
+        assertThat(position[0]).isEqualTo(data.length);
+    }
+
+    @Test
+    void smallMagnitudesOfEitherSignStaySmall() {
+        assertThat(encodedSize(0)).isEqualTo(1);
+        assertThat(encodedSize(-1)).isEqualTo(1);
+        assertThat(encodedSize(63)).isEqualTo(1);
+        assertThat(encodedSize(-64)).isEqualTo(1);
+        assertThat(encodedSize(64)).isEqualTo(2);
+        assertThat(encodedSize(-65)).isEqualTo(2);
+        assertThat(encodedSize(8191)).isEqualTo(2);
+        assertThat(encodedSize(8192)).isEqualTo(3);
+        assertThat(encodedSize(Long.MIN_VALUE)).isEqualTo(10);
+    }
+
+    @Test
+    void zigzagInterleavesSigns() {
+        assertThat(encode(0)).containsExactly(0);
+        assertThat(encode(-1)).containsExactly(1);
+        assertThat(encode(1)).containsExactly(2);
+        assertThat(encode(-2)).containsExactly(3);
+        assertThat(encode(64)).containsExactly(0x80, 0x01);
+    }
+
+    @Test
+    void typicalPointTakesFewBytes() {
+        // A day later, a few thousand matches later, +/- a dozen rating points
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RatingHistoryStore.writeVarLong(out, 86_400);
+        RatingHistoryStore.writeVarLong(out, 3_000);
+        RatingHistoryStore.writeVarLong(out, -12);
+
+        assertThat(out.size()).isBetween(5, 8);
+    }
+
+    private static int encodedSize(long value) {
+        return encode(value).length;
+    }
+
+    private static int[] encode(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RatingHistoryStore.writeVarLong(out, value);
+
+        byte[] bytes = out.toByteArray();
+        int[] unsigned = new int[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            unsigned[i] = bytes[i] & 0xFF;
+        }
+        return unsigned;
+    }
+}
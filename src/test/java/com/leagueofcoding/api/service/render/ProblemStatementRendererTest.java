@@ -0,0 +1,110 @@
+package com.leagueofcoding.api.service.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement rendering: supported Markdown, and sanitization of everything else.
+ *
+ * @author dao-nguyenminh
+ */
+class ProblemStatementRendererTest {
+
+    private final ProblemStatementRenderer renderer = new ProblemStatementRenderer();
+
+    @Test
+    void rawHtmlIsEscaped() {
+        assertThat(renderer.toHtml("<script>alert(1)</script>"))
+                .isEqualTo("<p>&lt;script&gt;alert(1)&lt;/script&gt;</p>\n");
+        assertThat(renderer.toHtml("<img src=x onerror=alert(1)>"))
+                .isEqualTo("<p>&lt;img src=x onerror=alert(1)&gt;</p>\n");
+    }
+
+    @Test
+    void quotesCannotBreakOutOfAttributes() {
+        assertThat(renderer.toHtml("[x](https://a.com/\"onmouseover=\"alert(1))"))
+                .isEqualTo("<p><a href=\"https://a.com/&quot;onmouseover=&quot;alert(1)\" " +
+                        "rel=\"nofollow noopener noreferrer\">x</a></p>\n");
+        assertThat(renderer.toHtml("![\" onerror=\"alert(1)](https://a.com/x.png)"))
+                .isEqualTo("<p><img src=\"https://a.com/x.png\" alt=\"&quot; onerror=&quot;alert(1)\" " +
+                        "loading=\"lazy\"></p>\n");
+    }
+
+    @Test
+    void scriptUrlsRenderAsText() {
+        assertThat(renderer.toHtml("[click](javascript:alert(1))")).isEqualTo("<p>click</p>\n");
+        assertThat(renderer.toHtml("[click](JavaScript:alert(1))")).isEqualTo("<p>click</p>\n");
+        assertThat(renderer.toHtml("[click](data:text/html;base64,PHNjcmlwdD4=)")).isEqualTo("<p>click</p>\n");
+        assertThat(renderer.toHtml("![pic](data:image/svg+xml;base64,PHN2Zz4=)")).isEqualTo("<p>pic</p>\n");
+        assertThat(renderer.toHtml("![pic](javascript:alert(1))")).isEqualTo("<p>pic</p>\n");
+    }
+
+    @Test
+    void safeUrlsAreLinked() {
+        assertThat(renderer.toHtml("[docs](https://example.com/a?b=1&c=2)"))
+                .isEqualTo("<p><a href=\"https://example.com/a?b=1&amp;c=2\" " +
+                        "rel=\"nofollow noopener noreferrer\">docs</a></p>\n");
+        assertThat(renderer.toHtml("[top](#input)"))
+                .isEqualTo("<p><a href=\"#input\" rel=\"nofollow noopener noreferrer\">top</a></p>\n");
+    }
+
+    @Test
+    void emphasisNests() {
+        assertThat(renderer.toHtml("**bold *italic* text**"))
+                .isEqualTo("<p><strong>bold <em>italic</em> text</strong></p>\n");
+        assertThat(renderer.toHtml("_a **b** c_"))
+                .isEqualTo("<p><em>a <strong>b</strong> c</em></p>\n");
+    }
+
+    @Test
+    void intrawordMarkersAreNotEmphasis() {
+        assertThat(renderer.toHtml("snake_case_name and 2*3*4")).isEqualTo("<p>snake_case_name and 2*3*4</p>\n");
+        assertThat(renderer.toHtml("* not emphasis *")).isEqualTo("<ul>\n<li>not emphasis *</li>\n</ul>\n");
+    }
+
+    @Test
+    void unclosedFenceRunsToTheEnd() {
+        assertThat(renderer.toHtml("```java\nif (a < b) {\n  return;"))
+                .isEqualTo("<pre><code class=\"language-java\">if (a &lt; b) {\n  return;\n</code></pre>\n");
+    }
+
+    @Test
+    void closedFenceEndsTheBlock() {
+        assertThat(renderer.toHtml("```\n<b>\n```\nafter"))
+                .isEqualTo("<pre><code>&lt;b&gt;\n</code></pre>\n<p>after</p>\n");
+    }
+
+    @Test
+    void unclosedCodeSpanIsText() {
+        assertThat(renderer.toHtml("use `foo <b>")).isEqualTo("<p>use `foo &lt;b&gt;</p>\n");
+        assertThat(renderer.toHtml("use `a < b`")).isEqualTo("<p>use <code>a &lt; b</code></p>\n");
+        assertThat(renderer.toHtml("``a ` b``")).isEqualTo("<p><code>a ` b</code></p>\n");
+    }
+
+    @Test
+    void mathIsKeptAsEscapedTex() {
+        assertThat(renderer.toHtml("where $a_i < 10^9$ holds"))
+                .isEqualTo("<p>where <span class=\"math math-inline\">a_i &lt; 10^9</span> holds</p>\n");
+        assertThat(renderer.toHtml("$$\\sum_{i=1}^n a_i$$"))
+                .isEqualTo("<div class=\"math math-display\">\\sum_{i=1}^n a_i</div>\n");
+        assertThat(renderer.toHtml("$$\nx <\ny\n$$"))
+                .isEqualTo("<div class=\"math math-display\">x &lt;\ny</div>\n");
+    }
+
+    @Test
+    void dollarsAroundSpacesAreNotMath() {
+        assertThat(renderer.toHtml("costs $ 5 or $ 6")).isEqualTo("<p>costs $ 5 or $ 6</p>\n");
+        assertThat(renderer.toHtml("a lone $ sign")).isEqualTo("<p>a lone $ sign</p>\n");
+    }
+
+    @Test
+    void renderHashesTheHtml() {
+        ProblemStatementRenderer.Rendered first = renderer.render("# Title");
+        ProblemStatementRenderer.Rendered second = renderer.render("# Title");
+
+        assertThat(first.html()).isEqualTo("<h1>Title</h1>\n");
+        assertThat(first.hash()).hasSize(64).isEqualTo(second.hash());
+        assertThat(renderer.render("# Other").hash()).isNotEqualTo(first.hash());
+    }
+}
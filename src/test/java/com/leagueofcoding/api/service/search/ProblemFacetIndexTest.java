@@ -0,0 +1,182 @@
+package com.leagueofcoding.api.service.search;
+
+import com.leagueofcoding.api.enums.ProgrammingLanguage;
+import com.leagueofcoding.api.enums.SubmissionStatus;
+import com.leagueofcoding.api.service.ProblemChangedEvent;
+import com.leagueofcoding.api.service.battle.SubmissionJudgedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Facet bitmap algebra, keyset paging and re-indexing of changed problems.
+ *
+ * @author dao-nguyenminh
+ */
+class ProblemFacetIndexTest {
+
+    private static final long USER = 7L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProblemFacetIndex index = new ProblemFacetIndex(jdbcTemplate);
+
+    // What the database holds: active problems, and the user's solved problems
+    private final Map<Long, Object[]> problems = new HashMap<>();
+    private final List<Long> solved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any())).thenAnswer(invocation -> {
+            Object[] row = problems.get(invocation.<Long>getArgument(2));
+            if (row == null) {
+                return List.of();
+            }
+            return List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(resultSet(row), 0));
+        });
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Long problemId : solved) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(problemId);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any());
+
+        index(1, "EASY", 10, "array");
+        index(2, "MEDIUM", 10, "array", "dp");
+        index(3, "HARD", 20, "graph", "dp");
+        index(4, "EASY", 20, "graph");
+        index(5, "MEDIUM", 30, "dp");
+    }
+
+    @Test
+    void noCriteriaMatchesEveryActiveProblem() {
+        assertThat(filter(List.of())).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void valuesOfOneFacetAreCombinedWithOr() {
+        assertThat(filter(List.of(criterion(ProblemFacet.DIFFICULTY, false, "EASY", "HARD"))))
+                .containsExactly(1L, 3L, 4L);
+        assertThat(filter(List.of(criterion(ProblemFacet.TAG, false, "array", "graph"))))
+                .containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void matchAllRequiresEveryValue() {
+        assertThat(filter(List.of(criterion(ProblemFacet.TAG, true, "dp", "graph"))))
+                .containsExactly(3L);
+        assertThat(filter(List.of(criterion(ProblemFacet.TAG, true, "dp", "unknown"))))
+                .isEmpty();
+    }
+
+    @Test
+    void facetsAreCombinedWithAnd() {
+        List<ProblemFacetIndex.Criterion> criteria = List.of(
+                criterion(ProblemFacet.DIFFICULTY, false, "MEDIUM", "HARD"),
+                criterion(ProblemFacet.CATEGORY, false, "10", "20"),
+                criterion(ProblemFacet.TAG, false, "dp")
+        );
+
+        assertThat(filter(criteria)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void unknownValueMatchesNothing() {
+        assertThat(filter(List.of(criterion(ProblemFacet.CATEGORY, false, "99")))).isEmpty();
+    }
+
+    @Test
+    void solvedProblemsAreExcluded() {
+        solved.addAll(List.of(2L, 5L));
+
+        ProblemFacetIndex.Match match = index.filter(
+                List.of(criterion(ProblemFacet.TAG, false, "dp")), USER, 0, 10);
+
+        assertThat(match.problemIds()).containsExactly(3L);
+        assertThat(match.total()).isEqualTo(1);
+    }
+
+    @Test
+    void firstSolveIsAddedToALoadedUser() {
+        index.filter(List.of(), USER, 0, 10);
+
+        index.onSubmissionJudged(new SubmissionJudgedEvent(
+                100L, 200L, USER, 4L, ProgrammingLanguage.JAVA, SubmissionStatus.PASSED, 50, true));
+
+        assertThat(index.filter(List.of(), USER, 0, 10).problemIds()).containsExactly(1L, 2L, 3L, 5L);
+    }
+
+    @Test
+    void pagesContinueAfterTheLastId() {
+        ProblemFacetIndex.Match first = index.filter(List.of(), null, 0, 2);
+        ProblemFacetIndex.Match second = index.filter(List.of(), null, first.problemIds().getLast(), 2);
+        ProblemFacetIndex.Match last = index.filter(List.of(), null, second.problemIds().getLast(), 2);
+
+        assertThat(first.problemIds()).containsExactly(1L, 2L);
+        assertThat(second.problemIds()).containsExactly(3L, 4L);
+        assertThat(last.problemIds()).containsExactly(5L);
+        assertThat(last.total()).isEqualTo(5);
+    }
+
+    @Test
+    void changedProblemLeavesItsOldValues() {
+        index(3, "EASY", 20, "graph");
+
+        assertThat(filter(List.of(criterion(ProblemFacet.DIFFICULTY, false, "HARD")))).isEmpty();
+        assertThat(filter(List.of(criterion(ProblemFacet.TAG, false, "dp")))).containsExactly(2L, 5L);
+        assertThat(filter(List.of(criterion(ProblemFacet.DIFFICULTY, false, "EASY")))).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void deactivatedProblemIsDropped() {
+        problems.remove(2L);
+        index.onProblemChanged(new ProblemChangedEvent(2L));
+
+        assertThat(filter(List.of())).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(filter(List.of(criterion(ProblemFacet.TAG, false, "array")))).containsExactly(1L);
+    }
+
+    private List<Long> filter(List<ProblemFacetIndex.Criterion> criteria) {
+        return index.filter(criteria, null, 0, 100).problemIds();
+    }
+
+    private void index(long problemId, String difficulty, long categoryId, String... tags) {
+        problems.put(problemId, new Object[]{problemId, difficulty, categoryId, tags});
+        index.onProblemChanged(new ProblemChangedEvent(problemId));
+    }
+
+    private static ProblemFacetIndex.Criterion criterion(ProblemFacet facet, boolean matchAll, String... values) {
+        return new ProblemFacetIndex.Criterion(facet, Set.of(values), matchAll);
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        Array tags = mock(Array.class);
+        when(rs.getLong(1)).thenReturn((Long) row[0]);
+        when(rs.getString(2)).thenReturn((String) row[1]);
+        when(rs.getLong(3)).thenReturn((Long) row[2]);
+        when(rs.getArray(4)).thenReturn(tags);
+        when(tags.getArray()).thenReturn(row[3]);
+        return rs;
+    }
+}
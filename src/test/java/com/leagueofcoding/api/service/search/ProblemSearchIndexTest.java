@@ -0,0 +1,159 @@
+package com.leagueofcoding.api.service.search;
+
+import com.leagueofcoding.api.dto.problem.ProblemSearchHitResponse;
+import com.leagueofcoding.api.service.ProblemChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tokenizing, prefix expansion and BM25 ranking of the problem search index.
+ *
+ * @author dao-nguyenminh
+ */
+class ProblemSearchIndexTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProblemSearchIndex index = new ProblemSearchIndex(jdbcTemplate);
+
+    // Active problems in the database: title and description
+    private final Map<Long, String[]> problems = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any())).thenAnswer(invocation -> {
+            Long problemId = invocation.getArgument(2);
+            String[] row = problems.get(problemId);
+            if (row == null) {
+                return List.of();
+            }
+            return List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(resultSet(problemId, row), 0));
+        });
+
+        index(1, "Two Sum", "Find two numbers that add up to the target.");
+        index(2, "Binary Search", "Search a sorted array for a target value.");
+        index(3, "Longest Path in a Graph", "Find the longest path. Search the graph with dynamic programming.");
+        index(4, "Đường đi ngắn nhất", "Tìm đường đi ngắn nhất trong đồ thị.");
+        index(5, "Pathfinding", "Grid pathfinding.");
+    }
+
+    @Test
+    void tokenizeFoldsAccentsAndCase() {
+        assertThat(ProblemSearchIndex.tokenize("Tìm Đường đi NGẮN nhất"))
+                .containsExactly("tim", "duong", "di", "ngan", "nhat");
+        assertThat(ProblemSearchIndex.tokenize("Café naïve")).containsExactly("cafe", "naive");
+    }
+
+    @Test
+    void tokenizeDropsStopWordsAndSingleLetters() {
+        assertThat(ProblemSearchIndex.tokenize("The sum of a and b is 2")).containsExactly("sum", "2");
+        assertThat(ProblemSearchIndex.tokenize("C++ / x")).isEmpty();
+    }
+
+    @Test
+    void tokenizeSplitsOnPunctuation() {
+        assertThat(ProblemSearchIndex.tokenize("k-th smallest (1-indexed)"))
+                .containsExactly("th", "smallest", "1", "indexed");
+        assertThat(ProblemSearchIndex.tokenize(null)).isEmpty();
+        assertThat(ProblemSearchIndex.tokenize("   ")).isEmpty();
+    }
+
+    @Test
+    void queryWithoutSearchableWordsFindsNothing() {
+        assertThat(index.search("the a of", 10)).isEmpty();
+    }
+
+    @Test
+    void accentedQueryMatchesUnaccentedTextAndBack() {
+        assertThat(ids(index.search("duong di", 10))).containsExactly(4L);
+        assertThat(ids(index.search("đồ thị", 10))).containsExactly(4L);
+    }
+
+    @Test
+    void titleOccurrenceOutranksDescriptionOccurrence() {
+        assertThat(ids(index.search("search", 10))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void rareTermWeighsMoreThanCommonTerm() {
+        // "find" is in problems 1 and 3, "longest" only in 3
+        assertThat(ids(index.search("find longest", 10))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void lastTokenAlsoMatchesAsPrefix() {
+        assertThat(ids(index.search("bin", 10))).containsExactly(2L);
+        assertThat(ids(index.search("graph dyn", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void exactMatchOutranksPrefixMatch() {
+        assertThat(ids(index.search("path", 10))).containsExactly(3L, 5L);
+    }
+
+    @Test
+    void onlyTheLastTokenIsExpanded() {
+        assertThat(ids(index.search("pathf sorted", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        List<ProblemSearchHitResponse> hits = index.search("search", 1);
+
+        assertThat(ids(hits)).containsExactly(2L);
+        assertThat(hits.getFirst().score()).isPositive();
+    }
+
+    @Test
+    void deactivatedProblemIsDropped() {
+        problems.remove(2L);
+        index.onProblemChanged(new ProblemChangedEvent(2L));
+
+        assertThat(index.search("binary", 10)).isEmpty();
+        assertThat(ids(index.search("search", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void changedProblemIsFoundByItsNewText() {
+        index(1, "Three Sum", "Find three numbers that add up to zero.");
+
+        assertThat(index.search("two", 10)).isEmpty();
+        assertThat(ids(index.search("three", 10))).containsExactly(1L);
+    }
+
+    private void index(long problemId, String title, String description) {
+        problems.put(problemId, new String[]{title, description});
+        index.onProblemChanged(new ProblemChangedEvent(problemId));
+    }
+
+    private static List<Long> ids(List<ProblemSearchHitResponse> hits) {
+        return hits.stream().map(ProblemSearchHitResponse::id).toList();
+    }
+
+    private static ResultSet resultSet(long problemId, String[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(problemId);
+        when(rs.getString(2)).thenReturn(row[0]);
+        when(rs.getString(3)).thenReturn("problem-" + problemId);
+        when(rs.getString(4)).thenReturn("EASY");
+        when(rs.getString(5)).thenReturn(row[1]);
+        when(rs.getLong(6)).thenReturn(1L);
+        when(rs.getString(7)).thenReturn("Algorithms");
+        when(rs.getString(8)).thenReturn("algorithms");
+        when(rs.getString(9)).thenReturn(null);
+        return rs;
+    }
+}
@@ -0,0 +1,74 @@
+package com.leagueofcoding.api.service.season;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Season soft reset and inactivity decay.
+ *
+ * @author dao-nguyenminh
+ */
+class SeasonResetPolicyTest {
+
+    private static final int MEAN = 1500;
+    private static final LocalDateTime SEASON_END = LocalDateTime.of(2026, 6, 30, 23, 59);
+
+    // keep half, decay after 28 idle days by 15 per started week, at most 200
+    private final SeasonResetPolicy policy = new SeasonResetPolicy(0.5, 28, 15, 200);
+
+    @Test
+    void activePlayerKeepsHalfTheDistanceToMean() {
+        assertThat(policy.resetRating(1900, MEAN, daysBeforeEnd(3), SEASON_END)).isEqualTo(1700);
+        assertThat(policy.resetRating(1501, MEAN, daysBeforeEnd(3), SEASON_END)).isEqualTo(1501);
+    }
+
+    @Test
+    void belowMeanMovesUpWithoutDecay() {
+        assertThat(policy.resetRating(1100, MEAN, null, SEASON_END)).isEqualTo(1300);
+        assertThat(policy.resetRating(1100, MEAN, daysBeforeEnd(365), SEASON_END)).isEqualTo(1300);
+    }
+
+    @Test
+    void noDecayUpToTheThreshold() {
+        assertThat(policy.resetRating(1900, MEAN, daysBeforeEnd(28), SEASON_END)).isEqualTo(1700);
+    }
+
+    @Test
+    void decayCountsStartedWeeksPastTheThreshold() {
+        assertThat(policy.resetRating(1900, MEAN, daysBeforeEnd(29), SEASON_END)).isEqualTo(1685);
+        assertThat(policy.resetRating(1900, MEAN, daysBeforeEnd(35), SEASON_END)).isEqualTo(1670);
+        assertThat(policy.resetRating(1900, MEAN, daysBeforeEnd(55), SEASON_END)).isEqualTo(1640);
+    }
+
+    @Test
+    void decayIsCapped() {
+        assertThat(policy.resetRating(2500, MEAN, daysBeforeEnd(700), SEASON_END)).isEqualTo(1800);
+    }
+
+    @Test
+    void decayNeverGoesBelowMean() {
+        assertThat(policy.resetRating(1560, MEAN, daysBeforeEnd(700), SEASON_END)).isEqualTo(MEAN);
+    }
+
+    @Test
+    void untrackedPlayerTakesFullDecay() {
+        assertThat(policy.resetRating(2300, MEAN, null, SEASON_END)).isEqualTo(1700);
+        assertThat(policy.resetRating(1700, MEAN, null, SEASON_END)).isEqualTo(MEAN);
+    }
+
+    @Test
+    void keepFactorIsConfigurable() {
+        SeasonResetPolicy hard = new SeasonResetPolicy(0.0, 28, 15, 200);
+        SeasonResetPolicy none = new SeasonResetPolicy(1.0, 28, 15, 200);
+
+        assertThat(hard.resetRating(2100, MEAN, daysBeforeEnd(1), SEASON_END)).isEqualTo(MEAN);
+        assertThat(none.resetRating(2100, MEAN, daysBeforeEnd(1), SEASON_END)).isEqualTo(2100);
+    }
+
+    private static LocalDateTime daysBeforeEnd(int days) {
+        return SEASON_END.minusDays(days);
+    }
+}
@@ -0,0 +1,114 @@
+package com.leagueofcoding.api.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Log-linear bucketing and the "beats X%" ranking of runtime histograms.
+ *
+ * @author dao-nguyenminh
+ */
+class RuntimeHistogramTest {
+
+    @Test
+    void smallRuntimesGetOneBucketPerMillisecond() {
+        for (int ms = 0; ms < RuntimeHistogram.LINEAR_LIMIT; ms++) {
+            assertThat(RuntimeHistogram.bucketOf(ms)).isEqualTo(ms);
+            assertThat(RuntimeHistogram.lowerBoundOf(ms)).isEqualTo(ms);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndMonotonic() {
+        int previous = RuntimeHistogram.bucketOf(0);
+        for (long ms = 1; ms <= RuntimeHistogram.MAX_RUNTIME_MS; ms++) {
+            int bucket = RuntimeHistogram.bucketOf(ms);
+            assertThat(bucket - previous).isBetween(0, 1);
+            previous = bucket;
+        }
+        assertThat(previous).isEqualTo(RuntimeHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    void lowerBoundIsTheFirstRuntimeOfItsBucket() {
+        for (int bucket = 0; bucket < RuntimeHistogram.BUCKETS; bucket++) {
+            long lower = RuntimeHistogram.lowerBoundOf(bucket);
+            assertThat(RuntimeHistogram.bucketOf(lower)).isEqualTo(bucket);
+            if (lower > 0) {
+                assertThat(RuntimeHistogram.bucketOf(lower - 1)).isEqualTo(bucket - 1);
+            }
+        }
+    }
+
+    @Test
+    void bucketWidthStaysWithinRelativeError() {
+        for (int bucket = RuntimeHistogram.LINEAR_LIMIT; bucket < RuntimeHistogram.BUCKETS - 1; bucket++) {
+            long lower = RuntimeHistogram.lowerBoundOf(bucket);
+            long width = RuntimeHistogram.lowerBoundOf(bucket + 1) - lower;
+            assertThat((double) width / lower).isLessThanOrEqualTo(1.0 / RuntimeHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    void outOfRangeRuntimesAreClamped() {
+        assertThat(RuntimeHistogram.bucketOf(-5)).isZero();
+        assertThat(RuntimeHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(RuntimeHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    void emptyHistogramHasNoRanking() {
+        RuntimeHistogram histogram = new RuntimeHistogram();
+
+        assertThat(histogram.beatsPercent(100)).isNull();
+        assertThat(histogram.percentile(0.5)).isNull();
+        assertThat(histogram.toArray()).isEmpty();
+    }
+
+    @Test
+    void beatsCountsStrictlySlowerBuckets() {
+        RuntimeHistogram histogram = new RuntimeHistogram();
+        for (int ms = 10; ms <= 1000; ms += 10) {
+            histogram.record(ms);
+        }
+
+        assertThat(histogram.beatsPercent(5)).isEqualTo(100.0);
+        assertThat(histogram.beatsPercent(500)).isEqualTo(50.0);
+        assertThat(histogram.beatsPercent(10)).isEqualTo(99.0);
+        assertThat(histogram.beatsPercent(1000)).isZero();
+        assertThat(histogram.beatsPercent(5000)).isZero();
+        assertThat(histogram.percentile(0.5)).isEqualTo(496);
+    }
+
+    @Test
+    void rankingIsRebuiltAfterChanges() {
+        RuntimeHistogram histogram = new RuntimeHistogram();
+        histogram.record(100);
+        assertThat(histogram.beatsPercent(50)).isEqualTo(100.0);
+
+        histogram.record(20);
+        assertThat(histogram.beatsPercent(50)).isEqualTo(50.0);
+
+        histogram.clear();
+        assertThat(histogram.beatsPercent(50)).isNull();
+    }
+
+    @Test
+    void mergeAddsCountsBucketByBucket() {
+        RuntimeHistogram java = new RuntimeHistogram();
+        RuntimeHistogram python = new RuntimeHistogram();
+        java.record(40);
+        java.record(300);
+        python.record(2000);
+        python.record(2000);
+
+        RuntimeHistogram all = new RuntimeHistogram();
+        all.merge(java);
+        all.merge(python.toArray());
+
+        assertThat(all.total()).isEqualTo(4);
+        assertThat(all.beatsPercent(300)).isCloseTo(50.0, within(1e-9));
+        assertThat(all.toArray()).hasSize(RuntimeHistogram.bucketOf(2000) + 1);
+    }
+}
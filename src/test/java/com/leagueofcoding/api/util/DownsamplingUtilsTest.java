@@ -0,0 +1,87 @@
+package com.leagueofcoding.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling.
+ *
+ * @author dao-nguyenminh
+ */
+class DownsamplingUtilsTest {
+
+    @Test
+    void shortSeriesIsKeptWhole() {
+        long[] x = {1, 2, 3, 4};
+        double[] y = {5, 6, 7, 8};
+
+        assertThat(DownsamplingUtils.lttb(x, y, 4, 10)).containsExactly(0, 1, 2, 3);
+        assertThat(DownsamplingUtils.lttb(x, y, 4, 4)).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void thresholdBelowThreeKeepsEverything() {
+        long[] x = {1, 2, 3, 4, 5};
+        double[] y = {1, 2, 3, 4, 5};
+
+        assertThat(DownsamplingUtils.lttb(x, y, 5, 2)).hasSize(5);
+    }
+
+    @Test
+    void onlyTheUsedLengthIsRead() {
+        long[] x = {1, 2, 3, 0, 0, 0};
+        double[] y = {1, 2, 3, 0, 0, 0};
+
+        assertThat(DownsamplingUtils.lttb(x, y, 3, 500)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void keepsEndpointsAndReturnsThresholdAscendingIndices() {
+        int length = 1000;
+        long[] x = new long[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i * 60L;
+            y[i] = 1500 + 100 * Math.sin(i / 25.0);
+        }
+
+        int[] kept = DownsamplingUtils.lttb(x, y, length, 50);
+
+        assertThat(kept).hasSize(50);
+        assertThat(kept[0]).isZero();
+        assertThat(kept[49]).isEqualTo(length - 1);
+        assertThat(kept).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void keepsSpikesThatAveragingWouldFlatten() {
+        int length = 300;
+        long[] x = new long[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 1500;
+        }
+        y[77] = 2100;
+        y[201] = 900;
+
+        int[] kept = DownsamplingUtils.lttb(x, y, length, 10);
+
+        assertThat(kept).contains(77, 201);
+    }
+
+    @Test
+    void picksOnePointPerBucket() {
+        // 8 inner points in 3 buckets of 8/3 points
+        long[] x = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        double[] y = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+        int[] kept = DownsamplingUtils.lttb(x, y, 10, 5);
+
+        assertThat(kept).hasSize(5);
+        assertThat(kept[1]).isBetween(1, 2);
+        assertThat(kept[2]).isBetween(3, 5);
+        assertThat(kept[3]).isBetween(6, 8);
+    }
+}